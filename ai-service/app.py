@@ -8,6 +8,8 @@ import random
 from sklearn.linear_model import LinearRegression
 from sklearn.preprocessing import StandardScaler
 import logging
+import os
+import time
 
 app = Flask(__name__)
 CORS(app)
@@ -64,6 +66,10 @@ class StudyAIEngine:
 
         return random.sample(base_recommendations, min(4, len(base_recommendations)))
 
+    def generate_recommendations_batch(self, users):
+        """Generate recommendations for several users in one call, in request order"""
+        return [self.generate_recommendations(user_data) for user_data in users]
+
     def _generate_personalized_recommendations(self, user_data):
         """Generate personalized recommendations based on user performance"""
         recommendations = []
@@ -136,6 +142,14 @@ class StudyAIEngine:
 # Initialize AI engine
 ai_engine = StudyAIEngine()
 
+# Artificial latency for exercising client timeouts against a slow backend
+SIMULATED_DELAY_MS = int(os.environ.get('AI_SERVICE_DELAY_MS', '0'))
+
+@app.before_request
+def simulate_slow_backend():
+    if SIMULATED_DELAY_MS > 0 and request.path != '/health':
+        time.sleep(SIMULATED_DELAY_MS / 1000.0)
+
 @app.route('/health', methods=['GET'])
 def health_check():
     return jsonify({"status": "healthy", "service": "StudyAI", "version": "1.0.0"})
@@ -156,6 +170,22 @@ def get_recommendations():
         logger.error(f"Error generating recommendations: {e}")
         return jsonify({"success": False, "error": str(e)}), 500
 
+@app.route('/api/recommendations/batch', methods=['POST'])
+def get_recommendations_batch():
+    """Get recommendations for several users; results[i] answers requests[i]"""
+    try:
+        users = (request.json or {}).get('requests', [])
+        results = ai_engine.generate_recommendations_batch(users)
+
+        return jsonify({
+            "success": True,
+            "results": [{"recommendations": recommendations} for recommendations in results],
+            "generated_at": datetime.now().isoformat()
+        })
+    except Exception as e:
+        logger.error(f"Error generating batch recommendations: {e}")
+        return jsonify({"success": False, "error": str(e)}), 500
+
 @app.route('/api/analytics', methods=['POST'])
 def analyze_study_data():
     """Analyze study data and provide insights"""
@@ -244,6 +274,7 @@ if __name__ == '__main__':
     print("Available endpoints:")
     print("  GET  /health - Health check")
     print("  GET  /api/recommendations - Get study recommendations")
+    print("  POST /api/recommendations/batch - Get recommendations for several users")
     print("  POST /api/analytics - Analyze study data")
     print("  POST /api/schedule/optimize - Optimize study schedule")
     print("  POST /api/prediction/performance - Predict performance")
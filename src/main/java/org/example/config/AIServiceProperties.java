@@ -3,13 +3,46 @@ package org.example.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @ConfigurationProperties(prefix = "app.ai.service")
 public class AIServiceProperties {
 
+    public enum Engine { REMOTE, LOCAL }
+
     private String url = "http://localhost:8085";
-    private int timeout = 5000;
+    private int timeout = 5000;                 // Default response timeout (ms) for endpoints without their own
     private boolean enabled = true;
+    private Engine engine = Engine.REMOTE; // LOCAL answers recommendations, schedules and predictions in-process
+    private boolean localFallback = true;  // When the AI service gives no answer, use the in-process engine over static defaults
+    private int connectTimeout = 1000;          // TCP connect timeout (ms)
+    private int connectionRequestTimeout = 500; // Longest wait (ms) for a free pooled connection
+    private int maxConnections = 50;            // Pooled keep-alive connections to the AI service
+    private int idleTimeoutSeconds = 30;        // Idle pooled connections are closed after this
+    private Map<String, Integer> endpointTimeouts = new HashMap<>(Map.of("health", 1000)); // Response timeout (ms) by endpoint
+    private int circuitFailureRateThreshold = 50; // Percent of failed calls in the window that opens the circuit
+    private int circuitMinimumCalls = 10;         // Calls needed in the window before the rate is judged
+    private int circuitWindowSeconds = 30;        // Rolling window length
+    private int circuitOpenSeconds = 30;          // How long an open circuit rejects calls before trial calls
+    private int circuitHalfOpenCalls = 3;         // Trial calls that must all succeed to close again
+    private int bulkheadMaxConcurrent = 20;       // Concurrent calls per endpoint; extra calls get the fallback
+    private Map<String, Integer> bulkheadLimits = new HashMap<>(); // Per-endpoint overrides of bulkheadMaxConcurrent
+    private boolean cacheEnabled = true;
+    private int cacheMaxEntries = 10000;  // Least recently used entries are evicted beyond this
+    private int cacheTtlSeconds = 300;    // Answers younger than this are served without a call
+    private int cacheStaleSeconds = 1800; // After the TTL, served stale for this long while refreshing
+    private boolean batchEnabled = true;  // Send concurrent recommendation requests as one batched call
+    private int batchMaxSize = 32;        // A batch is sent as soon as it holds this many requests
+    private int batchMaxWaitMs = 5;       // ...or this long after its first request arrived
+    private int batchSenderThreads = 4;   // Batches in flight at once
+    private int blockingThreads = 16;     // Threads for database work on the non-blocking AI request path
+    private int blockingQueueSize = 500;  // Queued database work beyond this gets the default answer
+    private int healthIntervalMs = 10000;     // Health probe interval while the service is up
+    private int healthFailureThreshold = 2;   // Failed probes in a row before the service counts as down
+    private int healthRetryMinMs = 1000;      // First re-probe delay once down, doubling...
+    private int healthRetryMaxMs = 30000;     // ...up to this
 
     // Getters and Setters
     public String getUrl() {
@@ -35,4 +68,237 @@ public class AIServiceProperties {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    public boolean isLocalFallback() {
+        return localFallback;
+    }
+
+    public void setLocalFallback(boolean localFallback) {
+        this.localFallback = localFallback;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    public Map<String, Integer> getEndpointTimeouts() {
+        return endpointTimeouts;
+    }
+
+    public void setEndpointTimeouts(Map<String, Integer> endpointTimeouts) {
+        this.endpointTimeouts = endpointTimeouts;
+    }
+
+    public int getCircuitFailureRateThreshold() {
+        return circuitFailureRateThreshold;
+    }
+
+    public void setCircuitFailureRateThreshold(int circuitFailureRateThreshold) {
+        this.circuitFailureRateThreshold = circuitFailureRateThreshold;
+    }
+
+    public int getCircuitMinimumCalls() {
+        return circuitMinimumCalls;
+    }
+
+    public void setCircuitMinimumCalls(int circuitMinimumCalls) {
+        this.circuitMinimumCalls = circuitMinimumCalls;
+    }
+
+    public int getCircuitWindowSeconds() {
+        return circuitWindowSeconds;
+    }
+
+    public void setCircuitWindowSeconds(int circuitWindowSeconds) {
+        this.circuitWindowSeconds = circuitWindowSeconds;
+    }
+
+    public int getCircuitOpenSeconds() {
+        return circuitOpenSeconds;
+    }
+
+    public void setCircuitOpenSeconds(int circuitOpenSeconds) {
+        this.circuitOpenSeconds = circuitOpenSeconds;
+    }
+
+    public int getCircuitHalfOpenCalls() {
+        return circuitHalfOpenCalls;
+    }
+
+    public void setCircuitHalfOpenCalls(int circuitHalfOpenCalls) {
+        this.circuitHalfOpenCalls = circuitHalfOpenCalls;
+    }
+
+    public int getBulkheadMaxConcurrent() {
+        return bulkheadMaxConcurrent;
+    }
+
+    public void setBulkheadMaxConcurrent(int bulkheadMaxConcurrent) {
+        this.bulkheadMaxConcurrent = bulkheadMaxConcurrent;
+    }
+
+    public Map<String, Integer> getBulkheadLimits() {
+        return bulkheadLimits;
+    }
+
+    public void setBulkheadLimits(Map<String, Integer> bulkheadLimits) {
+        this.bulkheadLimits = bulkheadLimits;
+    }
+
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public int getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    public void setCacheTtlSeconds(int cacheTtlSeconds) {
+        this.cacheTtlSeconds = cacheTtlSeconds;
+    }
+
+    public int getCacheStaleSeconds() {
+        return cacheStaleSeconds;
+    }
+
+    public void setCacheStaleSeconds(int cacheStaleSeconds) {
+        this.cacheStaleSeconds = cacheStaleSeconds;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    public int getBatchMaxSize() {
+        return batchMaxSize;
+    }
+
+    public void setBatchMaxSize(int batchMaxSize) {
+        this.batchMaxSize = batchMaxSize;
+    }
+
+    public int getBatchMaxWaitMs() {
+        return batchMaxWaitMs;
+    }
+
+    public void setBatchMaxWaitMs(int batchMaxWaitMs) {
+        this.batchMaxWaitMs = batchMaxWaitMs;
+    }
+
+    public int getBatchSenderThreads() {
+        return batchSenderThreads;
+    }
+
+    public void setBatchSenderThreads(int batchSenderThreads) {
+        this.batchSenderThreads = batchSenderThreads;
+    }
+
+    public int getBlockingThreads() {
+        return blockingThreads;
+    }
+
+    public void setBlockingThreads(int blockingThreads) {
+        this.blockingThreads = blockingThreads;
+    }
+
+    public int getBlockingQueueSize() {
+        return blockingQueueSize;
+    }
+
+    public void setBlockingQueueSize(int blockingQueueSize) {
+        this.blockingQueueSize = blockingQueueSize;
+    }
+
+    public int getHealthIntervalMs() {
+        return healthIntervalMs;
+    }
+
+    public void setHealthIntervalMs(int healthIntervalMs) {
+        this.healthIntervalMs = healthIntervalMs;
+    }
+
+    public int getHealthFailureThreshold() {
+        return healthFailureThreshold;
+    }
+
+    public void setHealthFailureThreshold(int healthFailureThreshold) {
+        this.healthFailureThreshold = healthFailureThreshold;
+    }
+
+    public int getHealthRetryMinMs() {
+        return healthRetryMinMs;
+    }
+
+    public void setHealthRetryMinMs(int healthRetryMinMs) {
+        this.healthRetryMinMs = healthRetryMinMs;
+    }
+
+    public int getHealthRetryMaxMs() {
+        return healthRetryMaxMs;
+    }
+
+    public void setHealthRetryMaxMs(int healthRetryMaxMs) {
+        this.healthRetryMaxMs = healthRetryMaxMs;
+    }
+
+    // Response timeout for one endpoint, falling back to the default timeout
+    public int getTimeoutFor(String endpoint) {
+        return endpointTimeouts.getOrDefault(endpoint, timeout);
+    }
+
+    public int getBulkheadLimitFor(String endpoint) {
+        return bulkheadLimits.getOrDefault(endpoint, bulkheadMaxConcurrent);
+    }
 }
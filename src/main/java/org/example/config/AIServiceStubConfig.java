@@ -0,0 +1,28 @@
+package org.example.config;
+
+import org.example.service.AIServiceStub;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Starts the Java AI service stand-in inside the application for load tests.
+ * Settings come from app.ai.stub.*; application-loadtest.properties points
+ * app.ai.service.url at it.
+ */
+@Configuration
+@Profile("loadtest")
+public class AIServiceStubConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "app.ai.stub")
+    public AIServiceStub.Settings aiServiceStubSettings() {
+        return new AIServiceStub.Settings();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public AIServiceStub aiServiceStub(AIServiceStub.Settings aiServiceStubSettings) {
+        return new AIServiceStub(aiServiceStubSettings);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.broadcast")
+public class BroadcastProperties {
+
+    private int chunkSize = 500;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxInFlightChunks = 8;
+
+    // Getters and Setters
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getMaxInFlightChunks() {
+        return maxInFlightChunks;
+    }
+
+    public void setMaxInFlightChunks(int maxInFlightChunks) {
+        this.maxInFlightChunks = maxInFlightChunks;
+    }
+}
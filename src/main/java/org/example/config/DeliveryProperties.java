@@ -0,0 +1,179 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.delivery")
+public class DeliveryProperties {
+
+    private boolean enabled = true;
+    private int workerThreads = 4;
+    private long pollIntervalMs = 1000;
+    private int maxAttempts = 6;
+    private long initialBackoffMs = 5000;
+    private long maxBackoffMs = 3600000;
+    private int claimTimeoutSeconds = 120;
+    private int sentRetentionDays = 7;
+    private int inAppBatchSize = 500;
+    private Email email = new Email();
+    private Webhook webhook = new Webhook();
+
+    public static class Email {
+        private boolean enabled = false;
+        private String from = "no-reply@studyschedule.local";
+        private int batchSize = 50;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getFrom() {
+            return from;
+        }
+
+        public void setFrom(String from) {
+            this.from = from;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Webhook {
+        private boolean enabled = false;
+        private String url;
+        private int batchSize = 100;
+        private int timeoutMs = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(int timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public long getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialBackoffMs() {
+        return initialBackoffMs;
+    }
+
+    public void setInitialBackoffMs(long initialBackoffMs) {
+        this.initialBackoffMs = initialBackoffMs;
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(long maxBackoffMs) {
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public int getClaimTimeoutSeconds() {
+        return claimTimeoutSeconds;
+    }
+
+    public void setClaimTimeoutSeconds(int claimTimeoutSeconds) {
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+    }
+
+    public int getSentRetentionDays() {
+        return sentRetentionDays;
+    }
+
+    public void setSentRetentionDays(int sentRetentionDays) {
+        this.sentRetentionDays = sentRetentionDays;
+    }
+
+    public int getInAppBatchSize() {
+        return inAppBatchSize;
+    }
+
+    public void setInAppBatchSize(int inAppBatchSize) {
+        this.inAppBatchSize = inAppBatchSize;
+    }
+
+    public Email getEmail() {
+        return email;
+    }
+
+    public void setEmail(Email email) {
+        this.email = email;
+    }
+
+    public Webhook getWebhook() {
+        return webhook;
+    }
+
+    public void setWebhook(Webhook webhook) {
+        this.webhook = webhook;
+    }
+}
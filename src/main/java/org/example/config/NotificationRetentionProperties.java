@@ -0,0 +1,92 @@
+package org.example.config;
+
+import org.example.entity.Notification;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.retention")
+public class NotificationRetentionProperties {
+
+    private boolean enabled = true;
+    // Days after which a notification of this type is deleted whether or not it was read
+    private Map<Notification.NotificationType, Integer> maxAgeDays =
+            new EnumMap<>(Map.of(Notification.NotificationType.STUDY_TIP, 14));
+    // Days after which a notification of this type is deleted once it has been read
+    private Map<Notification.NotificationType, Integer> readMaxAgeDays = new EnumMap<>(Map.of(
+            Notification.NotificationType.SCHEDULE_REMINDER, 30,
+            Notification.NotificationType.SESSION_REMINDER, 30));
+    private int chunkSize = 500;
+    private long pauseBetweenChunksMs = 200;
+    private int maxChunksPerRun = 2000;
+    private boolean archiveEnabled = false;
+    private String archiveDirectory = "./data/notification-archive";
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<Notification.NotificationType, Integer> getMaxAgeDays() {
+        return maxAgeDays;
+    }
+
+    public void setMaxAgeDays(Map<Notification.NotificationType, Integer> maxAgeDays) {
+        this.maxAgeDays = maxAgeDays;
+    }
+
+    public Map<Notification.NotificationType, Integer> getReadMaxAgeDays() {
+        return readMaxAgeDays;
+    }
+
+    public void setReadMaxAgeDays(Map<Notification.NotificationType, Integer> readMaxAgeDays) {
+        this.readMaxAgeDays = readMaxAgeDays;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long getPauseBetweenChunksMs() {
+        return pauseBetweenChunksMs;
+    }
+
+    public void setPauseBetweenChunksMs(long pauseBetweenChunksMs) {
+        this.pauseBetweenChunksMs = pauseBetweenChunksMs;
+    }
+
+    public int getMaxChunksPerRun() {
+        return maxChunksPerRun;
+    }
+
+    public void setMaxChunksPerRun(int maxChunksPerRun) {
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    public boolean isArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    public void setArchiveEnabled(boolean archiveEnabled) {
+        this.archiveEnabled = archiveEnabled;
+    }
+
+    public String getArchiveDirectory() {
+        return archiveDirectory;
+    }
+
+    public void setArchiveDirectory(String archiveDirectory) {
+        this.archiveDirectory = archiveDirectory;
+    }
+}
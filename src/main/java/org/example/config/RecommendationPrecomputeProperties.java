@@ -0,0 +1,56 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.ai.precompute")
+public class RecommendationPrecomputeProperties {
+
+    private boolean enabled = true;
+    private int chunkSize = 200;        // Users per chunk; a chunk's AI calls go out together in batches
+    private int threads = 4;            // Chunks computed in parallel
+    private int maxInFlightChunks = 8;  // Chunks read ahead of the workers
+    private int maxAgeHours = 26;       // Older snapshots are not served and count as stale
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getMaxInFlightChunks() {
+        return maxInFlightChunks;
+    }
+
+    public void setMaxInFlightChunks(int maxInFlightChunks) {
+        this.maxInFlightChunks = maxInFlightChunks;
+    }
+
+    public int getMaxAgeHours() {
+        return maxAgeHours;
+    }
+
+    public void setMaxAgeHours(int maxAgeHours) {
+        this.maxAgeHours = maxAgeHours;
+    }
+}
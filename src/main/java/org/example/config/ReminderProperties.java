@@ -0,0 +1,122 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.reminders")
+public class ReminderProperties {
+
+    private boolean enabled = true;
+    private int horizonHours = 26;
+    private long tickMillis = 250;
+    private int wheelSize = 60;
+    private int wheelLevels = 4;
+    private int leaderLeaseSeconds = 30;
+    private long changePollMillis = 2000;
+    private List<Integer> scheduleLeadMinutes = new ArrayList<>(List.of(1440, 60));
+    private List<Integer> sessionLeadMinutes = new ArrayList<>(List.of(30));
+    private boolean digestEnabled = true;
+    private int digestWindowMinutes = 30;
+    private double digestMaxAdvanceFraction = 0.5;
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getHorizonHours() {
+        return horizonHours;
+    }
+
+    public void setHorizonHours(int horizonHours) {
+        this.horizonHours = horizonHours;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getWheelLevels() {
+        return wheelLevels;
+    }
+
+    public void setWheelLevels(int wheelLevels) {
+        this.wheelLevels = wheelLevels;
+    }
+
+    public int getLeaderLeaseSeconds() {
+        return leaderLeaseSeconds;
+    }
+
+    public void setLeaderLeaseSeconds(int leaderLeaseSeconds) {
+        this.leaderLeaseSeconds = leaderLeaseSeconds;
+    }
+
+    public long getChangePollMillis() {
+        return changePollMillis;
+    }
+
+    public void setChangePollMillis(long changePollMillis) {
+        this.changePollMillis = changePollMillis;
+    }
+
+    public List<Integer> getScheduleLeadMinutes() {
+        return scheduleLeadMinutes;
+    }
+
+    public void setScheduleLeadMinutes(List<Integer> scheduleLeadMinutes) {
+        this.scheduleLeadMinutes = scheduleLeadMinutes;
+    }
+
+    public List<Integer> getSessionLeadMinutes() {
+        return sessionLeadMinutes;
+    }
+
+    public void setSessionLeadMinutes(List<Integer> sessionLeadMinutes) {
+        this.sessionLeadMinutes = sessionLeadMinutes;
+    }
+
+    public boolean isDigestEnabled() {
+        return digestEnabled;
+    }
+
+    public void setDigestEnabled(boolean digestEnabled) {
+        this.digestEnabled = digestEnabled;
+    }
+
+    public int getDigestWindowMinutes() {
+        return digestWindowMinutes;
+    }
+
+    public void setDigestWindowMinutes(int digestWindowMinutes) {
+        this.digestWindowMinutes = digestWindowMinutes;
+    }
+
+    public double getDigestMaxAdvanceFraction() {
+        return digestMaxAdvanceFraction;
+    }
+
+    public void setDigestMaxAdvanceFraction(double digestMaxAdvanceFraction) {
+        this.digestMaxAdvanceFraction = digestMaxAdvanceFraction;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.scheduler")
+public class SchedulerProperties {
+
+    private boolean leasesEnabled = true;
+    private String nodeId;
+    private int partitionCount = 8;
+    private int nodeTtlSeconds = 30;
+    private int poolSize = 4;                          // Trigger threads; jobs themselves run on their own thread
+    private Set<String> disabledJobs = new HashSet<>(); // Job names whose triggers are ignored
+
+    // Getters and Setters
+    public boolean isLeasesEnabled() {
+        return leasesEnabled;
+    }
+
+    public void setLeasesEnabled(boolean leasesEnabled) {
+        this.leasesEnabled = leasesEnabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public void setPartitionCount(int partitionCount) {
+        this.partitionCount = partitionCount;
+    }
+
+    public int getNodeTtlSeconds() {
+        return nodeTtlSeconds;
+    }
+
+    public void setNodeTtlSeconds(int nodeTtlSeconds) {
+        this.nodeTtlSeconds = nodeTtlSeconds;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public Set<String> getDisabledJobs() {
+        return disabledJobs;
+    }
+
+    public void setDisabledJobs(Set<String> disabledJobs) {
+        this.disabledJobs = disabledJobs;
+    }
+}
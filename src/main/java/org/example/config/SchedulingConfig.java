@@ -0,0 +1,137 @@
+package org.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scheduler for all {@code @Scheduled} methods.
+ *
+ * Replaces Spring's default single thread with a small pool. The pool only
+ * fires triggers: long jobs hand themselves off to their own thread through
+ * ScheduledJobRunner, so a slow job never holds a trigger thread. Each firing
+ * records how late it started against its planned time, which the runner
+ * reports as schedule lag.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private static final ThreadLocal<Long> TRIGGER_LAG = new ThreadLocal<>();
+
+    @Autowired
+    private SchedulerProperties properties;
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler() {
+            @Override
+            protected ScheduledExecutorService createExecutor(int poolSize, ThreadFactory threadFactory,
+                                                              RejectedExecutionHandler rejectedExecutionHandler) {
+                return new LagRecordingExecutor(poolSize, threadFactory, rejectedExecutionHandler);
+            }
+        };
+        scheduler.setPoolSize(properties.getPoolSize());
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler());
+    }
+
+    /**
+     * How late the trigger running on this thread fired, in nanoseconds, or
+     * -1 when the caller was not started by the scheduler.
+     */
+    public static long currentTriggerLagNanos() {
+        Long lag = TRIGGER_LAG.get();
+        return lag != null ? lag : -1;
+    }
+
+    private static class LagRecordingExecutor extends ScheduledThreadPoolExecutor {
+
+        LagRecordingExecutor(int poolSize, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+            super(poolSize, threadFactory, handler);
+        }
+
+        @Override
+        protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
+            return new LagRecordingTask<>(task);
+        }
+
+        @Override
+        protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
+            return new LagRecordingTask<>(task);
+        }
+    }
+
+    // A task's remaining delay turns negative once it is overdue; read it just before running
+    private record LagRecordingTask<V>(RunnableScheduledFuture<V> task) implements RunnableScheduledFuture<V> {
+
+        @Override
+        public void run() {
+            TRIGGER_LAG.set(Math.max(0, -task.getDelay(TimeUnit.NANOSECONDS)));
+            try {
+                task.run();
+            } finally {
+                TRIGGER_LAG.remove();
+            }
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return task.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return task.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return task.compareTo(other instanceof LagRecordingTask<?> wrapped ? wrapped.task() : other);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return task.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return task.get();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return task.get(timeout, unit);
+        }
+    }
+}
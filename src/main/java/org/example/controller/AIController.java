@@ -4,6 +4,7 @@ import org.example.service.AIService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -33,36 +34,27 @@ public class AIController {
     }
 
     @PostMapping("/analytics")
-    public ResponseEntity<Map<String, Object>> analyzeStudyData(
+    public Mono<ResponseEntity<Map<String, Object>>> analyzeStudyData(
             @RequestBody Map<String, Object> studyData) {
-        try {
-            Map<String, Object> analytics = aiService.analyzeStudyDataAsync(studyData).block();
-            return ResponseEntity.ok(analytics);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        return aiService.analyzeStudyDataAsync(studyData)
+                .map(analytics -> ResponseEntity.ok(analytics))
+                .onErrorResume(throwable -> Mono.just(ResponseEntity.internalServerError().build()));
     }
 
     @PostMapping("/schedule/optimize")
-    public ResponseEntity<Map<String, Object>> optimizeSchedule(
+    public Mono<ResponseEntity<Map<String, Object>>> optimizeSchedule(
             @RequestBody Map<String, Object> preferences) {
-        try {
-            Map<String, Object> optimizedSchedule = aiService.optimizeSchedule(preferences);
-            return ResponseEntity.ok(optimizedSchedule);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        return aiService.optimizeSchedule(preferences)
+                .map(optimizedSchedule -> ResponseEntity.ok(optimizedSchedule))
+                .onErrorResume(throwable -> Mono.just(ResponseEntity.internalServerError().build()));
     }
 
     @PostMapping("/performance/predict")
-    public ResponseEntity<Map<String, Object>> predictPerformance(
+    public Mono<ResponseEntity<Map<String, Object>>> predictPerformance(
             @RequestBody Map<String, Object> currentData) {
-        try {
-            Map<String, Object> prediction = aiService.predictPerformance(currentData);
-            return ResponseEntity.ok(prediction);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        return aiService.predictPerformance(currentData)
+                .map(prediction -> ResponseEntity.ok(prediction))
+                .onErrorResume(throwable -> Mono.just(ResponseEntity.internalServerError().build()));
     }
 
     @GetMapping("/health")
@@ -2,10 +2,15 @@ package org.example.controller;
 
 import org.example.entity.Notification;
 import org.example.service.NotificationService;
+import org.example.service.NotificationStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +22,9 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     // Get all notifications for a student
     @GetMapping("/student/{studentId}")
     public ResponseEntity<List<Notification>> getNotifications(@PathVariable Long studentId) {
@@ -28,6 +36,34 @@ public class NotificationController {
         }
     }
 
+    // Get one page of the notification feed; pass the returned nextCursor to get the next page
+    @GetMapping("/student/{studentId}/feed")
+    public ResponseEntity<Map<String, Object>> getNotificationFeed(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Notification.NotificationType type,
+            @RequestParam(defaultValue = "false") boolean unread) {
+        try {
+            NotificationService.FeedPage page = notificationService.getNotificationFeed(studentId, cursor, limit, type, unread);
+            Map<String, Object> response = new HashMap<>();
+            response.put("items", page.items());
+            response.put("nextCursor", page.nextCursor());
+            response.put("hasMore", page.nextCursor() != null);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Live stream of new notifications and unread-count changes; replaces polling unread-count and recent
+    @GetMapping(value = "/student/{studentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            @PathVariable Long studentId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationStreamService.subscribe(studentId, lastEventId);
+    }
+
     // Get unread notifications count
     @GetMapping("/student/{studentId}/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable Long studentId) {
@@ -83,6 +119,56 @@ public class NotificationController {
         }
     }
 
+    // Mark a student's notifications as read in bulk; optional "type" and "before" (ISO date-time) narrow the set
+    @PutMapping("/student/{studentId}/batch/read")
+    public ResponseEntity<Map<String, Object>> markAsReadInBulk(
+            @PathVariable Long studentId,
+            @RequestBody(required = false) Map<String, String> request) {
+        try {
+            Notification.NotificationType type = null;
+            LocalDateTime before = null;
+            if (request != null && request.get("type") != null) {
+                type = Notification.NotificationType.valueOf(request.get("type"));
+            }
+            if (request != null && request.get("before") != null) {
+                before = LocalDateTime.parse(request.get("before"));
+            }
+            int updated = notificationService.markReadMatching(studentId, type, before);
+            return ResponseEntity.ok(Map.of("updated", updated));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to mark notifications as read"));
+        }
+    }
+
+    // Delete several of a student's notifications at once
+    @PostMapping("/student/{studentId}/batch/delete")
+    public ResponseEntity<Map<String, Object>> deleteNotificationsInBulk(
+            @PathVariable Long studentId,
+            @RequestBody Map<String, List<Long>> request) {
+        try {
+            int deleted = notificationService.deleteNotifications(studentId, request.get("ids"));
+            return ResponseEntity.ok(Map.of("deleted", deleted));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to delete notifications"));
+        }
+    }
+
+    // Choose between one combined reminder digest and individual reminders
+    @PutMapping("/student/{studentId}/reminder-digest")
+    public ResponseEntity<Map<String, String>> setReminderDigest(
+            @PathVariable Long studentId,
+            @RequestBody Map<String, Boolean> request) {
+        try {
+            boolean enabled = !Boolean.FALSE.equals(request.get("enabled"));
+            if (!notificationService.setReminderDigest(studentId, enabled)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(Map.of("message", enabled ? "Reminder digest enabled" : "Reminder digest disabled"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Failed to update reminder digest preference"));
+        }
+    }
+
     // Delete a notification
     @DeleteMapping("/{notificationId}")
     public ResponseEntity<Map<String, String>> deleteNotification(@PathVariable Long notificationId) {
@@ -1,6 +1,7 @@
 package org.example.controller;
 
 import org.example.service.RealTimeAnalyticsService;
+import org.example.service.RecommendationPrecomputeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -16,13 +17,18 @@ public class RealTimeAnalyticsController {
     @Autowired
     private RealTimeAnalyticsService analyticsService;
 
+    @Autowired
+    private RecommendationPrecomputeService precomputeService;
+
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getRealTimeDashboard(Authentication auth) {
         try {
             // Get user ID from authentication (for now using mock ID)
             Long userId = getUserIdFromAuth(auth);
 
-            Map<String, Object> insights = analyticsService.getPersonalizedAIInsights(userId);
+            // Tonight's precomputed snapshot when there is one, computed live otherwise
+            Map<String, Object> insights = precomputeService.findFresh(userId)
+                    .orElseGet(() -> analyticsService.getPersonalizedAIInsights(userId));
             return ResponseEntity.ok(insights);
         } catch (Exception e) {
             // Return mock data if user not authenticated
@@ -35,8 +41,8 @@ public class RealTimeAnalyticsController {
         try {
             Long userId = getUserIdFromAuth(auth);
 
-            analyticsService.calculateRealTimeMetrics(userId);
-            Map<String, Object> insights = analyticsService.getPersonalizedAIInsights(userId);
+            Map<String, Object> insights = analyticsService.refreshPersonalizedAIInsights(userId);
+            precomputeService.evict(userId);
 
             return ResponseEntity.ok(Map.of(
                 "success", true,
@@ -60,12 +66,13 @@ public class RealTimeAnalyticsController {
             Long userId = getUserIdFromAuth(auth);
 
             // Update analytics when session is completed
-            analyticsService.calculateRealTimeMetrics(userId);
+            Map<String, Object> insights = analyticsService.refreshPersonalizedAIInsights(userId);
+            precomputeService.evict(userId);
 
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "message", "Session completion recorded",
-                "updatedAnalytics", analyticsService.getPersonalizedAIInsights(userId)
+                "updatedAnalytics", insights
             ));
         } catch (Exception e) {
             return ResponseEntity.ok(Map.of(
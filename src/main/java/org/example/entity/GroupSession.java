@@ -6,11 +6,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "group_sessions")
+@Table(name = "group_sessions",
+       indexes = @Index(name = "idx_group_sessions_updated", columnList = "updated_at"))
 public class GroupSession {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_sessions_seq")
+    @SequenceGenerator(name = "group_sessions_seq", sequenceName = "group_sessions_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -65,7 +67,7 @@ public class GroupSession {
     @Column
     private LocalDateTime createdAt;
 
-    @Column
+    @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
     public enum SessionType {
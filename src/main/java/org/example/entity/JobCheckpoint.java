@@ -0,0 +1,64 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 120)
+    private String jobName;
+
+    @Column(nullable = false, length = 40)
+    private String runKey; // e.g. the date of a daily job, so each run starts fresh
+
+    @Column(nullable = false)
+    private Long lastProcessedId;
+
+    @Column(nullable = false)
+    private Long toId;
+
+    @Column(nullable = false)
+    private Long processedCount = 0L;
+
+    @Column(nullable = false)
+    private Boolean completed = false;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public JobCheckpoint() {}
+
+    public JobCheckpoint(String jobName, String runKey, Long lastProcessedId, Long toId) {
+        this.jobName = jobName;
+        this.runKey = runKey;
+        this.lastProcessedId = lastProcessedId;
+        this.toId = toId;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public String getRunKey() { return runKey; }
+    public void setRunKey(String runKey) { this.runKey = runKey; }
+
+    public Long getLastProcessedId() { return lastProcessedId; }
+    public void setLastProcessedId(Long lastProcessedId) { this.lastProcessedId = lastProcessedId; }
+
+    public Long getToId() { return toId; }
+    public void setToId(Long toId) { this.toId = toId; }
+
+    public Long getProcessedCount() { return processedCount; }
+    public void setProcessedCount(Long processedCount) { this.processedCount = processedCount; }
+
+    public Boolean getCompleted() { return completed; }
+    public void setCompleted(Boolean completed) { this.completed = completed; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
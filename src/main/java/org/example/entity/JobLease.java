@@ -0,0 +1,46 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    // Named explicitly because JobLeaseRepository inserts the row with native SQL
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "owner", nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+
+    // Constructors
+    public JobLease() {}
+
+    public JobLease(String jobName, String owner, LocalDateTime acquiredAt, LocalDateTime leaseUntil) {
+        this.jobName = jobName;
+        this.owner = owner;
+        this.acquiredAt = acquiredAt;
+        this.leaseUntil = leaseUntil;
+    }
+
+    // Getters and Setters
+    public String getJobName() { return jobName; }
+    public void setJobName(String jobName) { this.jobName = jobName; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public LocalDateTime getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(LocalDateTime acquiredAt) { this.acquiredAt = acquiredAt; }
+
+    public LocalDateTime getLeaseUntil() { return leaseUntil; }
+    public void setLeaseUntil(LocalDateTime leaseUntil) { this.leaseUntil = leaseUntil; }
+}
@@ -4,21 +4,34 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+       indexes = {
+           @Index(name = "idx_notifications_student_feed", columnList = "student_id, created_at DESC, id DESC"),
+           @Index(name = "idx_notifications_type_created", columnList = "type, created_at, id")
+       })
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(name = "student_id", nullable = false)
     private Long studentId;
 
-    @Column(nullable = false, length = 100)
+    // Null for templated notifications, which are rendered on read; never updated,
+    // so text rendered into a managed entity is not written back
+    @Column(length = 100, updatable = false)
     private String title;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    @Column(columnDefinition = "TEXT", updatable = false)
     private String message;
 
+    @Column(length = 40)
+    private String templateId; // See NotificationTemplate
+
+    @Column(columnDefinition = "TEXT")
+    private String params; // Template arguments, packed by NotificationTemplate
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private NotificationType type;
@@ -26,7 +39,7 @@ public class Notification {
     @Column(nullable = false)
     private Boolean isRead = false;
 
-    @Column(nullable = false)
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @Column
@@ -60,6 +73,15 @@ public class Notification {
         this.relatedEntityId = relatedEntityId;
     }
 
+    public Notification(Long studentId, NotificationType type, String templateId, String params, String relatedEntityId) {
+        this.studentId = studentId;
+        this.type = type;
+        this.templateId = templateId;
+        this.params = params;
+        this.relatedEntityId = relatedEntityId;
+        this.createdAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -93,6 +115,12 @@ public class Notification {
     public String getRelatedEntityId() { return relatedEntityId; }
     public void setRelatedEntityId(String relatedEntityId) { this.relatedEntityId = relatedEntityId; }
 
+    public String getTemplateId() { return templateId; }
+    public void setTemplateId(String templateId) { this.templateId = templateId; }
+
+    public String getParams() { return params; }
+    public void setParams(String params) { this.params = params; }
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -0,0 +1,38 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "scheduler_nodes")
+public class SchedulerNode {
+
+    @Id
+    @Column(length = 100)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime lastHeartbeat;
+
+    // Constructors
+    public SchedulerNode() {}
+
+    public SchedulerNode(String nodeId, LocalDateTime startedAt) {
+        this.nodeId = nodeId;
+        this.startedAt = startedAt;
+        this.lastHeartbeat = startedAt;
+    }
+
+    // Getters and Setters
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getLastHeartbeat() { return lastHeartbeat; }
+    public void setLastHeartbeat(LocalDateTime lastHeartbeat) { this.lastHeartbeat = lastHeartbeat; }
+}
@@ -10,7 +10,8 @@ import java.util.List;
 public class Student {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -45,6 +46,9 @@ public class Student {
     @ManyToMany(mappedBy = "members")
     private List<StudyGroup> studyGroups = new ArrayList<>(); // Empty list by default
 
+    @Column
+    private Boolean reminderDigest; // null or true: upcoming reminders are combined into one digest
+
     @Column
     private LocalDateTime createdAt;
 
@@ -110,6 +114,9 @@ public class Student {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
+    public Boolean getReminderDigest() { return reminderDigest; }
+    public void setReminderDigest(Boolean reminderDigest) { this.reminderDigest = reminderDigest; }
+
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 }
@@ -0,0 +1,69 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "student_daily_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "rollup_date", "subject"}),
+       indexes = @Index(name = "idx_rollup_student_date", columnList = "student_id, rollup_date"))
+public class StudentDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_daily_rollups_seq")
+    @SequenceGenerator(name = "student_daily_rollups_seq", sequenceName = "student_daily_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private Integer plannedSessions = 0;
+
+    @Column(nullable = false)
+    private Integer completedSessions = 0;
+
+    @Column(nullable = false)
+    private Integer completedMinutes = 0;
+
+    // Constructors
+    public StudentDailyRollup() {}
+
+    public StudentDailyRollup(Long studentId, LocalDate rollupDate, String subject,
+                              Integer plannedSessions, Integer completedSessions, Integer completedMinutes) {
+        this.studentId = studentId;
+        this.rollupDate = rollupDate;
+        this.subject = subject;
+        this.plannedSessions = plannedSessions;
+        this.completedSessions = completedSessions;
+        this.completedMinutes = completedMinutes;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public Integer getPlannedSessions() { return plannedSessions; }
+    public void setPlannedSessions(Integer plannedSessions) { this.plannedSessions = plannedSessions; }
+
+    public Integer getCompletedSessions() { return completedSessions; }
+    public void setCompletedSessions(Integer completedSessions) { this.completedSessions = completedSessions; }
+
+    public Integer getCompletedMinutes() { return completedMinutes; }
+    public void setCompletedMinutes(Integer completedMinutes) { this.completedMinutes = completedMinutes; }
+}
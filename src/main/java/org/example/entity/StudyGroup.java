@@ -10,7 +10,8 @@ import java.util.List;
 public class StudyGroup {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_groups_seq")
+    @SequenceGenerator(name = "study_groups_seq", sequenceName = "study_groups_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
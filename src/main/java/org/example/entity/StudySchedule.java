@@ -4,11 +4,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "study_schedules")
+@Table(name = "study_schedules",
+       indexes = @Index(name = "idx_study_schedules_updated", columnList = "updated_at"))
 public class StudySchedule {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_schedules_seq")
+    @SequenceGenerator(name = "study_schedules_seq", sequenceName = "study_schedules_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -53,7 +55,7 @@ public class StudySchedule {
     @Column
     private LocalDateTime createdAt;
 
-    @Column
+    @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
     // Constructors
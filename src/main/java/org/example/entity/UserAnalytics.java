@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class UserAnalytics {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_analytics_seq")
+    @SequenceGenerator(name = "user_analytics_seq", sequenceName = "user_analytics_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,82 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Recommendations, next goals and motivational message precomputed for one
+ * user, stored as JSON so the dashboard reads them with one primary-key
+ * lookup.
+ *
+ * A change to the user's analytics marks the row instead of deleting it, so
+ * a nightly run that read the old analytics cannot bring the snapshot back;
+ * for a user without a row the mark is a row of its own with empty insights.
+ *
+ * The id is the user's id, assigned rather than generated, so the entity
+ * says itself whether it is new; otherwise save() would look every row up
+ * before inserting it.
+ */
+@Entity
+@Table(name = "user_recommendation_snapshots",
+       indexes = @Index(name = "idx_snapshot_computed_at", columnList = "computed_at"))
+public class UserRecommendationSnapshot implements Persistable<Long> {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String insights; // The insights map served by the dashboard, as JSON
+
+    @Column(columnDefinition = "TEXT")
+    private String aiRecommendations; // AI service recommendations as JSON; null if the service gave none
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    @Column(name = "evicted_at")
+    private LocalDateTime evictedAt; // When the user's analytics last changed; older snapshots are not served
+
+    @Transient
+    private boolean isNew = true; // Until loaded or persisted
+
+    // Constructors
+    public UserRecommendationSnapshot() {}
+
+    public UserRecommendationSnapshot(Long userId, String insights, String aiRecommendations, LocalDateTime computedAt) {
+        this.userId = userId;
+        this.insights = insights;
+        this.aiRecommendations = aiRecommendations;
+        this.computedAt = computedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public Long getId() { return userId; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getInsights() { return insights; }
+    public void setInsights(String insights) { this.insights = insights; }
+
+    public String getAiRecommendations() { return aiRecommendations; }
+    public void setAiRecommendations(String aiRecommendations) { this.aiRecommendations = aiRecommendations; }
+
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+
+    public LocalDateTime getEvictedAt() { return evictedAt; }
+    public void setEvictedAt(LocalDateTime evictedAt) { this.evictedAt = evictedAt; }
+}
@@ -21,6 +21,8 @@ public interface GroupSessionRepository extends JpaRepository<GroupSession, Long
     @Query("SELECT gs FROM GroupSession gs WHERE gs.scheduledTime BETWEEN :startTime AND :endTime")
     List<GroupSession> findSessionsBetween(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 
+    List<GroupSession> findByUpdatedAtAfter(LocalDateTime since);
+
     @Query("SELECT gs FROM GroupSession gs WHERE SIZE(gs.conflicts) > 0")
     List<GroupSession> findSessionsWithConflicts();
 
@@ -0,0 +1,15 @@
+package org.example.repository;
+
+import org.example.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    @Query("SELECT COUNT(c) > 0 FROM JobCheckpoint c WHERE c.jobName LIKE CONCAT(:jobPrefix, '#%') " +
+           "AND c.runKey = :runKey AND c.completed = false")
+    boolean existsIncompleteRun(@Param("jobPrefix") String jobPrefix, @Param("runKey") String runKey);
+}
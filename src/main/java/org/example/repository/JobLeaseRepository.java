@@ -0,0 +1,42 @@
+package org.example.repository;
+
+import org.example.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    // Take an expired lease; the row-level UPDATE makes this safe across nodes
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.acquiredAt = :now, l.leaseUntil = :until " +
+           "WHERE l.jobName = :jobName AND l.leaseUntil <= :now")
+    int takeExpired(@Param("jobName") String jobName, @Param("owner") String owner,
+                    @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Take an expired lease or extend one this owner already holds
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.acquiredAt = :now, l.leaseUntil = :until " +
+           "WHERE l.jobName = :jobName AND (l.leaseUntil <= :now OR l.owner = :owner)")
+    int takeExpiredOrRenew(@Param("jobName") String jobName, @Param("owner") String owner,
+                           @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Create the lease row unless it exists. A plain INSERT, never a merge: when two nodes
+    // race, the primary key rejects the second one
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (job_name, owner, acquired_at, lease_until) " +
+                   "SELECT :jobName, :owner, :now, :until " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM job_leases WHERE job_name = :jobName)", nativeQuery = true)
+    int insertIfAbsent(@Param("jobName") String jobName, @Param("owner") String owner,
+                       @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leaseUntil = :until WHERE l.jobName = :jobName AND l.owner = :owner")
+    int release(@Param("jobName") String jobName, @Param("owner") String owner,
+                @Param("until") LocalDateTime until);
+}
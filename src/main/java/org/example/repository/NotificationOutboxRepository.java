@@ -0,0 +1,64 @@
+package org.example.repository;
+
+import org.example.entity.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Oldest messages for a channel that are due and not held by a live claim
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE o.channel = :channel AND o.status = :status " +
+           "AND o.nextAttemptAt <= :now AND (o.claimedUntil IS NULL OR o.claimedUntil < :now) ORDER BY o.id")
+    List<Long> findDueIds(@Param("channel") String channel,
+                          @Param("status") NotificationOutbox.Status status,
+                          @Param("now") LocalDateTime now,
+                          Pageable pageable);
+
+    // Conditional UPDATE so two nodes never claim the same message
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.claimToken = :token, o.claimedUntil = :until " +
+           "WHERE o.id IN :ids AND o.status = :status AND (o.claimedUntil IS NULL OR o.claimedUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("status") NotificationOutbox.Status status,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("until") LocalDateTime until);
+
+    List<NotificationOutbox> findByClaimTokenOrderById(String claimToken);
+
+    // Results are written only while the claim is still ours; once it expired
+    // another worker may have claimed the messages again
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = :status, o.sentAt = :now, " +
+           "o.claimToken = NULL, o.claimedUntil = NULL WHERE o.id IN :ids AND o.claimToken = :token")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("token") String token,
+                 @Param("status") NotificationOutbox.Status status,
+                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = :status, o.attempts = :attempts, o.lastError = :error, " +
+           "o.nextAttemptAt = :nextAttemptAt, o.claimToken = NULL, o.claimedUntil = NULL " +
+           "WHERE o.id = :id AND o.claimToken = :token")
+    int markFailed(@Param("id") Long id,
+                   @Param("token") String token,
+                   @Param("status") NotificationOutbox.Status status,
+                   @Param("attempts") int attempts,
+                   @Param("error") String error,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    long countByChannelAndStatus(String channel, NotificationOutbox.Status status);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE o.status = :status AND o.sentAt < :before")
+    int deleteSentBefore(@Param("status") NotificationOutbox.Status status, @Param("before") LocalDateTime before);
+}
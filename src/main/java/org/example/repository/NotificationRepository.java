@@ -1,12 +1,15 @@
 package org.example.repository;
 
 import org.example.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,11 +22,68 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.studentId = :studentId AND n.isRead = false")
     Long countUnreadByStudentId(@Param("studentId") Long studentId);
 
+    // One row per student with unread notifications: [studentId, count]
+    @Query("SELECT n.studentId, COUNT(n) FROM Notification n WHERE n.studentId IN :studentIds AND n.isRead = false GROUP BY n.studentId")
+    List<Object[]> countUnreadByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
     @Query("SELECT n FROM Notification n WHERE n.studentId = :studentId AND n.createdAt >= :since ORDER BY n.createdAt DESC")
     List<Notification> findRecentByStudentId(@Param("studentId") Long studentId, @Param("since") LocalDateTime since);
 
     List<Notification> findByStudentIdAndTypeOrderByCreatedAtDesc(Long studentId, Notification.NotificationType type);
 
+    // Keyset page strictly after (cursorCreatedAt, cursorId) in feed order. The redundant
+    // createdAt <= bound lets the database range-scan idx_notifications_student_feed.
+    @Query("SELECT n FROM Notification n WHERE n.studentId = :studentId " +
+           "AND (:type IS NULL OR n.type = :type) " +
+           "AND (:unreadOnly = false OR n.isRead = false) " +
+           "AND n.createdAt <= :cursorCreatedAt " +
+           "AND (n.createdAt < :cursorCreatedAt OR n.id < :cursorId) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFeedPage(@Param("studentId") Long studentId,
+                                    @Param("type") Notification.NotificationType type,
+                                    @Param("unreadOnly") boolean unreadOnly,
+                                    @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                    @Param("cursorId") Long cursorId,
+                                    Pageable pageable);
+
     @Query("SELECT n FROM Notification n WHERE n.studentId = :studentId ORDER BY n.createdAt DESC LIMIT :limit")
     List<Notification> findLatestByStudentId(@Param("studentId") Long studentId, @Param("limit") int limit);
+
+    // Set-based read transition; returns the number of notifications that were unread
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt " +
+           "WHERE n.studentId = :studentId AND n.isRead = false " +
+           "AND (:type IS NULL OR n.type = :type) AND n.createdAt < :before")
+    int markReadMatching(@Param("studentId") Long studentId,
+                         @Param("type") Notification.NotificationType type,
+                         @Param("before") LocalDateTime before,
+                         @Param("readAt") LocalDateTime readAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt " +
+           "WHERE n.studentId = :studentId AND n.isRead = false AND n.id IN :ids")
+    int markReadByIds(@Param("studentId") Long studentId,
+                      @Param("ids") Collection<Long> ids,
+                      @Param("readAt") LocalDateTime readAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.studentId = :studentId AND n.id IN :ids")
+    int deleteByStudentIdAndIds(@Param("studentId") Long studentId, @Param("ids") Collection<Long> ids);
+
+    // Next chunk of rows past retention, in (createdAt, id) order to follow the (type, created_at, id)
+    // index, so each chunk starts where the last one ended without re-reading earlier rows
+    @Query("SELECT n FROM Notification n WHERE n.type = :type AND n.createdAt < :cutoff " +
+           "AND (:readOnly = false OR n.isRead = true) " +
+           "AND n.createdAt >= :afterCreatedAt AND (n.createdAt > :afterCreatedAt OR n.id > :afterId) " +
+           "ORDER BY n.createdAt, n.id")
+    List<Notification> findPurgeChunk(@Param("type") Notification.NotificationType type,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      @Param("readOnly") boolean readOnly,
+                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
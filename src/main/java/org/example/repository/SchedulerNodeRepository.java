@@ -0,0 +1,22 @@
+package org.example.repository;
+
+import org.example.entity.SchedulerNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SchedulerNodeRepository extends JpaRepository<SchedulerNode, String> {
+
+    @Query("SELECT n.nodeId FROM SchedulerNode n WHERE n.lastHeartbeat >= :since ORDER BY n.nodeId ASC")
+    List<String> findLiveNodeIds(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM SchedulerNode n WHERE n.lastHeartbeat < :before")
+    int deleteStaleNodes(@Param("before") LocalDateTime before);
+}
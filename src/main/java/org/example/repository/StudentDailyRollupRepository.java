@@ -0,0 +1,29 @@
+package org.example.repository;
+
+import org.example.entity.StudentDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StudentDailyRollupRepository extends JpaRepository<StudentDailyRollup, Long> {
+
+    @Query("SELECT r FROM StudentDailyRollup r WHERE r.studentId IN :studentIds " +
+           "AND r.rollupDate BETWEEN :from AND :to")
+    List<StudentDailyRollup> findForStudents(@Param("studentIds") Collection<Long> studentIds,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+
+    @Query("SELECT MIN(r.rollupDate) FROM StudentDailyRollup r")
+    LocalDate findEarliestRollupDate();
+
+    @Modifying
+    @Query("DELETE FROM StudentDailyRollup r WHERE r.rollupDate = :rollupDate")
+    int deleteByRollupDate(@Param("rollupDate") LocalDate rollupDate);
+}
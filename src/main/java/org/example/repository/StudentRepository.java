@@ -1,13 +1,19 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.entity.Student;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
@@ -31,6 +37,25 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT DISTINCT s.major FROM Student s WHERE s.major IS NOT NULL")
     List<String> findDistinctMajors();
 
+    @Query("SELECT MIN(s.id) FROM Student s")
+    Long findMinId();
+
+    @Query("SELECT MAX(s.id) FROM Student s")
+    Long findMaxId();
+
+    // Ids only, streamed with a JDBC fetch size; callers must consume it inside a transaction and close it
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.id FROM Student s WHERE s.id > :afterId AND s.id <= :toId ORDER BY s.id ASC")
+    Stream<Long> streamIdsAfter(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
     @Query("SELECT s FROM Student s WHERE SIZE(s.studyGroups) < :maxGroups")
     List<Student> findStudentsWithFewGroups(@Param("maxGroups") int maxGroups);
+
+    // Students among the given ids who asked for individual reminders instead of a digest
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids AND s.reminderDigest = false")
+    List<Long> findReminderDigestOptOuts(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Student s SET s.reminderDigest = :enabled WHERE s.id = :id")
+    int updateReminderDigest(@Param("id") Long id, @Param("enabled") boolean enabled);
 }
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -29,6 +30,14 @@ public interface StudyScheduleRepository extends JpaRepository<StudySchedule, Lo
     List<StudySchedule> findUpcomingSchedulesBetween(@Param("start") LocalDateTime start,
                                                     @Param("end") LocalDateTime end);
 
+    @Query("SELECT s FROM StudySchedule s WHERE s.student.id IN :studentIds " +
+           "AND s.scheduledTime BETWEEN :start AND :end AND s.completed = false")
+    List<StudySchedule> findUpcomingSchedulesOfStudentsBetween(@Param("studentIds") Collection<Long> studentIds,
+                                                              @Param("start") LocalDateTime start,
+                                                              @Param("end") LocalDateTime end);
+
+    List<StudySchedule> findByUpdatedAtAfter(LocalDateTime since);
+
     @Query("SELECT s FROM StudySchedule s WHERE s.scheduledTime < :now AND s.completed = false")
     List<StudySchedule> findOverdueSchedules(@Param("now") LocalDateTime now);
 
@@ -39,6 +48,16 @@ public interface StudyScheduleRepository extends JpaRepository<StudySchedule, Lo
 
     List<StudySchedule> findByStudentIdAndCompleted(Long studentId, Boolean completed);
 
+    // One row per (student, subject): [studentId, subject, planned, completed, completedMinutes]
+    @Query("SELECT s.student.id, s.subject, COUNT(s), " +
+           "SUM(CASE WHEN s.completed = true THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN s.completed = true THEN s.durationMinutes ELSE 0 END) " +
+           "FROM StudySchedule s WHERE s.student IS NOT NULL " +
+           "AND s.scheduledTime >= :start AND s.scheduledTime < :end " +
+           "GROUP BY s.student.id, s.subject")
+    List<Object[]> aggregateByStudentAndSubject(@Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end);
+
     @Query("SELECT DISTINCT s.subject FROM StudySchedule s")
     List<String> findDistinctSubjects();
 }
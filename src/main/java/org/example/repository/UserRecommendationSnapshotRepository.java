@@ -0,0 +1,41 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.entity.UserRecommendationSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserRecommendationSnapshotRepository extends JpaRepository<UserRecommendationSnapshot, Long> {
+
+    long countByComputedAtBefore(LocalDateTime cutoff);
+
+    @Query("SELECT MIN(s.computedAt) FROM UserRecommendationSnapshot s")
+    LocalDateTime findOldestComputedAt();
+
+    // Locked until the chunk is written, so an eviction cannot be overwritten by the chunk's UPDATE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserRecommendationSnapshot s WHERE s.userId IN :userIds")
+    List<UserRecommendationSnapshot> findAllForUpdate(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE UserRecommendationSnapshot s SET s.evictedAt = :at WHERE s.userId = :userId")
+    int markEvicted(@Param("userId") Long userId, @Param("at") LocalDateTime at);
+
+    // The mark for a user without a snapshot. A plain INSERT: when the nightly run inserts
+    // the same user at the same moment, the primary key rejects one of them
+    @Modifying
+    @Query(value = "INSERT INTO user_recommendation_snapshots (user_id, insights, computed_at, evicted_at) " +
+                   "SELECT :userId, '{}', :at, :at " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM user_recommendation_snapshots WHERE user_id = :userId)",
+           nativeQuery = true)
+    int insertEvictedIfAbsent(@Param("userId") Long userId, @Param("at") LocalDateTime at);
+}
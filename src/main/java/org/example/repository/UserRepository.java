@@ -1,6 +1,7 @@
 package org.example.repository;
 
 import org.example.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -37,6 +38,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     List<User> findByIsActiveTrue();
 
+    /**
+     * Next page of active user ids after {@code afterId}, in id order (keyset paging)
+     */
+    @Query("SELECT u.id FROM User u WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id ASC")
+    List<Long> findActiveIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     /**
      * Find users by learning style
      */
@@ -0,0 +1,111 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.config.AIServiceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named, bounded thread pools for work around AI service calls, so none of
+ * it lands on ForkJoinPool.commonPool() or the request threads.
+ *
+ * - blocking: database lookups feeding AI requests. Full pool and queue
+ *   reject the task; callers answer with their default.
+ * - batch-send: batched recommendation calls. Full pool and queue reject
+ *   the batch; the batcher then sends it itself, or answers it with null
+ *   once the pool is shut down.
+ * - cache-refresh: background refreshes of stale cache entries. Refreshes
+ *   beyond the queue are dropped and the entry stays stale a little longer.
+ *
+ * Every pool publishes executor.* metrics (active threads, queued tasks,
+ * remaining queue capacity, pool size, completed tasks) tagged with
+ * {@code name=ai-<pool>}, and counts rejected tasks in ai.executor.rejected.
+ */
+@Component
+public class AIExecutors {
+
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<ThreadPoolExecutor> executors = new ArrayList<>();
+    private ThreadPoolExecutor blocking;
+    private Scheduler blockingScheduler;
+    private ThreadPoolExecutor batchSenders;
+    private ThreadPoolExecutor cacheRefresher;
+
+    @PostConstruct
+    public void init() {
+        blocking = create("blocking", properties.getBlockingThreads(), properties.getBlockingThreads(),
+            properties.getBlockingQueueSize(), new ThreadPoolExecutor.AbortPolicy());
+        blockingScheduler = Schedulers.fromExecutorService(blocking, "ai-blocking");
+        batchSenders = create("batch-send", properties.getBatchSenderThreads(), properties.getBatchSenderThreads(),
+            properties.getBatchSenderThreads(), new ThreadPoolExecutor.AbortPolicy());
+        cacheRefresher = create("cache-refresh", 1, 2, 100, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        blockingScheduler.dispose();
+        for (ThreadPoolExecutor executor : executors) {
+            executor.shutdownNow();
+        }
+    }
+
+    public ThreadPoolExecutor blocking() {
+        return blocking;
+    }
+
+    // The blocking pool as a Reactor scheduler, for subscribeOn
+    public Scheduler blockingScheduler() {
+        return blockingScheduler;
+    }
+
+    public ThreadPoolExecutor batchSenders() {
+        return batchSenders;
+    }
+
+    public ThreadPoolExecutor cacheRefresher() {
+        return cacheRefresher;
+    }
+
+    private ThreadPoolExecutor create(String pool, int coreThreads, int maxThreads, int queueSize,
+                                      RejectedExecutionHandler rejectionPolicy) {
+        String name = "ai-" + pool;
+        Counter rejected = Counter.builder("ai.executor.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(coreThreads, maxThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, (task, target) -> {
+                rejected.increment();
+                rejectionPolicy.rejectedExecution(task, target);
+            });
+        // Idle pools give their threads back
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        executors.add(executor);
+        return executor;
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.config.AIServiceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probes the AI service's /health endpoint in the background and keeps the
+ * last known state, so health checks and AI calls read a field instead of
+ * making an HTTP call each.
+ *
+ * While the service is up it is probed every {@code healthIntervalMs}. It is
+ * marked DOWN after {@code healthFailureThreshold} failed probes in a row;
+ * from then on it is probed again after {@code healthRetryMinMs}, doubling
+ * up to {@code healthRetryMaxMs}, so recovery is noticed quickly without
+ * hammering a dead service. Until the first probe finishes the state is
+ * UNKNOWN and calls are let through.
+ *
+ * Metric: ai.service.health (gauge, 1 up, 0 unknown, -1 down).
+ */
+@Component
+public class AIHealthProber {
+
+    public enum State { UNKNOWN, UP, DOWN }
+
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private AIHttpClient aiHttpClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ScheduledExecutorService prober;
+    private volatile State state = State.UNKNOWN;
+    private volatile long lastCheckedAt;
+    private volatile String lastError;
+    private int consecutiveFailures;
+    private long retryDelayMs;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("ai.service.health", this, p -> switch (p.getState()) {
+                    case UP -> 1;
+                    case UNKNOWN -> 0;
+                    case DOWN -> -1;
+                })
+                .register(meterRegistry);
+        if (!properties.isEnabled() || properties.getEngine() == AIServiceProperties.Engine.LOCAL) {
+            return;
+        }
+
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ai-health-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prober.execute(this::probe);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isHealthy() {
+        return state == State.UP;
+    }
+
+    // Calls are short-circuited only on evidence; UNKNOWN still lets them through
+    public boolean isKnownDown() {
+        return state == State.DOWN;
+    }
+
+    public long getLastCheckedAt() {
+        return lastCheckedAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    private void probe() {
+        long delayMs;
+        try {
+            boolean up;
+            String error = null;
+            try {
+                // Only the status matters; the body is discarded
+                ResponseEntity<Void> response = aiHttpClient.restTemplate(AIHttpClient.Endpoint.HEALTH)
+                    .getForEntity(aiHttpClient.url(AIHttpClient.Endpoint.HEALTH), Void.class);
+                up = response.getStatusCode().is2xxSuccessful();
+                if (!up) {
+                    error = "HTTP " + response.getStatusCode().value();
+                }
+            } catch (Exception e) {
+                up = false;
+                error = e.getMessage();
+            }
+            lastCheckedAt = System.currentTimeMillis();
+            delayMs = up ? recordUp() : recordDown(error);
+        } catch (Exception e) {
+            delayMs = properties.getHealthIntervalMs();
+        }
+        if (!prober.isShutdown()) {
+            prober.schedule(this::probe, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long recordUp() {
+        if (state != State.UP) {
+            System.err.println("AI service is up");
+        }
+        state = State.UP;
+        lastError = null;
+        consecutiveFailures = 0;
+        retryDelayMs = 0;
+        return properties.getHealthIntervalMs();
+    }
+
+    private long recordDown(String error) {
+        lastError = error;
+        if (++consecutiveFailures < properties.getHealthFailureThreshold()) {
+            // Not convinced yet; check again soon instead of waiting a full interval
+            return properties.getHealthRetryMinMs();
+        }
+        if (state != State.DOWN) {
+            System.err.println("AI service is down: " + error);
+        }
+        state = State.DOWN;
+        retryDelayMs = retryDelayMs == 0
+            ? properties.getHealthRetryMinMs()
+            : Math.min(retryDelayMs * 2, properties.getHealthRetryMaxMs());
+        return retryDelayMs;
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.example.config.AIServiceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared HTTP clients for the Python AI service.
+ *
+ * Blocking calls go through one pool of keep-alive connections; each
+ * endpoint gets its own RestTemplate on top of that pool so it can have its
+ * own response timeout. Waiting for a free connection is bounded too, so a
+ * hung AI service makes callers fail fast instead of piling up request
+ * threads. Reactive calls use a separate Reactor Netty pool with the same
+ * limits. Both pools publish their metrics to Micrometer
+ * (httpcomponents.httpclient.pool.* and reactor.netty.connection.provider.*).
+ */
+@Component
+public class AIHttpClient {
+
+    public enum Endpoint {
+        RECOMMENDATIONS("recommendations", "/api/recommendations"),
+        RECOMMENDATIONS_BATCH("recommendations-batch", "/api/recommendations/batch"),
+        ANALYTICS("analytics", "/api/analytics"),
+        OPTIMIZE("optimize", "/api/schedule/optimize"),
+        PREDICTION("prediction", "/api/prediction/performance"),
+        HEALTH("health", "/health");
+
+        private final String key;
+        private final String path;
+
+        Endpoint(String key, String path) {
+            this.key = key;
+            this.path = path;
+        }
+
+        // Name used under app.ai.service.endpoint-timeouts and in metric tags
+        public String getKey() {
+            return key;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private final List<CloseableHttpClient> httpClients = new ArrayList<>();
+    private final Map<Endpoint, RestTemplate> restTemplates = new EnumMap<>(Endpoint.class);
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @PostConstruct
+    public void init() {
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(properties.getConnectTimeout()))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "ai-service").bindTo(meterRegistry);
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            CloseableHttpClient client = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setConnectionManagerShared(true)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.ofMilliseconds(properties.getConnectionRequestTimeout()))
+                            .setResponseTimeout(Timeout.ofMilliseconds(properties.getTimeoutFor(endpoint.getKey())))
+                            .build())
+                    .build();
+            httpClients.add(client);
+            restTemplates.put(endpoint, new RestTemplate(new HttpComponentsClientHttpRequestFactory(client)));
+        }
+
+        connectionProvider = ConnectionProvider.builder("ai-service")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.getConnectionRequestTimeout()))
+                .maxIdleTime(Duration.ofSeconds(properties.getIdleTimeoutSeconds()))
+                .metrics(true)
+                .build();
+        HttpClient reactorClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeout())
+                .responseTimeout(Duration.ofMillis(properties.getTimeout()));
+        webClient = WebClient.builder()
+                .baseUrl(properties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(reactorClient))
+                .build();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        for (CloseableHttpClient client : httpClients) {
+            client.close();
+        }
+        connectionManager.close();
+        connectionProvider.dispose();
+    }
+
+    // The endpoint clients share one pool, so idle connections are closed here rather than per client
+    @Scheduled(fixedDelay = 10000)
+    public void closeIdleConnections() {
+        connectionManager.closeExpired();
+        connectionManager.closeIdle(TimeValue.ofSeconds(properties.getIdleTimeoutSeconds()));
+    }
+
+    public RestTemplate restTemplate(Endpoint endpoint) {
+        return restTemplates.get(endpoint);
+    }
+
+    public String url(Endpoint endpoint) {
+        return properties.getUrl() + endpoint.getPath();
+    }
+
+    // POST on the reactive pool with the endpoint's response timeout
+    public WebClient.RequestBodySpec post(Endpoint endpoint) {
+        Duration timeout = Duration.ofMillis(properties.getTimeoutFor(endpoint.getKey()));
+        return webClient.post()
+                .uri(endpoint.getPath())
+                .httpRequest(request -> {
+                    HttpClientRequest nativeRequest = request.getNativeRequest();
+                    nativeRequest.responseTimeout(timeout);
+                });
+    }
+}
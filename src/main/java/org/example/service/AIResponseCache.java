@@ -0,0 +1,217 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.config.AIServiceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Response cache for deterministic AI service calls.
+ *
+ * Entries are keyed by endpoint plus a SHA-256 fingerprint of the request
+ * payload serialized with sorted map keys, so equal payloads hit the same
+ * entry whatever their map order. A fresh entry (younger than the TTL) is
+ * returned as is. A stale one (within the stale window after the TTL) is
+ * returned at once while a single background refresh fetches a new answer;
+ * if that refresh fails the stale answer keeps being served until it
+ * expires. Concurrent misses for one key share a single load. The cache holds at most {@code cacheMaxEntries} entries, evicting
+ * the least recently used.
+ *
+ * A loader returns null for "no usable answer" (fallbacks, errors); nulls are
+ * never cached. Cached values are shared between callers and must not be
+ * modified.
+ */
+@Component
+public class AIResponseCache {
+
+    private static final class Entry {
+        final Object value;
+        final long fetchedAt;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(Object value, long fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AIExecutors aiExecutors;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ObjectMapper fingerprintMapper;
+    private Map<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor refresher;
+
+    @PostConstruct
+    public void init() {
+        fingerprintMapper = objectMapper.copy()
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        int maxEntries = properties.getCacheMaxEntries();
+        entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        // Refreshes beyond the queue are dropped; the entry simply stays stale a little longer
+        refresher = aiExecutors.cacheRefresher();
+        Gauge.builder("ai.cache.size", this, cache -> cache.size()).register(meterRegistry);
+    }
+
+    /**
+     * A miss completes when the loader's future does, without holding the
+     * caller's thread; misses for a key already being loaded share that load.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> getAsync(AIHttpClient.Endpoint endpoint, Object payload,
+                                             Supplier<CompletableFuture<T>> loader) {
+        String key = properties.isCacheEnabled() ? key(endpoint, payload) : null;
+        if (key == null) {
+            return loader.get();
+        }
+
+        long now = System.currentTimeMillis();
+        long ttlMillis = properties.getCacheTtlSeconds() * 1000L;
+        long staleMillis = properties.getCacheStaleSeconds() * 1000L;
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            long age = now - entry.fetchedAt;
+            if (age < ttlMillis) {
+                count(endpoint, "hit");
+                return CompletableFuture.completedFuture((T) entry.value);
+            }
+            if (age < ttlMillis + staleMillis) {
+                count(endpoint, "stale");
+                refreshInBackground(endpoint, key, entry, loader);
+                return CompletableFuture.completedFuture((T) entry.value);
+            }
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(key, mine);
+        if (existing != null) {
+            count(endpoint, "coalesced");
+            return existing.thenApply(value -> (T) value);
+        }
+        count(endpoint, "miss");
+        try {
+            loader.get().whenComplete((value, error) -> {
+                // Stored before the key is released, so a caller arriving in between hits the entry
+                if (error == null) {
+                    store(key, value);
+                }
+                loading.remove(key, mine);
+                if (error == null) {
+                    mine.complete(value);
+                } else {
+                    mine.completeExceptionally(error);
+                }
+            });
+        } catch (RuntimeException e) {
+            loading.remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine.thenApply(value -> (T) value);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private void refreshInBackground(AIHttpClient.Endpoint endpoint, String key, Entry entry,
+                                     Supplier<? extends CompletableFuture<?>> loader) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    loader.get().whenComplete((value, error) -> {
+                        store(key, error == null ? value : null);
+                        entry.refreshing.set(false);
+                        refreshed(endpoint, error == null && value != null ? "success" : "failure");
+                    });
+                } catch (Exception e) {
+                    entry.refreshing.set(false);
+                    refreshed(endpoint, "failure");
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+            refreshed(endpoint, "dropped");
+        }
+    }
+
+    private void store(String key, Object value) {
+        if (value == null) {
+            return;
+        }
+        synchronized (this) {
+            entries.put(key, new Entry(value, System.currentTimeMillis()));
+        }
+    }
+
+    // Null when the payload cannot be serialized; such calls are not cached
+    private String key(AIHttpClient.Endpoint endpoint, Object payload) {
+        try {
+            byte[] json = fingerprintMapper.writeValueAsBytes(payload);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return endpoint.getKey() + ":" + HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private void count(AIHttpClient.Endpoint endpoint, String result) {
+        Counter.builder("ai.cache.requests")
+                .tag("endpoint", endpoint.getKey())
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void refreshed(AIHttpClient.Endpoint endpoint, String outcome) {
+        Counter.builder("ai.cache.refreshes")
+                .tag("endpoint", endpoint.getKey())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
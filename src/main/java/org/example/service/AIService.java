@@ -1,153 +1,211 @@
 package org.example.service;
 
+import org.example.config.AIServiceProperties;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class AIService {
 
-    @Value("${app.ai.service.url:http://localhost:8085}")
-    private String aiServiceUrl;
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private AIHttpClient aiHttpClient;
 
-    @Value("${app.ai.service.enabled:true}")
-    private boolean aiServiceEnabled;
+    @Autowired
+    private AIServiceGuard aiServiceGuard;
 
-    private final RestTemplate restTemplate;
-    private final WebClient webClient;
+    @Autowired
+    private AIResponseCache aiResponseCache;
+
+    @Autowired
+    private RecommendationBatcher recommendationBatcher;
 
     @Autowired
     private RealTimeAnalyticsService analyticsService;
 
-    public AIService() {
-        this.restTemplate = new RestTemplate();
-        this.webClient = WebClient.builder().build();
+    @Autowired
+    private AIExecutors aiExecutors;
+
+    @Autowired
+    private LocalAIEngine localAIEngine;
+
+    @Autowired
+    private AIHealthProber aiHealthProber;
+
+    public CompletableFuture<List<Map<String, Object>>> getRecommendationsAsync() {
+        if (isLocalEngine()) {
+            return CompletableFuture.completedFuture(localAIEngine.generateRecommendations(Map.of()));
+        }
+        if (!properties.isEnabled()) {
+            return CompletableFuture.completedFuture(getDefaultRecommendations());
+        }
+
+        return aiResponseCache.getAsync(AIHttpClient.Endpoint.RECOMMENDATIONS, Map.of(),
+                () -> postForBody(AIHttpClient.Endpoint.RECOMMENDATIONS, Map.of())
+                    .mapNotNull(body -> listField(body, "recommendations")).toFuture())
+            .thenApply(recommendations -> recommendations != null ? recommendations
+                : properties.isLocalFallback() ? localAIEngine.generateRecommendations(Map.of()) : getDefaultRecommendations());
     }
 
     public CompletableFuture<List<Map<String, Object>>> getPersonalizedRecommendationsAsync(Long userId) {
-        if (!aiServiceEnabled) {
+        if (!properties.isEnabled() && !isLocalEngine()) {
             return CompletableFuture.completedFuture(getDefaultRecommendations());
         }
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Get real user analytics data
-                Map<String, Object> userAnalytics = analyticsService.getPersonalizedAIInsights(userId);
+        CompletableFuture<Map<String, Object>> insights;
+        try {
+            // Get real user analytics data; JPA work stays on the bounded blocking pool
+            insights = CompletableFuture.supplyAsync(() -> analyticsService.getPersonalizedAIInsights(userId), aiExecutors.blocking());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(getDefaultRecommendations());
+        }
 
-                // Send user data to AI service for personalized recommendations
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                HttpEntity<Map<String, Object>> request = new HttpEntity<>(userAnalytics, headers);
+        // The personalized defaults read the user's own insights, so they stay the fallback here
+        return insights.thenCompose(userAnalytics -> fetchRecommendations(userAnalytics)
+            .thenApply(recommendations -> recommendations != null
+                ? recommendations : getPersonalizedDefaultRecommendations(userAnalytics)));
+    }
 
-                ResponseEntity<Map> response = restTemplate.postForEntity(
-                    aiServiceUrl + "/api/recommendations", request, Map.class);
+    /**
+     * AI service recommendations for insights the caller already has, or null
+     * when the service gave none. Concurrent calls are sent as batches.
+     */
+    public CompletableFuture<List<Map<String, Object>>> fetchRecommendations(Map<String, Object> userAnalytics) {
+        if (isLocalEngine()) {
+            return CompletableFuture.completedFuture(localAIEngine.generateRecommendations(userAnalytics));
+        }
+        if (!properties.isEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
 
-                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    Map<String, Object> body = response.getBody();
-                    return (List<Map<String, Object>>) body.get("recommendations");
-                }
-            } catch (Exception e) {
-                System.err.println("Error fetching personalized AI recommendations: " + e.getMessage());
-            }
-            return getPersonalizedDefaultRecommendations(userId);
-        });
+        // Unchanged analytics are answered from the cache
+        return aiResponseCache.getAsync(AIHttpClient.Endpoint.RECOMMENDATIONS, userAnalytics,
+            () -> properties.isBatchEnabled()
+                // Sent together with other users' requests arriving in the same few milliseconds
+                ? recommendationBatcher.submit(userAnalytics)
+                : postForBody(AIHttpClient.Endpoint.RECOMMENDATIONS, userAnalytics)
+                    .mapNotNull(body -> listField(body, "recommendations")).toFuture());
     }
 
     public Mono<Map<String, Object>> analyzeRealTimeStudyDataAsync(Long userId) {
-        if (!aiServiceEnabled) {
-            return Mono.just(analyticsService.getPersonalizedAIInsights(userId));
+        // Computed once per subscription and reused as request body and fallback
+        Mono<Map<String, Object>> insights = Mono.fromCallable(() -> analyticsService.getPersonalizedAIInsights(userId))
+            .subscribeOn(aiExecutors.blockingScheduler());
+        if (!properties.isEnabled()) {
+            return insights.onErrorResume(e -> Mono.fromSupplier(this::getDefaultAnalytics));
         }
 
-        return webClient.post()
-                .uri(aiServiceUrl + "/api/analytics")
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(analyticsService.getPersonalizedAIInsights(userId))
-                .retrieve()
-                .bodyToMono(Map.class)
-                .map(response -> {
-                    if (response != null && (Boolean) response.get("success")) {
-                        return (Map<String, Object>) response.get("analytics");
-                    }
-                    return analyticsService.getPersonalizedAIInsights(userId);
-                })
-                .onErrorReturn(analyticsService.getPersonalizedAIInsights(userId));
+        return insights
+            .flatMap(userAnalytics -> postForBody(AIHttpClient.Endpoint.ANALYTICS, userAnalytics)
+                .mapNotNull(body -> mapField(body, "analytics"))
+                .defaultIfEmpty(userAnalytics))
+            .onErrorResume(e -> Mono.fromSupplier(this::getDefaultAnalytics));
     }
 
-    public Map<String, Object> optimizeSchedule(Map<String, Object> preferences) {
-        if (!aiServiceEnabled) {
-            return getDefaultOptimizedSchedule();
+    public Mono<Map<String, Object>> analyzeStudyDataAsync(Map<String, Object> studyData) {
+        if (!properties.isEnabled()) {
+            return Mono.fromSupplier(this::getDefaultAnalytics);
         }
 
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(preferences, headers);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                aiServiceUrl + "/api/schedule/optimize", request, Map.class);
+        return postForBody(AIHttpClient.Endpoint.ANALYTICS, studyData)
+            .mapNotNull(body -> mapField(body, "analytics"))
+            .switchIfEmpty(Mono.fromSupplier(this::getDefaultAnalytics));
+    }
 
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> body = response.getBody();
-                if ((Boolean) body.get("success")) {
-                    return (Map<String, Object>) body.get("optimized_schedule");
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error optimizing schedule: " + e.getMessage());
+    public Mono<Map<String, Object>> optimizeSchedule(Map<String, Object> preferences) {
+        if (isLocalEngine()) {
+            return Mono.fromSupplier(() -> localAIEngine.optimizeSchedule(preferences));
+        }
+        if (!properties.isEnabled()) {
+            return Mono.fromSupplier(this::getDefaultOptimizedSchedule);
         }
 
-        return getDefaultOptimizedSchedule();
+        return Mono.fromFuture(() -> aiResponseCache.getAsync(AIHttpClient.Endpoint.OPTIMIZE, preferences,
+                () -> postForBody(AIHttpClient.Endpoint.OPTIMIZE, preferences)
+                    .mapNotNull(AIService::toOptimizedSchedule).toFuture()))
+            .switchIfEmpty(Mono.fromSupplier(() -> properties.isLocalFallback()
+                ? localAIEngine.optimizeSchedule(preferences) : getDefaultOptimizedSchedule()));
     }
 
-    public Map<String, Object> predictPerformance(Map<String, Object> currentData) {
-        if (!aiServiceEnabled) {
-            return getDefaultPerformancePrediction();
+    public Mono<Map<String, Object>> predictPerformance(Map<String, Object> currentData) {
+        if (isLocalEngine()) {
+            return Mono.fromSupplier(() -> localAIEngine.predictPerformance(currentData));
         }
-
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(currentData, headers);
-
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                aiServiceUrl + "/api/prediction/performance", request, Map.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, Object> body = response.getBody();
-                if ((Boolean) body.get("success")) {
-                    return (Map<String, Object>) body.get("prediction");
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error predicting performance: " + e.getMessage());
+        if (!properties.isEnabled()) {
+            return Mono.fromSupplier(this::getDefaultPerformancePrediction);
         }
 
-        return getDefaultPerformancePrediction();
+        return Mono.fromFuture(() -> aiResponseCache.getAsync(AIHttpClient.Endpoint.PREDICTION, currentData,
+                () -> postForBody(AIHttpClient.Endpoint.PREDICTION, currentData)
+                    .mapNotNull(body -> mapField(body, "prediction")).toFuture()))
+            .switchIfEmpty(Mono.fromSupplier(() -> properties.isLocalFallback()
+                ? localAIEngine.predictPerformance(currentData) : getDefaultPerformancePrediction()));
     }
 
     public boolean isAIServiceHealthy() {
-        if (!aiServiceEnabled) {
+        if (!properties.isEnabled()) {
             return false;
         }
 
-        try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(
-                aiServiceUrl + "/health", Map.class);
-            return response.getStatusCode().is2xxSuccessful();
-        } catch (Exception e) {
-            return false;
+        // Last background probe result; no HTTP call here
+        return aiHealthProber.isHealthy();
+    }
+
+    // Recommendations, schedules and predictions are answered in-process without calling the AI service
+    private boolean isLocalEngine() {
+        return properties.getEngine() == AIServiceProperties.Engine.LOCAL;
+    }
+
+    /**
+     * POST on the reactive client through the endpoint's guard. Emits the
+     * response body, or completes empty when the call was rejected, failed or
+     * the service reported no success, so callers pick their own fallback
+     * lazily. Callers read their field with {@link #listField}/{@link #mapField},
+     * which treat a field of the wrong shape as missing.
+     */
+    private Mono<Map<String, Object>> postForBody(AIHttpClient.Endpoint endpoint, Map<String, Object> payload) {
+        return aiServiceGuard.callReactive(endpoint, () ->
+                aiHttpClient.post(endpoint)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(payload)
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {}),
+                () -> null)
+            .filter(body -> !Boolean.FALSE.equals(body.get("success")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> listField(Map<String, Object> body, String key) {
+        return body.get(key) instanceof List<?> list ? (List<Map<String, Object>>) list : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> mapField(Map<String, Object> body, String key) {
+        return body.get(key) instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+    }
+
+    // The service sends the slots as a bare list next to a top-level score; callers,
+    // the local engine and the default all use {schedule, optimization_score}
+    static Map<String, Object> toOptimizedSchedule(Map<String, Object> body) {
+        List<Map<String, Object>> schedule = listField(body, "optimized_schedule");
+        if (schedule == null) {
+            return null;
         }
+        Map<String, Object> optimized = new LinkedHashMap<>();
+        optimized.put("schedule", schedule);
+        optimized.put("optimization_score", body.get("optimization_score"));
+        return optimized;
     }
 
     // Default fallback methods
@@ -208,8 +266,7 @@ public class AIService {
         );
     }
 
-    private List<Map<String, Object>> getPersonalizedDefaultRecommendations(Long userId) {
-        Map<String, Object> userInsights = analyticsService.getPersonalizedAIInsights(userId);
+    private List<Map<String, Object>> getPersonalizedDefaultRecommendations(Map<String, Object> userInsights) {
         Double efficiency = (Double) userInsights.get("efficiency");
         Integer dayStreak = (Integer) userInsights.get("dayStreak");
         Double studyHours = (Double) userInsights.get("studyHoursWeek");
@@ -0,0 +1,162 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.config.AIServiceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead for each AI service endpoint.
+ *
+ * A call is rejected straight to its fallback when the endpoint's circuit is
+ * open, all of its concurrency permits are taken or the health prober
+ * knows the service is down, so a dead or overloaded AI service costs
+ * callers nothing but the fallback. Exceptions count as
+ * failures, except 4xx responses: the service answered, so they only fall
+ * back.
+ *
+ * Metrics, tagged with {@code endpoint}: ai.circuit.state (gauge, 0 closed,
+ * 1 half-open, 2 open), ai.circuit.transitions (counter, also tagged from and
+ * to), ai.calls.rejected (counter, also tagged reason) and ai.bulkhead.available
+ * (gauge).
+ */
+@Component
+public class AIServiceGuard {
+
+    private record Guard(CircuitBreaker breaker, Semaphore bulkhead) {}
+
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private AIHealthProber aiHealthProber;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<AIHttpClient.Endpoint, Guard> guards = new EnumMap<>(AIHttpClient.Endpoint.class);
+
+    @PostConstruct
+    public void init() {
+        for (AIHttpClient.Endpoint endpoint : AIHttpClient.Endpoint.values()) {
+            String name = endpoint.getKey();
+            CircuitBreaker breaker = new CircuitBreaker(
+                properties.getCircuitFailureRateThreshold(),
+                properties.getCircuitMinimumCalls(),
+                properties.getCircuitWindowSeconds(),
+                properties.getCircuitOpenSeconds() * 1000L,
+                properties.getCircuitHalfOpenCalls(),
+                (from, to) -> {
+                    Counter.builder("ai.circuit.transitions")
+                            .tag("endpoint", name)
+                            .tag("from", from.name())
+                            .tag("to", to.name())
+                            .register(meterRegistry)
+                            .increment();
+                    System.err.println("AI service circuit for " + name + " changed from " + from + " to " + to);
+                });
+            Semaphore bulkhead = new Semaphore(properties.getBulkheadLimitFor(name));
+            guards.put(endpoint, new Guard(breaker, bulkhead));
+
+            Gauge.builder("ai.circuit.state", breaker, b -> switch (b.getState()) {
+                        case CLOSED -> 0;
+                        case HALF_OPEN -> 1;
+                        case OPEN -> 2;
+                    })
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+            Gauge.builder("ai.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .tag("endpoint", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    public CircuitBreaker.State getState(AIHttpClient.Endpoint endpoint) {
+        return guards.get(endpoint).breaker().getState();
+    }
+
+    /**
+     * Run a blocking call through the endpoint's breaker and bulkhead.
+     * Returns the fallback when the call is rejected or throws.
+     */
+    public <T> T call(AIHttpClient.Endpoint endpoint, Supplier<T> call, Supplier<T> fallback) {
+        Guard guard = guards.get(endpoint);
+        if (!acquire(endpoint, guard)) {
+            return fallback.get();
+        }
+        try {
+            T result = call.get();
+            guard.breaker().onSuccess();
+            return result;
+        } catch (HttpClientErrorException e) {
+            guard.breaker().onSuccess();
+            System.err.println("AI service rejected " + endpoint.getKey() + " request: " + e.getMessage());
+            return fallback.get();
+        } catch (Exception e) {
+            guard.breaker().onFailure();
+            System.err.println("AI service call " + endpoint.getKey() + " failed: " + e.getMessage());
+            return fallback.get();
+        } finally {
+            guard.bulkhead().release();
+        }
+    }
+
+    // Reactive counterpart of call(); the permit is held until the Mono terminates or is cancelled
+    public <T> Mono<T> callReactive(AIHttpClient.Endpoint endpoint, Supplier<Mono<T>> call, Supplier<T> fallback) {
+        return Mono.defer(() -> {
+            Guard guard = guards.get(endpoint);
+            if (!acquire(endpoint, guard)) {
+                return Mono.fromSupplier(fallback);
+            }
+            return call.get()
+                    .doOnSuccess(result -> guard.breaker().onSuccess())
+                    .onErrorResume(e -> {
+                        if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+                            guard.breaker().onSuccess();
+                        } else {
+                            guard.breaker().onFailure();
+                            System.err.println("AI service call " + endpoint.getKey() + " failed: " + e.getMessage());
+                        }
+                        return Mono.fromSupplier(fallback);
+                    })
+                    .doOnCancel(() -> guard.breaker().onIgnored())
+                    .doFinally(signal -> guard.bulkhead().release());
+        });
+    }
+
+    private boolean acquire(AIHttpClient.Endpoint endpoint, Guard guard) {
+        if (aiHealthProber.isKnownDown()) {
+            rejected(endpoint, "service_down");
+            return false;
+        }
+        if (!guard.bulkhead().tryAcquire()) {
+            rejected(endpoint, "bulkhead_full");
+            return false;
+        }
+        if (!guard.breaker().tryAcquire()) {
+            guard.bulkhead().release();
+            rejected(endpoint, "circuit_open");
+            return false;
+        }
+        return true;
+    }
+
+    private void rejected(AIHttpClient.Endpoint endpoint, String reason) {
+        Counter.builder("ai.calls.rejected")
+                .tag("endpoint", endpoint.getKey())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
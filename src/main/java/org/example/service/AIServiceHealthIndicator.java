@@ -0,0 +1,55 @@
+package org.example.service;
+
+import org.example.config.AIServiceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Reports the AI service state from {@link AIHealthProber} as the "aiService"
+ * health component, without calling the service.
+ *
+ * A dead AI service reports DEGRADED rather than DOWN: every AI feature has a
+ * fallback, so the application can still take traffic. The status is mapped
+ * to HTTP 200 and ranked between DOWN and UP in application.properties.
+ */
+@Component("aiServiceHealthIndicator")
+public class AIServiceHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "AI service unavailable, serving fallbacks");
+
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private AIHealthProber aiHealthProber;
+
+    @Override
+    public Health health() {
+        if (!properties.isEnabled()) {
+            return Health.up().withDetail("mode", "disabled").build();
+        }
+        if (properties.getEngine() == AIServiceProperties.Engine.LOCAL) {
+            return Health.up().withDetail("mode", "local").build();
+        }
+
+        Health.Builder builder = switch (aiHealthProber.getState()) {
+            case UP -> Health.up();
+            case DOWN -> Health.status(DEGRADED);
+            case UNKNOWN -> Health.unknown();
+        };
+        builder.withDetail("mode", "remote")
+               .withDetail("url", properties.getUrl());
+        if (aiHealthProber.getLastCheckedAt() > 0) {
+            builder.withDetail("lastChecked", Instant.ofEpochMilli(aiHealthProber.getLastCheckedAt()).toString());
+        }
+        if (aiHealthProber.getLastError() != null) {
+            builder.withDetail("error", aiHealthProber.getLastError());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,256 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Stand-in for the Python AI service, for load and integration tests.
+ *
+ * Serves the same endpoints and response shapes, with answers from
+ * {@link LocalAIEngine}, on the JDK's built-in HTTP server, so it needs no
+ * Python stack and no Spring context. Every request except /health is
+ * delayed by a latency drawn from the configured distribution, and a
+ * configurable fraction fails with HTTP 500 or hangs for {@code hangMs}
+ * (long enough to trip client timeouts) before answering.
+ *
+ * Usage from a test:
+ * <pre>
+ *   AIServiceStub stub = new AIServiceStub(new AIServiceStub.Settings().setLatencyMs(200).setErrorRate(0.1));
+ *   stub.start();
+ *   // point app.ai.service.url at "http://localhost:" + stub.getPort()
+ *   stub.stop();
+ * </pre>
+ * The "loadtest" profile starts one on app.ai.stub.port and points the
+ * application at it.
+ */
+public class AIServiceStub {
+
+    public enum LatencyDistribution {
+        FIXED,      // Always latencyMs
+        UNIFORM,    // Between latencyMs - spreadMs and latencyMs + spreadMs
+        LOG_NORMAL  // Median latencyMs, spreadMs is the width of the log (sigma = spreadMs / latencyMs); long tail
+    }
+
+    public static class Settings {
+        private int port = 0; // 0 picks a free port
+        private int threads = 64;
+        private LatencyDistribution distribution = LatencyDistribution.FIXED;
+        private long latencyMs = 0;
+        private long spreadMs = 0;
+        private double errorRate = 0;   // Fraction of requests answered with HTTP 500
+        private double timeoutRate = 0; // Fraction of requests that hang for hangMs first
+        private long hangMs = 30000;
+
+        public int getPort() { return port; }
+        public Settings setPort(int port) { this.port = port; return this; }
+
+        public int getThreads() { return threads; }
+        public Settings setThreads(int threads) { this.threads = threads; return this; }
+
+        public LatencyDistribution getDistribution() { return distribution; }
+        public Settings setDistribution(LatencyDistribution distribution) { this.distribution = distribution; return this; }
+
+        public long getLatencyMs() { return latencyMs; }
+        public Settings setLatencyMs(long latencyMs) { this.latencyMs = latencyMs; return this; }
+
+        public long getSpreadMs() { return spreadMs; }
+        public Settings setSpreadMs(long spreadMs) { this.spreadMs = spreadMs; return this; }
+
+        public double getErrorRate() { return errorRate; }
+        public Settings setErrorRate(double errorRate) { this.errorRate = errorRate; return this; }
+
+        public double getTimeoutRate() { return timeoutRate; }
+        public Settings setTimeoutRate(double timeoutRate) { this.timeoutRate = timeoutRate; return this; }
+
+        public long getHangMs() { return hangMs; }
+        public Settings setHangMs(long hangMs) { this.hangMs = hangMs; return this; }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LocalAIEngine engine = new LocalAIEngine();
+    private final ConcurrentHashMap<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    // Read per request, so tests can change the behaviour of a running stub
+    private volatile Settings settings;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public AIServiceStub(Settings settings) {
+        this.settings = settings;
+    }
+
+    public synchronized void start() throws IOException {
+        // A deep accept backlog, so a burst of new connections queues instead of timing out
+        server = HttpServer.create(new InetSocketAddress(settings.getPort()), 1024);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(settings.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "ai-stub-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+
+        server.createContext("/health", exchange ->
+            respond(exchange, 200, Map.of("status", "healthy", "service", "StudyAI", "version", "1.0.0")));
+        route("/api/recommendations/batch", body -> {
+            List<Map<String, Object>> results = new ArrayList<>();
+            Object requests = body.get("requests");
+            if (requests instanceof List<?> users) {
+                for (Object user : users) {
+                    results.add(Map.of("recommendations", engine.generateRecommendations(asMap(user))));
+                }
+            }
+            return Map.of("success", true, "results", results, "generated_at", LocalDateTime.now().toString());
+        });
+        route("/api/recommendations", body -> Map.of(
+            "success", true,
+            "recommendations", engine.generateRecommendations(body),
+            "generated_at", LocalDateTime.now().toString()));
+        route("/api/analytics", body -> Map.of(
+            "success", true,
+            "analytics", analytics(body),
+            "analyzed_at", LocalDateTime.now().toString()));
+        // The service sends the slots as a bare list with the score beside it, not AIService's adapted map
+        route("/api/schedule/optimize", body -> Map.of(
+            "success", true,
+            "optimized_schedule", engine.predictOptimalSchedule(body),
+            "optimization_score", engine.optimizationScore()));
+        route("/api/prediction/performance", body -> Map.of(
+            "success", true,
+            "prediction", engine.predictPerformance(body),
+            "predicted_at", LocalDateTime.now().toString()));
+
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void setSettings(Settings settings) {
+        this.settings = settings;
+    }
+
+    // Requests received on a path, whatever their outcome
+    public long getRequestCount(String path) {
+        LongAdder count = requestCounts.get(path);
+        return count != null ? count.sum() : 0;
+    }
+
+    private void route(String path, Function<Map<String, Object>, Map<String, Object>> handler) {
+        server.createContext(path, exchange -> {
+            try {
+                // Contexts match by prefix; leave longer paths to their own context
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    respond(exchange, 404, Map.of("success", false, "error", "not found"));
+                    return;
+                }
+                requestCounts.computeIfAbsent(path, p -> new LongAdder()).increment();
+                Map<String, Object> body = readBody(exchange);
+
+                Settings current = settings;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                if (random.nextDouble() < current.getTimeoutRate()) {
+                    Thread.sleep(current.getHangMs());
+                } else {
+                    Thread.sleep(latency(current, random));
+                }
+                if (random.nextDouble() < current.getErrorRate()) {
+                    respond(exchange, 500, Map.of("success", false, "error", "injected failure"));
+                    return;
+                }
+                respond(exchange, 200, handler.apply(body));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+            } catch (Exception e) {
+                respond(exchange, 500, Map.of("success", false, "error", String.valueOf(e.getMessage())));
+            }
+        });
+    }
+
+    private long latency(Settings current, ThreadLocalRandom random) {
+        long median = current.getLatencyMs();
+        long spread = current.getSpreadMs();
+        double latency = switch (current.getDistribution()) {
+            case FIXED -> median;
+            case UNIFORM -> median - spread + random.nextDouble() * 2 * spread;
+            case LOG_NORMAL -> median <= 0 ? 0
+                : median * Math.exp(random.nextGaussian() * ((double) spread / median));
+        };
+        return Math.max(0, Math.round(latency));
+    }
+
+    // Same shape as the Python analytics, with its random values at their midpoints
+    private Map<String, Object> analytics(Map<String, Object> studyData) {
+        int efficiency = 80;
+        if (Boolean.TRUE.equals(studyData.get("consistent_schedule"))) {
+            efficiency += 5;
+        }
+        if (Boolean.TRUE.equals(studyData.get("regular_breaks"))) {
+            efficiency += 3;
+        }
+        Map<String, Object> analytics = new LinkedHashMap<>();
+        analytics.put("efficiency", Math.min(100, efficiency));
+        analytics.put("focusTime", 6.0);
+        analytics.put("recommendedBreaks", List.of("25min", "50min", "75min"));
+        analytics.put("trends", Map.of(
+            "weekly_improvement", 5.0,
+            "consistency_score", 78,
+            "peak_hours", List.of("9:00-11:00", "14:00-16:00")));
+        analytics.put("insights", List.of(
+            "Your morning sessions show 15% higher retention",
+            "Consider taking breaks every 25 minutes for optimal focus",
+            "Group study sessions improve comprehension by 20%"));
+        return analytics;
+    }
+
+    private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            if (bytes.length == 0) {
+                return Map.of();
+            }
+            return asMap(objectMapper.readValue(bytes, Object.class));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Map.of();
+    }
+
+    private void respond(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+}
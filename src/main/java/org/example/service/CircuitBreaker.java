@@ -0,0 +1,156 @@
+package org.example.service;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Count-and-rate circuit breaker over a rolling time window.
+ *
+ * CLOSED lets every call through and records outcomes in one-second buckets.
+ * Once the window holds at least {@code minimumCalls} calls and the failure
+ * rate reaches {@code failureRateThreshold} percent the breaker OPENs and
+ * rejects calls for {@code openMillis}. After that it is HALF_OPEN: up to
+ * {@code halfOpenCalls} trial calls go through; if they all succeed the
+ * breaker closes with an empty window, and any failure opens it again.
+ *
+ * Callers pair each successful {@link #tryAcquire} with exactly one
+ * {@link #onSuccess}, {@link #onFailure} or, for a call abandoned without an
+ * outcome, {@link #onIgnored}.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final BiConsumer<State, State> transitionListener;
+
+    // Ring of one-second buckets; bucketSecond says which second a slot currently holds
+    private final long[] bucketSecond;
+    private final int[] bucketCalls;
+    private final int[] bucketFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    public CircuitBreaker(int failureRateThreshold, int minimumCalls, int windowSeconds, long openMillis,
+                          int halfOpenCalls, BiConsumer<State, State> transitionListener) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.transitionListener = transitionListener;
+        this.bucketSecond = new long[windowSeconds];
+        this.bucketCalls = new int[windowSeconds];
+        this.bucketFailures = new int[windowSeconds];
+    }
+
+    public synchronized State getState() {
+        // Report HALF_OPEN as soon as the open period is over, even before the next call
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt < openMillis) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                halfOpenInFlight = 1;
+                halfOpenSucceeded = 0;
+                return true;
+            default:
+                if (halfOpenInFlight + halfOpenSucceeded >= halfOpenCalls) {
+                    return false;
+                }
+                halfOpenInFlight++;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            // A call started before the breaker opened may finish here; never go below zero
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            if (++halfOpenSucceeded >= halfOpenCalls) {
+                clearWindow();
+                transition(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            int calls = 0;
+            int failures = 0;
+            long currentSecond = System.currentTimeMillis() / 1000;
+            for (int i = 0; i < bucketSecond.length; i++) {
+                if (currentSecond - bucketSecond[i] < bucketSecond.length) {
+                    calls += bucketCalls[i];
+                    failures += bucketFailures[i];
+                }
+            }
+            if (calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+                open();
+            }
+        }
+    }
+
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+        }
+    }
+
+    private void record(boolean failure) {
+        long second = System.currentTimeMillis() / 1000;
+        int slot = (int) (second % bucketSecond.length);
+        if (bucketSecond[slot] != second) {
+            bucketSecond[slot] = second;
+            bucketCalls[slot] = 0;
+            bucketFailures[slot] = 0;
+        }
+        bucketCalls[slot]++;
+        if (failure) {
+            bucketFailures[slot]++;
+        }
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+        transition(State.OPEN);
+    }
+
+    private void clearWindow() {
+        for (int i = 0; i < bucketSecond.length; i++) {
+            bucketSecond[i] = 0;
+            bucketCalls[i] = 0;
+            bucketFailures[i] = 0;
+        }
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        if (from != to) {
+            transitionListener.accept(from, to);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.service;
+
+import org.example.entity.NotificationOutbox;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A way of getting outbox messages to their recipients. Every channel bean
+ * is drained by NotificationOutboxService in batches of up to
+ * {@link #getBatchSize()} messages on a delivery worker thread.
+ */
+public interface DeliveryChannel {
+
+    // Stored in notification_outbox.channel
+    String getName();
+
+    boolean isEnabled();
+
+    int getBatchSize();
+
+    /**
+     * Deliver a batch. Messages that are not in the returned map were
+     * delivered; the map holds a non-null error description for each one
+     * that failed and should be retried. Use {@code String.valueOf(e)}
+     * rather than {@code e.getMessage()}, which is often null.
+     */
+    Map<Long, String> deliver(List<NotificationOutbox> batch);
+}
@@ -0,0 +1,84 @@
+package org.example.service;
+
+import org.example.config.DeliveryProperties;
+import org.example.entity.NotificationOutbox;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends email over SMTP; the recipient is an email address. A batch goes out
+ * over one SMTP connection. Needs {@code spring.mail.host} (any local SMTP
+ * stand-in such as MailHog works for development) and
+ * {@code app.notifications.delivery.email.enabled=true}.
+ */
+@Component
+public class EmailDeliveryChannel implements DeliveryChannel {
+
+    public static final String NAME = "email";
+
+    @Autowired
+    private DeliveryProperties properties;
+
+    @Autowired
+    private ObjectProvider<JavaMailSender> mailSender;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.getEmail().isEnabled() && mailSender.getIfAvailable() != null;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return properties.getEmail().getBatchSize();
+    }
+
+    @Override
+    public Map<Long, String> deliver(List<NotificationOutbox> batch) {
+        Map<SimpleMailMessage, Long> ids = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutbox outbox = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(properties.getEmail().getFrom());
+            message.setTo(outbox.getRecipient());
+            message.setSubject(outbox.getSubject());
+            message.setText(outbox.getBody());
+            messages[i] = message;
+            ids.put(message, outbox.getId());
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        try {
+            mailSender.getObject().send(messages);
+        } catch (MailSendException e) {
+            // Only the listed messages failed; the rest were accepted by the server
+            if (e.getFailedMessages().isEmpty()) {
+                batch.forEach(outbox -> failures.put(outbox.getId(), String.valueOf(e)));
+            }
+            e.getFailedMessages().forEach((message, error) -> {
+                Long id = ids.get(message);
+                if (id != null) {
+                    failures.put(id, String.valueOf(error));
+                }
+            });
+        } catch (MailException e) {
+            batch.forEach(outbox -> failures.put(outbox.getId(), String.valueOf(e)));
+        }
+        return failures;
+    }
+}
@@ -8,6 +8,7 @@ import org.example.repository.StudentRepository;
 import org.example.repository.StudyGroupRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -29,6 +30,15 @@ public class GroupSessionService {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private ReminderWheelService reminderWheelService;
+
+    @Autowired
+    private NotificationOutboxService outboxService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     // Core CRUD operations
     public List<GroupSession> getAllSessions() {
         return sessionRepository.findAll();
@@ -48,21 +58,32 @@ public class GroupSessionService {
         // Auto-add all group members as expected attendees
         session.getStudyGroup().getMembers().forEach(session::addAttendee);
 
-        return sessionRepository.save(session);
+        session.setUpdatedAt(LocalDateTime.now());
+        GroupSession saved = sessionRepository.save(session);
+        reminderWheelService.onSessionSaved(saved);
+        return saved;
     }
 
     public GroupSession updateSession(GroupSession session) {
         session.setUpdatedAt(LocalDateTime.now());
         detectAndHandleConflicts(session);
-        return sessionRepository.save(session);
+        GroupSession saved = sessionRepository.save(session);
+        reminderWheelService.onSessionSaved(saved);
+        return saved;
     }
 
     public void deleteSession(Long id) {
         sessionRepository.deleteById(id);
+        reminderWheelService.onSessionDeleted(id);
     }
 
     // Smart Scheduling - Core feature from proposal
     public List<LocalDateTime> suggestOptimalTimes(Long groupId, int durationMinutes, int numberOfSuggestions) {
+        return singleFlight.execute("sessions.optimal-times", List.of(groupId, durationMinutes, numberOfSuggestions),
+            () -> computeOptimalTimes(groupId, durationMinutes, numberOfSuggestions));
+    }
+
+    private List<LocalDateTime> computeOptimalTimes(Long groupId, int durationMinutes, int numberOfSuggestions) {
         Optional<StudyGroup> groupOpt = groupRepository.findById(groupId);
         if (groupOpt.isEmpty()) {
             return new ArrayList<>();
@@ -173,20 +194,37 @@ public class GroupSessionService {
     }
 
     // Force Schedule Override - Feature from proposal
+    @Transactional
     public GroupSession forceScheduleSession(GroupSession session, String reason) {
         session.addConflict("FORCE SCHEDULED: " + reason);
         session.setStatus(GroupSession.SessionStatus.SCHEDULED);
+        session.setUpdatedAt(LocalDateTime.now());
 
-        // Notify affected members
-        notifyAffectedMembers(session);
+        GroupSession saved = sessionRepository.save(session);
+        reminderWheelService.onSessionSaved(saved);
 
-        return sessionRepository.save(session);
+        // Queued in the same transaction; delivered by the outbox workers after commit
+        notifyAffectedMembers(saved);
+        return saved;
     }
 
     private void notifyAffectedMembers(GroupSession session) {
-        // In a real implementation, this would send emails/notifications
-        System.out.println("🔔 Notification: Session '" + session.getTitle() +
-                          "' has been force-scheduled despite conflicts. Please check your calendar.");
+        String subject = "Session force-scheduled: " + session.getTitle();
+        String body = "Session '" + session.getTitle() + "' on " +
+                      session.getScheduledTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a")) +
+                      " has been force-scheduled despite conflicts. Please check your calendar.";
+
+        List<Student> recipients = session.getAttendeeIds() == null || session.getAttendeeIds().isEmpty()
+            ? session.getStudyGroup().getMembers()
+            : studentRepository.findAllById(session.getAttendeeIds());
+        boolean sendEmail = outboxService.isChannelEnabled(EmailDeliveryChannel.NAME);
+        for (Student student : recipients) {
+            outboxService.enqueue(InAppDeliveryChannel.NAME, student.getId().toString(), subject, body);
+            if (sendEmail && student.getEmail() != null) {
+                outboxService.enqueue(EmailDeliveryChannel.NAME, student.getEmail(), subject, body);
+            }
+        }
+        outboxService.enqueue(WebhookDeliveryChannel.NAME, "session.force-scheduled", subject, body);
     }
 
     // AI-Enhanced Session Recommendations
@@ -296,6 +334,10 @@ public class GroupSessionService {
 
     // Session Analytics and Insights
     public Map<String, Object> getSessionAnalytics(Long groupId) {
+        return singleFlight.execute("sessions.analytics", groupId, () -> computeSessionAnalytics(groupId));
+    }
+
+    private Map<String, Object> computeSessionAnalytics(Long groupId) {
         List<GroupSession> groupSessions = sessionRepository.findByStudyGroup(
             groupRepository.findById(groupId).orElse(null)
         );
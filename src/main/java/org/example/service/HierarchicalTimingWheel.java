@@ -0,0 +1,192 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical hashed timing wheel.
+ *
+ * Level 0 has one slot per tick, every higher level has slots that are
+ * {@code wheelSize} times wider than the level below it. Entries are kept in
+ * the lowest level that can hold their deadline and cascade down as time
+ * advances, so scheduling, cancelling and expiring are all O(1) per entry.
+ * Deadlines further away than {@link #capacityMillis()} are rejected.
+ *
+ * Not tied to any clock: callers drive it with {@link #advanceTo(long)}.
+ */
+public class HierarchicalTimingWheel<K, V> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] slotSpans; // ticks covered by one slot of each level
+    private final List<List<Map<K, Entry<K, V>>>> levels = new ArrayList<>();
+    private final Map<K, Entry<K, V>> index = new HashMap<>();
+    private final List<Entry<K, V>> due = new ArrayList<>();
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.slotSpans = new long[levelCount + 1];
+        long span = 1;
+        for (int i = 0; i <= levelCount; i++) {
+            slotSpans[i] = span;
+            span = Math.multiplyExact(span, wheelSize);
+        }
+        for (int i = 0; i < levelCount; i++) {
+            List<Map<K, Entry<K, V>>> buckets = new ArrayList<>(wheelSize);
+            for (int b = 0; b < wheelSize; b++) {
+                buckets.add(new LinkedHashMap<>());
+            }
+            levels.add(buckets);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Longest distance into the future a deadline may be scheduled
+    public long capacityMillis() {
+        return (slotSpans[levels.size()] - 1) * tickMillis;
+    }
+
+    /**
+     * Schedule (or reschedule) {@code key}. Deadlines that are already due are
+     * returned by the next {@link #advanceTo(long)} call.
+     *
+     * @return false if the deadline lies beyond the wheel's capacity
+     */
+    public synchronized boolean schedule(K key, long deadlineMillis, V value) {
+        cancel(key);
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        if (deadlineTick - currentTick >= slotSpans[levels.size()]) {
+            return false;
+        }
+        Entry<K, V> entry = new Entry<>(key, value, deadlineTick);
+        index.put(key, entry);
+        place(entry);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K, V> entry = index.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.bucket != null) {
+            entry.bucket.remove(key);
+        } else {
+            due.remove(entry);
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return index.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized void clear() {
+        for (List<Map<K, Entry<K, V>>> buckets : levels) {
+            for (Map<K, Entry<K, V>> bucket : buckets) {
+                bucket.clear();
+            }
+        }
+        index.clear();
+        due.clear();
+    }
+
+    /**
+     * Advance the wheel to {@code nowMillis} and return the values of every
+     * entry whose deadline has been reached, in deadline order.
+     */
+    public synchronized List<V> advanceTo(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<V> expired = new ArrayList<>();
+        drainDue(expired);
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the top so entries can fall through several levels in one tick
+            for (int level = levels.size() - 1; level >= 1; level--) {
+                if (currentTick % slotSpans[level] == 0) {
+                    cascade(level);
+                }
+            }
+            Map<K, Entry<K, V>> bucket = levels.get(0).get(slotIndex(0, currentTick));
+            if (!bucket.isEmpty()) {
+                List<Entry<K, V>> entries = new ArrayList<>(bucket.values());
+                bucket.clear();
+                for (Entry<K, V> entry : entries) {
+                    entry.bucket = null;
+                    place(entry);
+                }
+            }
+            drainDue(expired);
+        }
+        return expired;
+    }
+
+    private void cascade(int level) {
+        Map<K, Entry<K, V>> bucket = levels.get(level).get(slotIndex(level, currentTick));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<K, V>> entries = new ArrayList<>(bucket.values());
+        bucket.clear();
+        for (Entry<K, V> entry : entries) {
+            entry.bucket = null;
+            place(entry);
+        }
+    }
+
+    private void place(Entry<K, V> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(entry);
+            return;
+        }
+        int level = 0;
+        while (level < levels.size() - 1 && delta >= slotSpans[level + 1]) {
+            level++;
+        }
+        Map<K, Entry<K, V>> bucket = levels.get(level).get(slotIndex(level, entry.deadlineTick));
+        bucket.put(entry.key, entry);
+        entry.bucket = bucket;
+    }
+
+    private void drainDue(List<V> expired) {
+        if (due.isEmpty()) {
+            return;
+        }
+        due.sort((a, b) -> Long.compare(a.deadlineTick, b.deadlineTick));
+        for (Entry<K, V> entry : due) {
+            index.remove(entry.key);
+            expired.add(entry.value);
+        }
+        due.clear();
+    }
+
+    private int slotIndex(int level, long tick) {
+        return (int) Math.floorMod(tick / slotSpans[level], (long) wheelSize);
+    }
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private final V value;
+        private final long deadlineTick;
+        private Map<K, Entry<K, V>> bucket;
+
+        private Entry(K key, V value, long deadlineTick) {
+            this.key = key;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
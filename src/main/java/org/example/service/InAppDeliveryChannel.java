@@ -0,0 +1,62 @@
+package org.example.service;
+
+import org.example.config.DeliveryProperties;
+import org.example.entity.Notification;
+import org.example.entity.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Delivers to the student's notification list; the recipient is the student id
+@Component
+public class InAppDeliveryChannel implements DeliveryChannel {
+
+    public static final String NAME = "in-app";
+
+    @Autowired
+    private DeliveryProperties properties;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return properties.getInAppBatchSize();
+    }
+
+    @Override
+    public Map<Long, String> deliver(List<NotificationOutbox> batch) {
+        Map<Long, String> failures = new HashMap<>();
+        List<Notification> notifications = new ArrayList<>(batch.size());
+        for (NotificationOutbox message : batch) {
+            try {
+                String title = message.getSubject() != null ? message.getSubject() : "Notification";
+                notifications.add(new Notification(
+                    Long.parseLong(message.getRecipient()),
+                    title.length() > 100 ? title.substring(0, 100) : title,
+                    message.getBody(),
+                    Notification.NotificationType.SYSTEM_NOTIFICATION
+                ));
+            } catch (NumberFormatException e) {
+                failures.put(message.getId(), "Recipient is not a student id: " + message.getRecipient());
+            }
+        }
+        // One insert batch: either every notification is stored or the whole batch is retried
+        notificationService.createNotifications(notifications);
+        return failures;
+    }
+}
@@ -0,0 +1,219 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.config.SchedulerProperties;
+import org.example.entity.SchedulerNode;
+import org.example.repository.JobLeaseRepository;
+import org.example.repository.SchedulerNodeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Database-backed leases so scheduled jobs run on exactly one node per run
+ * when several instances share the application database.
+ *
+ * A lease is a row in {@code job_leases}. It is created with a conditional
+ * INSERT and taken over with a conditional UPDATE, held for at most
+ * {@code lockAtMostFor} (so a crashed node cannot block the job forever)
+ * and, on release, kept for at least {@code lockAtLeastFor} so a peer whose
+ * trigger fires a little later does not run the same occurrence again.
+ * Leases rely on node clocks being reasonably in sync.
+ */
+@Service
+public class JobLeaseService {
+
+    // Inclusive student-id range handled by one partition of a partitioned job
+    public record IdRange(int partition, long fromId, long toId) {
+
+        public boolean contains(long id) {
+            return id >= fromId && id <= toId;
+        }
+
+        public static List<IdRange> split(long minId, long maxId, int partitions) {
+            List<IdRange> ranges = new ArrayList<>();
+            if (maxId < minId) {
+                return ranges;
+            }
+            long span = maxId - minId + 1;
+            int count = (int) Math.max(1, Math.min(partitions, span));
+            long size = span / count;
+            long remainder = span % count;
+            long from = minId;
+            for (int i = 0; i < count; i++) {
+                long to = from + size - 1 + (i < remainder ? 1 : 0);
+                ranges.add(new IdRange(i, from, to));
+                from = to + 1;
+            }
+            return ranges;
+        }
+    }
+
+    @Autowired
+    private SchedulerProperties properties;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Autowired
+    private SchedulerNodeRepository schedulerNodeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate leaseTransaction;
+    private String nodeId;
+
+    @PostConstruct
+    public void init() {
+        // Lease changes must commit on their own, never inside a caller's transaction
+        leaseTransaction = new TransactionTemplate(transactionManager);
+        leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        nodeId = properties.getNodeId();
+        if (nodeId == null || nodeId.isBlank()) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (Exception e) {
+                host = "node";
+            }
+            nodeId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Run {@code task} only if this node wins the lease for {@code jobName}.
+     *
+     * @return true if the task ran on this node
+     */
+    public boolean runExclusively(String jobName, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable task) {
+        if (!properties.isLeasesEnabled()) {
+            task.run();
+            return true;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!acquire(jobName, lockAtMostFor, false)) {
+            return false;
+        }
+        try {
+            task.run();
+        } finally {
+            release(jobName, startedAt.plus(lockAtLeastFor));
+        }
+        return true;
+    }
+
+    /**
+     * Split {@code [minId, maxId]} into the configured number of partitions
+     * and run every partition whose lease this node wins. Each live node
+     * starts at a different partition so the work spreads across the
+     * cluster, and partitions left over by a dead node are picked up by the
+     * others.
+     *
+     * @return number of partitions processed on this node
+     */
+    public int runPartitioned(String jobName, long minId, long maxId, Duration lockAtMostFor,
+                              Duration lockAtLeastFor, Consumer<IdRange> work) {
+        List<IdRange> ranges = IdRange.split(minId, maxId, properties.getPartitionCount());
+        if (ranges.isEmpty()) {
+            return 0;
+        }
+
+        int offset = 0;
+        List<String> liveNodes = getLiveNodeIds();
+        int position = liveNodes.indexOf(nodeId);
+        if (position > 0) {
+            offset = position * ranges.size() / liveNodes.size();
+        }
+
+        int processed = 0;
+        for (int i = 0; i < ranges.size(); i++) {
+            int partition = (offset + i) % ranges.size();
+            IdRange range = ranges.get(partition);
+            if (runExclusively(jobName + "#" + partition, lockAtMostFor, lockAtLeastFor, () -> work.accept(range))) {
+                processed++;
+            }
+        }
+        return processed;
+    }
+
+    /**
+     * Take or renew a long-lived lease used for leader election.
+     *
+     * @return true while this node is the leader for {@code name}
+     */
+    public boolean holdLeadership(String name, Duration ttl) {
+        return !properties.isLeasesEnabled() || acquire(name, ttl, true);
+    }
+
+    public List<String> getLiveNodeIds() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(properties.getNodeTtlSeconds());
+        return schedulerNodeRepository.findLiveNodeIds(since);
+    }
+
+    // Every node advertises itself so partitioned jobs know who is alive
+    @Scheduled(fixedRateString = "${app.scheduler.heartbeat-interval-ms:10000}")
+    public void heartbeat() {
+        if (!properties.isLeasesEnabled()) {
+            return;
+        }
+        try {
+            leaseTransaction.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                SchedulerNode node = schedulerNodeRepository.findById(nodeId)
+                        .orElse(new SchedulerNode(nodeId, now));
+                node.setLastHeartbeat(now);
+                schedulerNodeRepository.save(node);
+                schedulerNodeRepository.deleteStaleNodes(now.minusSeconds(properties.getNodeTtlSeconds() * 10L));
+            });
+        } catch (Exception e) {
+            System.err.println("Error recording scheduler heartbeat: " + e.getMessage());
+        }
+    }
+
+    private boolean acquire(String jobName, Duration holdFor, boolean renewable) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(holdFor);
+        try {
+            Boolean acquired = leaseTransaction.execute(status -> {
+                int updated = renewable
+                        ? jobLeaseRepository.takeExpiredOrRenew(jobName, nodeId, now, until)
+                        : jobLeaseRepository.takeExpired(jobName, nodeId, now, until);
+                return updated > 0 || jobLeaseRepository.insertIfAbsent(jobName, nodeId, now, until) > 0;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataAccessException e) {
+            // Another node inserted the lease row at the same moment
+            return false;
+        }
+    }
+
+    private void release(String jobName, LocalDateTime earliestExpiry) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = earliestExpiry.isAfter(now) ? earliestExpiry : now;
+        try {
+            leaseTransaction.executeWithoutResult(status -> jobLeaseRepository.release(jobName, nodeId, until));
+        } catch (Exception e) {
+            // The lease will still expire after lockAtMostFor
+            System.err.println("Error releasing job lease " + jobName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process port of the Python service's StudyAIEngine: the same
+ * recommendation rules, schedule slots and performance factors, answered in
+ * microseconds without a network hop.
+ *
+ * Where the Python engine draws random values (which recommendations to
+ * show, slot durations and scores, the predicted score) this engine is
+ * deterministic: it returns the personalized rules first, ranks slots by a
+ * fixed time-of-day curve and computes the prediction as a weighted sum of
+ * the factor scores. Results have the shapes AIService returns for the
+ * remote answers, so callers cannot tell which engine answered.
+ */
+@Component
+public class LocalAIEngine {
+
+    private static final int MAX_RECOMMENDATIONS = 4;
+
+    static final List<Map<String, Object>> BASE_RECOMMENDATIONS = List.of(
+        Map.of(
+            "title", "Optimize Study Sessions",
+            "description", "Based on your performance data, consider 45-minute focused sessions with 15-minute breaks",
+            "priority", "High",
+            "type", "session_optimization"
+        ),
+        Map.of(
+            "title", "Memory Consolidation",
+            "description", "Review material within 24 hours and again after 7 days for better retention",
+            "priority", "High",
+            "type", "memory_enhancement"
+        ),
+        Map.of(
+            "title", "Peak Performance Hours",
+            "description", "Your best study times appear to be between 9-11 AM and 2-4 PM",
+            "priority", "Medium",
+            "type", "timing_optimization"
+        ),
+        Map.of(
+            "title", "Subject Rotation Strategy",
+            "description", "Alternate between analytical and creative subjects to maximize retention",
+            "priority", "Medium",
+            "type", "subject_management"
+        ),
+        Map.of(
+            "title", "Group Study Benefits",
+            "description", "Join study groups for complex topics - collaborative learning shows 23% improvement",
+            "priority", "Low",
+            "type", "collaborative_learning"
+        )
+    );
+
+    // Study slots and how well each time of day works, best first as the Python engine sorts them
+    private static final String[] SLOT_TIMES = {"09:00", "10:30", "14:00", "15:30", "19:00"};
+    private static final double[] SLOT_EFFECTIVENESS = {0.95, 0.9, 0.85, 0.8, 0.75};
+    private static final int[] SLOT_DURATIONS = {90, 60, 60, 45, 45};
+    private static final String[] SUBJECTS = {"Mathematics", "Science", "Literature", "History", "Languages"};
+
+    // Performance factors: request keys, display names, weights and the scores assumed when a key is missing
+    private static final String[] FACTOR_KEYS = {
+        "study_consistency", "session_duration", "break_management", "subject_variety", "group_participation"};
+    private static final String[] FACTOR_NAMES = {
+        "Study Consistency", "Session Duration", "Break Management", "Subject Variety", "Group Participation"};
+    private static final double[] FACTOR_WEIGHTS = {0.3, 0.25, 0.2, 0.15, 0.1};
+    private static final double[] FACTOR_DEFAULTS = {0.8, 0.7, 0.85, 0.6, 0.4};
+
+    public List<Map<String, Object>> generateRecommendations(Map<String, Object> userData) {
+        List<Map<String, Object>> recommendations = new ArrayList<>();
+        // Like the Python engine, an empty request gets no personalized rules
+        if (userData != null && !userData.isEmpty()) {
+            if (number(userData.get("completion_rate"), 0) < 0.7) {
+                recommendations.add(Map.of(
+                    "title", "Improve Task Completion",
+                    "description", "Break down large tasks into smaller, manageable chunks to improve completion rates",
+                    "priority", "High",
+                    "type", "task_management"
+                ));
+            }
+            if (number(userData.get("average_session_time"), 0) > 120) {
+                recommendations.add(Map.of(
+                    "title", "Shorter Study Sessions",
+                    "description", "Consider shorter, more frequent sessions to maintain focus and prevent burnout",
+                    "priority", "Medium",
+                    "type", "session_duration"
+                ));
+            }
+        }
+        for (Map<String, Object> recommendation : BASE_RECOMMENDATIONS) {
+            if (recommendations.size() >= MAX_RECOMMENDATIONS) {
+                break;
+            }
+            recommendations.add(recommendation);
+        }
+        return recommendations;
+    }
+
+    // The slots as the Python service's optimized_schedule list, best first
+    public List<Map<String, Object>> predictOptimalSchedule(Map<String, Object> preferences) {
+        List<Map<String, Object>> schedule = new ArrayList<>(SLOT_TIMES.length);
+        for (int i = 0; i < SLOT_TIMES.length; i++) {
+            schedule.add(Map.of(
+                "time", SLOT_TIMES[i],
+                "duration", SLOT_DURATIONS[i],
+                "effectiveness_score", SLOT_EFFECTIVENESS[i],
+                "recommended_subjects", List.of(SUBJECTS[i], SUBJECTS[(i + 2) % SUBJECTS.length])
+            ));
+        }
+        return schedule;
+    }
+
+    // The service's top-level optimization_score: the mean slot effectiveness
+    public double optimizationScore() {
+        double total = 0;
+        for (double effectiveness : SLOT_EFFECTIVENESS) {
+            total += effectiveness;
+        }
+        return round(total / SLOT_EFFECTIVENESS.length, 2);
+    }
+
+    // What AIService makes of the service's optimize answer
+    public Map<String, Object> optimizeSchedule(Map<String, Object> preferences) {
+        Map<String, Object> optimized = new LinkedHashMap<>();
+        optimized.put("schedule", predictOptimalSchedule(preferences));
+        optimized.put("optimization_score", optimizationScore());
+        return optimized;
+    }
+
+    public Map<String, Object> predictPerformance(Map<String, Object> currentData) {
+        double[] scores = new double[FACTOR_KEYS.length];
+        int supplied = 0;
+        for (int i = 0; i < FACTOR_KEYS.length; i++) {
+            Object value = currentData != null ? currentData.get(FACTOR_KEYS[i]) : null;
+            if (value instanceof Number) {
+                scores[i] = Math.max(0, Math.min(1, ((Number) value).doubleValue()));
+                supplied++;
+            } else {
+                scores[i] = FACTOR_DEFAULTS[i];
+            }
+        }
+
+        // Weights sum to 1, so the weighted score is in [0, 1]; mapped onto 50-100
+        double weighted = 0;
+        for (int i = 0; i < scores.length; i++) {
+            weighted += FACTOR_WEIGHTS[i] * scores[i];
+        }
+        double predictedScore = 50 + 50 * weighted;
+        // More of the factors measured rather than assumed, more confidence
+        double confidence = 0.7 + 0.2 * supplied / FACTOR_KEYS.length;
+
+        List<Map<String, Object>> factors = new ArrayList<>(FACTOR_KEYS.length);
+        for (int i = 0; i < FACTOR_KEYS.length; i++) {
+            factors.add(Map.of(
+                "factor", FACTOR_NAMES[i],
+                "impact", FACTOR_WEIGHTS[i],
+                "current_score", scores[i]
+            ));
+        }
+
+        Map<String, Object> prediction = new LinkedHashMap<>();
+        prediction.put("predicted_score", round(predictedScore, 2));
+        prediction.put("confidence", round(confidence, 2));
+        prediction.put("factors", factors);
+        prediction.put("recommendations", generateRecommendations(currentData));
+        return prediction;
+    }
+
+    private static double number(Object value, double defaultValue) {
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    private static double round(double value, int places) {
+        double scale = Math.pow(10, places);
+        return Math.round(value * scale) / scale;
+    }
+}
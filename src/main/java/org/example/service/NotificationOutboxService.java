@@ -0,0 +1,308 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.config.DeliveryProperties;
+import org.example.entity.NotificationOutbox;
+import org.example.repository.NotificationOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transactional outbox for notifications delivered outside the database.
+ *
+ * Callers add messages with {@link #enqueue} inside their own transaction, so
+ * a message exists exactly when the change it describes committed, and the
+ * request thread only pays for one insert. A single poller claims due
+ * messages per channel with a conditional UPDATE (safe with several nodes)
+ * and hands each batch to a bounded worker pool; it never claims more
+ * batches than there are free workers. Failed messages are retried with
+ * exponential backoff and jitter and, after {@code maxAttempts}, marked DEAD
+ * and left in the table for inspection.
+ */
+@Service
+public class NotificationOutboxService {
+
+    @Autowired
+    private DeliveryProperties properties;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private List<DeliveryChannel> channels;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, DeliveryChannel> channelsByName = new HashMap<>();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private TransactionTemplate outboxTransaction;
+    private ScheduledExecutorService poller;
+    private ExecutorService workers;
+    private Semaphore freeWorkers;
+
+    @PostConstruct
+    public void init() {
+        for (DeliveryChannel channel : channels) {
+            channelsByName.put(channel.getName(), channel);
+        }
+        outboxTransaction = new TransactionTemplate(transactionManager);
+        outboxTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(properties.getWorkerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "delivery-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        freeWorkers = new Semaphore(properties.getWorkerThreads());
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delivery-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, properties.getPollIntervalMs(),
+            properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    public boolean isChannelEnabled(String channel) {
+        DeliveryChannel target = channelsByName.get(channel);
+        return target != null && target.isEnabled();
+    }
+
+    /**
+     * Queue a message in the caller's transaction. Messages for unknown or
+     * disabled channels are dropped.
+     *
+     * @return the queued message, or null if it was dropped
+     */
+    @Transactional
+    public NotificationOutbox enqueue(String channel, String recipient, String subject, String body) {
+        if (!properties.isEnabled() || !isChannelEnabled(channel)) {
+            return null;
+        }
+        NotificationOutbox saved = outboxRepository.save(new NotificationOutbox(channel, recipient, subject, body));
+        afterCommit(this::wakeUp);
+        return saved;
+    }
+
+    // Poll now instead of at the next interval; never blocks the caller
+    public void wakeUp() {
+        if (poller != null && wakeUpPending.compareAndSet(false, true)) {
+            poller.execute(() -> {
+                wakeUpPending.set(false);
+                poll();
+            });
+        }
+    }
+
+    public Map<String, Long> getPendingCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (String channel : channelsByName.keySet()) {
+            counts.put(channel, outboxRepository.countByChannelAndStatus(channel, NotificationOutbox.Status.PENDING));
+        }
+        return counts;
+    }
+
+    // Drop delivered messages after a while; dead ones stay until someone looks at them
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeSentMessages() {
+        scheduledJobRunner.run("purgeSentOutboxMessages", run ->
+            jobLeaseService.runExclusively("purgeSentOutboxMessages", Duration.ofHours(1), Duration.ofMinutes(10), () -> {
+                LocalDateTime before = LocalDateTime.now().minusDays(properties.getSentRetentionDays());
+                Integer deleted = outboxTransaction.execute(status ->
+                    outboxRepository.deleteSentBefore(NotificationOutbox.Status.SENT, before));
+                run.addItems(deleted != null ? deleted : 0);
+            })
+        );
+    }
+
+    // Claim one batch per channel in turn until workers or due messages run out
+    private void poll() {
+        try {
+            boolean claimedAny = true;
+            while (claimedAny) {
+                claimedAny = false;
+                for (DeliveryChannel channel : channels) {
+                    if (!channel.isEnabled()) {
+                        continue;
+                    }
+                    if (!freeWorkers.tryAcquire()) {
+                        return;
+                    }
+                    List<NotificationOutbox> batch = claimBatch(channel);
+                    if (batch.isEmpty()) {
+                        freeWorkers.release();
+                        continue;
+                    }
+                    claimedAny = true;
+                    workers.execute(() -> {
+                        try {
+                            deliver(channel, batch);
+                        } finally {
+                            freeWorkers.release();
+                        }
+                    });
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error polling notification outbox: " + e.getMessage());
+        }
+    }
+
+    private List<NotificationOutbox> claimBatch(DeliveryChannel channel) {
+        return outboxTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepository.findDueIds(channel.getName(), NotificationOutbox.Status.PENDING, now,
+                PageRequest.of(0, channel.getBatchSize()));
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            String token = UUID.randomUUID().toString();
+            outboxRepository.claim(ids, NotificationOutbox.Status.PENDING, token, now,
+                now.plusSeconds(properties.getClaimTimeoutSeconds()));
+            return outboxRepository.findByClaimTokenOrderById(token);
+        });
+    }
+
+    private void deliver(DeliveryChannel channel, List<NotificationOutbox> batch) {
+        Map<Long, String> failures;
+        long start = System.nanoTime();
+        try {
+            failures = channel.deliver(batch);
+        } catch (Exception e) {
+            failures = new HashMap<>();
+            for (NotificationOutbox message : batch) {
+                failures.put(message.getId(), String.valueOf(e));
+            }
+        }
+        Timer.builder("notifications.delivery.batch")
+                .tag("channel", channel.getName())
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Map<Long, String> failed = failures;
+        try {
+            outboxTransaction.executeWithoutResult(status -> recordResults(channel, batch, failed));
+        } catch (Exception e) {
+            // Claims expire, so the batch is retried; delivered messages may go out twice
+            System.err.println("Error recording " + channel.getName() + " delivery results: " + e.getMessage());
+        }
+    }
+
+    // Only rows still holding this batch's claim are updated, so a worker whose claim
+    // expired mid-delivery cannot overwrite the outcome of the worker that took over
+    private void recordResults(DeliveryChannel channel, List<NotificationOutbox> batch, Map<Long, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        String token = batch.get(0).getClaimToken();
+        List<Long> delivered = new ArrayList<>();
+        int retried = 0;
+        int dead = 0;
+        for (NotificationOutbox message : batch) {
+            if (!failures.containsKey(message.getId())) {
+                delivered.add(message.getId());
+                continue;
+            }
+            String error = String.valueOf(failures.get(message.getId()));
+            int attempts = message.getAttempts() + 1;
+            boolean giveUp = attempts >= properties.getMaxAttempts();
+            int updated = outboxRepository.markFailed(message.getId(), token,
+                giveUp ? NotificationOutbox.Status.DEAD : NotificationOutbox.Status.PENDING, attempts,
+                error.length() > 500 ? error.substring(0, 500) : error,
+                giveUp ? message.getNextAttemptAt() : now.plus(Duration.ofMillis(backoff(attempts))));
+            if (updated > 0 && giveUp) {
+                dead++;
+            } else if (updated > 0) {
+                retried++;
+            }
+        }
+        int sent = delivered.isEmpty() ? 0
+            : outboxRepository.markSent(delivered, token, NotificationOutbox.Status.SENT, now);
+
+        count("notifications.delivery.sent", channel, sent);
+        count("notifications.delivery.retried", channel, retried);
+        count("notifications.delivery.dead", channel, dead);
+        count("notifications.delivery.claim.expired", channel, batch.size() - sent - retried - dead);
+    }
+
+    // initial * 2^(attempts - 1), capped, plus up to 20% jitter so retries from one outage spread out
+    private long backoff(int attempts) {
+        long delay = properties.getInitialBackoffMs() << Math.min(attempts - 1, 30);
+        delay = Math.min(delay, properties.getMaxBackoffMs());
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private void count(String name, DeliveryChannel channel, int amount) {
+        if (amount > 0) {
+            Counter.builder(name).tag("channel", channel.getName()).register(meterRegistry).increment(amount);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.service;
+
+import org.example.entity.Notification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.MessageSource;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders templated notifications for the reader's locale.
+ *
+ * Template texts come from messages*.properties and are parsed once per
+ * locale into literal and argument segments, so rendering is a single pass
+ * over a StringBuilder. Date formatters are cached per locale as well.
+ * Notifications stored with a rendered message (no template id) are left
+ * untouched.
+ */
+@Component
+public class NotificationRenderer {
+
+    private static final Locale BENGALI = Locale.forLanguageTag("bn");
+
+    // Message keys of each template, built once instead of on every render
+    private static final EnumMap<NotificationTemplate, TemplateKeys> KEYS = new EnumMap<>(NotificationTemplate.class);
+
+    static {
+        for (NotificationTemplate template : NotificationTemplate.values()) {
+            String prefix = "notification." + template.getId();
+            KEYS.put(template, new TemplateKeys(prefix + ".title", prefix + ".message", prefix + ".item"));
+        }
+    }
+
+    @Autowired
+    private MessageSource messageSource;
+
+    private final ConcurrentHashMap<Locale, ConcurrentHashMap<String, CompiledTemplate>> templates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Locale, DateTimeFormatter> dateFormatters = new ConcurrentHashMap<>();
+
+    // Render in the current request's locale
+    public List<Notification> render(List<Notification> notifications) {
+        Locale locale = LocaleContextHolder.getLocale();
+        for (Notification notification : notifications) {
+            render(notification, locale);
+        }
+        return notifications;
+    }
+
+    /**
+     * Fill in title and message from the template. The columns are not
+     * updatable, so rendering a managed entity never writes the text back.
+     */
+    public Notification render(Notification notification, Locale locale) {
+        if (notification.getTemplateId() == null) {
+            return notification;
+        }
+        Locale supported = supportedLocale(locale);
+        try {
+            NotificationTemplate template = NotificationTemplate.fromId(notification.getTemplateId());
+            String[] args = formatArgs(template, template.decode(notification.getParams()), supported);
+            TemplateKeys keys = KEYS.get(template);
+            notification.setTitle(compiled(keys.title(), supported).render(args));
+            notification.setMessage(compiled(keys.message(), supported).render(args));
+        } catch (IllegalArgumentException | NoSuchMessageException e) {
+            notification.setTitle(notification.getTemplateId());
+            notification.setMessage(notification.getParams());
+        }
+        return notification;
+    }
+
+    // Rendered copy, for callers that share one entity between readers in different locales
+    public Notification renderCopy(Notification notification, Locale locale) {
+        if (notification.getTemplateId() == null) {
+            return notification;
+        }
+        Notification copy = new Notification();
+        copy.setId(notification.getId());
+        copy.setStudentId(notification.getStudentId());
+        copy.setType(notification.getType());
+        copy.setIsRead(notification.getIsRead());
+        copy.setCreatedAt(notification.getCreatedAt());
+        copy.setReadAt(notification.getReadAt());
+        copy.setRelatedEntityId(notification.getRelatedEntityId());
+        copy.setTemplateId(notification.getTemplateId());
+        copy.setParams(notification.getParams());
+        return render(copy, locale);
+    }
+
+    private String[] formatArgs(NotificationTemplate template, String[] raw, Locale locale) {
+        NotificationTemplate.ArgKind[] kinds = template.getArgKinds();
+        String[] args = new String[raw.length];
+        for (int i = 0; i < raw.length; i++) {
+            args[i] = switch (kinds[i]) {
+                case TEXT -> raw[i];
+                case DATETIME -> dateFormatter(locale).format(NotificationTemplate.decodeDateTime(raw[i]));
+                case LEAD -> describeLead(Integer.parseInt(raw[i]), locale);
+                case TIP -> compiled("notification.tip." + raw[i], locale).render(new String[0]);
+                case NUMBER -> raw[i];
+                case ITEMS -> renderItems(template, raw[i], locale);
+            };
+        }
+        return args;
+    }
+
+    private String renderItems(NotificationTemplate template, String raw, Locale locale) {
+        CompiledTemplate line = compiled(KEYS.get(template).item(), locale);
+        StringBuilder out = new StringBuilder();
+        for (NotificationTemplate.Item item : NotificationTemplate.decodeItems(raw)) {
+            if (out.length() > 0) {
+                out.append('\n');
+            }
+            out.append(line.render(new String[] {item.label(), dateFormatter(locale).format(item.time())}));
+        }
+        return out.toString();
+    }
+
+    private String describeLead(int leadMinutes, Locale locale) {
+        if (leadMinutes % 60 != 0) {
+            return compiled("notification.lead.minutes", locale).render(new String[] {Integer.toString(leadMinutes)});
+        }
+        int hours = leadMinutes / 60;
+        String key = hours == 1 ? "notification.lead.hour" : "notification.lead.hours";
+        return compiled(key, locale).render(new String[] {Integer.toString(hours)});
+    }
+
+    private DateTimeFormatter dateFormatter(Locale locale) {
+        return dateFormatters.computeIfAbsent(locale, l ->
+            DateTimeFormatter.ofPattern(messageSource.getMessage("notification.datetime.pattern", null, l), l));
+    }
+
+    private CompiledTemplate compiled(String key, Locale locale) {
+        ConcurrentHashMap<String, CompiledTemplate> forLocale = templates.get(locale);
+        if (forLocale == null) {
+            forLocale = templates.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+        }
+        CompiledTemplate compiled = forLocale.get(key);
+        return compiled != null ? compiled
+            : forLocale.computeIfAbsent(key, k -> CompiledTemplate.parse(messageSource.getMessage(k, null, locale)));
+    }
+
+    // Only English and Bengali texts exist; anything else reads in English
+    private Locale supportedLocale(Locale locale) {
+        return locale != null && BENGALI.getLanguage().equals(locale.getLanguage()) ? BENGALI : Locale.ENGLISH;
+    }
+
+    private record TemplateKeys(String title, String message, String item) {}
+
+    // Text split at {n} placeholders: literals[i] precedes argument argIndexes[i]
+    private record CompiledTemplate(String[] literals, int[] argIndexes) {
+
+        static CompiledTemplate parse(String pattern) {
+            List<String> literals = new ArrayList<>();
+            List<Integer> argIndexes = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                int close = c == '{' ? pattern.indexOf('}', i) : -1;
+                if (close > i + 1 && pattern.substring(i + 1, close).chars().allMatch(Character::isDigit)) {
+                    literals.add(literal.toString());
+                    argIndexes.add(Integer.parseInt(pattern.substring(i + 1, close)));
+                    literal.setLength(0);
+                    i = close + 1;
+                } else {
+                    literal.append(c);
+                    i++;
+                }
+            }
+            literals.add(literal.toString());
+            return new CompiledTemplate(literals.toArray(new String[0]),
+                argIndexes.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        String render(String[] args) {
+            StringBuilder out = new StringBuilder(64);
+            for (int i = 0; i < argIndexes.length; i++) {
+                out.append(literals[i]);
+                int index = argIndexes[i];
+                out.append(index < args.length ? args[index] : "");
+            }
+            return out.append(literals[literals.length - 1]).toString();
+        }
+    }
+}
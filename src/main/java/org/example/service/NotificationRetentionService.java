@@ -0,0 +1,213 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.example.config.NotificationRetentionProperties;
+import org.example.entity.Notification;
+import org.example.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Deletes notifications that have outlived their retention period.
+ *
+ * Each notification type can have a maximum age for all rows and a shorter or
+ * separate one for rows that have been read. The nightly purge walks matching
+ * rows in creation order, deleting one small chunk per transaction and pausing
+ * between chunks so row locks are short and regular traffic keeps flowing.
+ * When archiving is on, each chunk is appended as JSON lines to a gzip file
+ * per day before it is deleted; every append is its own gzip member, which
+ * standard tools read as one stream. A chunk whose delete fails may appear in
+ * the archive twice.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private record RetentionRule(Notification.NotificationType type, int days, boolean readOnly) {}
+
+    // Before any notification's createdAt, so the first chunk starts at the oldest row
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private NotificationRetentionProperties properties;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate chunkTransaction;
+
+    @PostConstruct
+    public void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void purgeExpiredNotifications() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduledJobRunner.run("purgeExpiredNotifications", run ->
+            jobLeaseService.runExclusively("purgeExpiredNotifications", Duration.ofHours(3), Duration.ofMinutes(10),
+                () -> run.addItems(purge(run))));
+    }
+
+    /**
+     * Run every retention rule once, up to {@code maxChunksPerRun} chunks in
+     * total; anything left over is picked up by the next run. A chunk that
+     * fails to delete ends the run and is counted against {@code run}.
+     *
+     * @return number of notifications deleted
+     */
+    public long purge(ScheduledJobRunner.JobRun run) {
+        LocalDateTime now = LocalDateTime.now();
+        int chunkBudget = properties.getMaxChunksPerRun();
+        long deleted = 0;
+
+        for (RetentionRule rule : rules()) {
+            LocalDateTime cutoff = now.minusDays(rule.days());
+            LocalDateTime afterCreatedAt = KEYSET_START;
+            long afterId = 0;
+            while (chunkBudget > 0) {
+                List<Notification> chunk = notificationRepository.findPurgeChunk(rule.type(), cutoff, rule.readOnly(),
+                    afterCreatedAt, afterId, PageRequest.of(0, properties.getChunkSize()));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                // Only chunks that delete something count, so rules with nothing to purge cost no budget
+                chunkBudget--;
+                afterCreatedAt = chunk.get(chunk.size() - 1).getCreatedAt();
+                afterId = chunk.get(chunk.size() - 1).getId();
+                try {
+                    int removed = deleteChunk(chunk);
+                    deleted += removed;
+                    Counter.builder("notifications.retention.purged")
+                            .tag("type", rule.type().name())
+                            .register(meterRegistry)
+                            .increment(removed);
+                } catch (Exception e) {
+                    run.itemFailed(e);
+                    return deleted;
+                }
+                if (chunk.size() < properties.getChunkSize()) {
+                    break;
+                }
+                if (!pause()) {
+                    return deleted;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    // Types with a read-only limit shorter than their overall limit get both rules
+    private List<RetentionRule> rules() {
+        List<RetentionRule> rules = new ArrayList<>();
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            Integer maxAge = properties.getMaxAgeDays().get(type);
+            Integer readMaxAge = properties.getReadMaxAgeDays().get(type);
+            if (maxAge != null && maxAge > 0) {
+                rules.add(new RetentionRule(type, maxAge, false));
+            }
+            if (readMaxAge != null && readMaxAge > 0 && (maxAge == null || readMaxAge < maxAge)) {
+                rules.add(new RetentionRule(type, readMaxAge, true));
+            }
+        }
+        return rules;
+    }
+
+    private int deleteChunk(List<Notification> chunk) {
+        List<Long> ids = new ArrayList<>(chunk.size());
+        Map<Long, Long> unreadByStudent = new HashMap<>();
+        for (Notification notification : chunk) {
+            ids.add(notification.getId());
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unreadByStudent.merge(notification.getStudentId(), 1L, Long::sum);
+            }
+        }
+
+        Integer removed = chunkTransaction.execute(status -> {
+            if (properties.isArchiveEnabled()) {
+                archive(chunk);
+            }
+            return notificationRepository.deleteByIdIn(ids);
+        });
+
+        unreadByStudent.forEach((studentId, count) -> {
+            unreadCountCache.add(studentId, -count);
+            notificationStreamService.publishUnreadCountChanged(studentId);
+        });
+        return removed != null ? removed : 0;
+    }
+
+    private void archive(List<Notification> chunk) {
+        Path file = Paths.get(properties.getArchiveDirectory(), "notifications-" + LocalDate.now() + ".jsonl.gz");
+        try {
+            Files.createDirectories(file.getParent());
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                for (Notification notification : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(notification));
+                    out.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            // Abort the chunk rather than delete rows that were not archived
+            throw new UncheckedIOException("Could not archive notifications to " + file, e);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenChunksMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
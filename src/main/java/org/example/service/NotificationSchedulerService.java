@@ -1,22 +1,44 @@
 package org.example.service;
 
+import org.example.config.ReminderProperties;
 import org.example.entity.Notification;
 import org.example.entity.StudySchedule;
 import org.example.entity.GroupSession;
 import org.example.repository.StudyScheduleRepository;
 import org.example.repository.GroupSessionRepository;
+import org.example.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 @Service
 public class NotificationSchedulerService {
 
+    private static final String DAILY_TIPS_JOB = "sendDailyStudyTips";
+    private static final String WEEKLY_SUMMARY_JOB = "sendWeeklyProgressSummary";
+    private static final int STUDY_TIP_COUNT = 15;
+    private static final int MAX_DIGEST_ITEMS = 20;
+    // Leads from which a digest takes along the rest of the event's day
+    private static final int LONG_LEAD_MINUTES = 24 * 60;
+
     @Autowired
     private NotificationService notificationService;
 
@@ -26,225 +48,332 @@ public class NotificationSchedulerService {
     @Autowired
     private GroupSessionRepository groupSessionRepository;
 
-    // Check for upcoming study sessions every 15 minutes
-    @Scheduled(fixedRate = 900000) // 15 minutes = 900,000 milliseconds
-    public void checkUpcomingSchedules() {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime oneHourFromNow = now.plusHours(1);
-            LocalDateTime tomorrow = now.plusDays(1);
-
-            // Find schedules starting within the next hour (1-hour reminders)
-            List<StudySchedule> upcomingSchedules = studyScheduleRepository.findUpcomingSchedulesBetween(now, oneHourFromNow);
-            for (StudySchedule schedule : upcomingSchedules) {
-                createScheduleReminder(schedule, "1 hour");
-            }
+    @Autowired
+    private StudentRepository studentRepository;
 
-            // Find schedules starting tomorrow (24-hour reminders)
-            LocalDateTime tomorrowStart = tomorrow.withHour(0).withMinute(0);
-            LocalDateTime tomorrowEnd = tomorrow.withHour(23).withMinute(59);
-            List<StudySchedule> tomorrowSchedules = studyScheduleRepository.findUpcomingSchedulesBetween(tomorrowStart, tomorrowEnd);
-            for (StudySchedule schedule : tomorrowSchedules) {
-                createScheduleReminder(schedule, "24 hours");
-            }
+    @Autowired
+    private JobLeaseService jobLeaseService;
 
-        } catch (Exception e) {
-            System.err.println("Error checking upcoming schedules: " + e.getMessage());
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private StudentBroadcastService studentBroadcastService;
+
+    @Autowired
+    private WeeklySummaryService weeklySummaryService;
+
+    @Autowired
+    private ReminderProperties reminderProperties;
+
+    // Upcoming schedule and session reminders are driven by ReminderWheelService,
+    // which hands over all reminders that come due in the same tick
+
+    /**
+     * Send one batch of due reminders in a single grouped pass. Schedules and
+     * sessions are loaded together, items that no longer need a reminder are
+     * dropped, and a student left with several items gets one digest listing
+     * them instead of a notification each, unless digests are off or the
+     * student opted out of them.
+     *
+     * With digests on, a due reminder also takes along the student's other
+     * reminders with the same lead that would follow shortly: those due
+     * within the digest window, or for leads of a day or more those for
+     * events on the same day, but never more than
+     * {@code digestMaxAdvanceFraction} of their lead early. They are only
+     * sent if {@code claimEarly} takes them off the wheel first.
+     */
+    @Transactional
+    public void fireReminders(List<ReminderWheelService.Reminder> reminders,
+                              Predicate<ReminderWheelService.Reminder> claimEarly) {
+        Map<Long, Integer> scheduleLeads = new HashMap<>();
+        Map<Long, Integer> sessionLeads = new HashMap<>();
+        for (ReminderWheelService.Reminder reminder : reminders) {
+            Map<Long, Integer> leads = reminder.kind() == ReminderWheelService.ReminderKind.SCHEDULE
+                ? scheduleLeads : sessionLeads;
+            leads.merge(reminder.entityId(), reminder.leadMinutes(), Math::min);
         }
-    }
 
-    // Check for upcoming group sessions every 10 minutes
-    @Scheduled(fixedRate = 600000) // 10 minutes = 600,000 milliseconds
-    public void checkUpcomingSessions() {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime thirtyMinutesFromNow = now.plusMinutes(30);
+        LocalDateTime now = LocalDateTime.now();
+        List<StudySchedule> schedules = new ArrayList<>(
+            loadInChunks(scheduleLeads.keySet(), studyScheduleRepository::findAllById));
+        schedules.removeIf(schedule -> Boolean.TRUE.equals(schedule.getCompleted())
+            || !schedule.getScheduledTime().isAfter(now));
+        List<GroupSession> sessions = new ArrayList<>(
+            loadInChunks(sessionLeads.keySet(), groupSessionRepository::findAllById));
+        sessions.removeIf(session -> session.getStatus() != GroupSession.SessionStatus.SCHEDULED
+            || !session.getScheduledTime().isAfter(now));
+        if (reminderProperties.isDigestEnabled()) {
+            takeAlongUpcoming(schedules, scheduleLeads, sessions, sessionLeads, now, claimEarly);
+        }
 
-            // Find sessions starting within the next 30 minutes
-            List<GroupSession> upcomingSessions = groupSessionRepository.findSessionsBetween(now, thirtyMinutesFromNow);
-            for (GroupSession session : upcomingSessions) {
-                createSessionReminder(session);
-            }
+        Map<Long, List<Notification>> remindersByStudent = new LinkedHashMap<>();
+        Map<Long, List<NotificationTemplate.Item>> itemsByStudent = new HashMap<>();
 
-        } catch (Exception e) {
-            System.err.println("Error checking upcoming sessions: " + e.getMessage());
+        for (StudySchedule schedule : schedules) {
+            Long studentId = studentOf(schedule);
+            remindersByStudent.computeIfAbsent(studentId, id -> new ArrayList<>())
+                .add(scheduleReminder(studentId, schedule, scheduleLeads.get(schedule.getId())));
+            itemsByStudent.computeIfAbsent(studentId, id -> new ArrayList<>())
+                .add(new NotificationTemplate.Item(schedule.getTopic() + " (" + schedule.getSubject() + ")",
+                                                   schedule.getScheduledTime()));
         }
-    }
 
-    // Send daily study tips every day at 9 AM
-    @Scheduled(cron = "0 0 9 * * *")
-    public void sendDailyStudyTips() {
-        try {
-            // Get all active students (you would need to implement this)
-            List<Long> activeStudentIds = getActiveStudentIds();
+        for (GroupSession session : sessions) {
+            // Send to all participants in the session
+            for (Long participantId : getSessionParticipants(session)) {
+                remindersByStudent.computeIfAbsent(participantId, id -> new ArrayList<>())
+                    .add(sessionReminder(participantId, session, sessionLeads.get(session.getId())));
+                itemsByStudent.computeIfAbsent(participantId, id -> new ArrayList<>())
+                    .add(new NotificationTemplate.Item(session.getTitle(), session.getScheduledTime()));
+            }
+        }
 
-            String tip = getRandomStudyTip();
+        Set<Long> individual = reminderProperties.isDigestEnabled()
+            ? new HashSet<>(loadInChunks(remindersByStudent.keySet(), studentRepository::findReminderDigestOptOuts))
+            : remindersByStudent.keySet();
 
-            for (Long studentId : activeStudentIds) {
-                notificationService.createStudyTip(studentId, tip);
+        List<Notification> notifications = new ArrayList<>();
+        remindersByStudent.forEach((studentId, studentReminders) -> {
+            if (studentReminders.size() == 1 || individual.contains(studentId)) {
+                notifications.addAll(studentReminders);
+                return;
             }
+            List<NotificationTemplate.Item> items = itemsByStudent.get(studentId);
+            items.sort(Comparator.comparing(NotificationTemplate.Item::time));
+            notifications.add(new Notification(
+                studentId,
+                Notification.NotificationType.SCHEDULE_REMINDER,
+                NotificationTemplate.REMINDER_DIGEST.getId(),
+                NotificationTemplate.REMINDER_DIGEST.encode(items.size(),
+                    items.subList(0, Math.min(items.size(), MAX_DIGEST_ITEMS))),
+                null
+            ));
+        });
+        notificationService.createNotifications(notifications);
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error sending daily study tips: " + e.getMessage());
-        }
+    // Send daily study tips every day at 9 AM, split by student-id range across live nodes
+    @Scheduled(cron = "0 0 9 * * *")
+    public void sendDailyStudyTips() {
+        scheduledJobRunner.run(DAILY_TIPS_JOB, run -> {
+            String tipParams = NotificationTemplate.STUDY_TIP.encode(getStudyTipOfTheDay());
+            String runKey = LocalDate.now().toString();
+            runForStudentPartitions(DAILY_TIPS_JOB, range ->
+                studentBroadcastService.broadcast(DAILY_TIPS_JOB, runKey, range, run, studentIds -> {
+                    List<Notification> tips = new ArrayList<>(studentIds.size());
+                    for (Long studentId : studentIds) {
+                        tips.add(new Notification(studentId, Notification.NotificationType.STUDY_TIP,
+                            NotificationTemplate.STUDY_TIP.getId(), tipParams, null));
+                    }
+                    notificationService.createNotifications(tips);
+                    run.addItems(tips.size());
+                })
+            );
+        });
     }
 
     // Check for overdue tasks every hour
     @Scheduled(fixedRate = 3600000) // 1 hour = 3,600,000 milliseconds
     public void checkOverdueTasks() {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-
-            // Find overdue schedules
-            List<StudySchedule> overdueSchedules = studyScheduleRepository.findOverdueSchedules(now);
-            for (StudySchedule schedule : overdueSchedules) {
-                createOverdueWarning(schedule);
-            }
-
-        } catch (Exception e) {
-            System.err.println("Error checking overdue tasks: " + e.getMessage());
-        }
+        scheduledJobRunner.run("checkOverdueTasks", run ->
+            jobLeaseService.runExclusively("checkOverdueTasks", Duration.ofMinutes(50), Duration.ofMinutes(5), () -> {
+                LocalDateTime now = LocalDateTime.now();
+
+                // Find overdue schedules
+                List<StudySchedule> overdueSchedules = studyScheduleRepository.findOverdueSchedules(now);
+                for (StudySchedule schedule : overdueSchedules) {
+                    try {
+                        createOverdueWarning(schedule);
+                        run.addItems(1);
+                    } catch (Exception e) {
+                        run.itemFailed(e);
+                    }
+                }
+            })
+        );
     }
 
-    // Send weekly progress summary every Sunday at 6 PM
+    // Send weekly progress summary every Sunday at 6 PM, split by student-id range across live nodes
     @Scheduled(cron = "0 0 18 * * SUN")
     public void sendWeeklyProgressSummary() {
-        try {
-            List<Long> activeStudentIds = getActiveStudentIds();
-
-            for (Long studentId : activeStudentIds) {
-                String summary = generateWeeklyProgressSummary(studentId);
-                notificationService.createNotification(
-                    studentId,
-                    "Weekly Progress Summary",
-                    summary,
-                    Notification.NotificationType.SYSTEM_NOTIFICATION
-                );
+        scheduledJobRunner.run(WEEKLY_SUMMARY_JOB, run -> {
+            String runKey = currentWeekKey();
+            LocalDate today = LocalDate.now();
+            weeklySummaryService.getBatchDuration().record(() ->
+                runForStudentPartitions(WEEKLY_SUMMARY_JOB, range ->
+                    studentBroadcastService.broadcast(WEEKLY_SUMMARY_JOB, runKey, range, run, studentIds -> {
+                        Map<Long, String> summaries = weeklySummaryService.summarize(studentIds, today);
+                        List<Notification> notifications = new ArrayList<>(summaries.size());
+                        summaries.forEach((studentId, summary) -> notifications.add(new Notification(
+                            studentId,
+                            "Weekly Progress Summary",
+                            summary,
+                            Notification.NotificationType.SYSTEM_NOTIFICATION
+                        )));
+                        notificationService.createNotifications(notifications);
+                        run.addItems(notifications.size());
+                    })
+                )
+            );
+        });
+    }
+
+    // Pick up broadcasts left unfinished by a node that stopped mid-run
+    @Scheduled(fixedDelay = 300000, initialDelay = 60000) // Every 5 minutes
+    public void resumeInterruptedBroadcasts() {
+        scheduledJobRunner.run("resumeInterruptedBroadcasts", run -> {
+            // Each resumed job starts on its own thread, or is skipped if it is still going
+            if (studentBroadcastService.hasIncompleteRun(DAILY_TIPS_JOB, LocalDate.now().toString())) {
+                sendDailyStudyTips();
+            }
+            if (studentBroadcastService.hasIncompleteRun(WEEKLY_SUMMARY_JOB, currentWeekKey())) {
+                sendWeeklyProgressSummary();
             }
+        });
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error sending weekly progress summary: " + e.getMessage());
+    private void runForStudentPartitions(String jobName, Consumer<JobLeaseService.IdRange> work) {
+        Long minId = studentRepository.findMinId();
+        Long maxId = studentRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return;
         }
+        jobLeaseService.runPartitioned(jobName, minId, maxId, Duration.ofHours(2), Duration.ofMinutes(10), work);
     }
 
-    private void createScheduleReminder(StudySchedule schedule, String timeframe) {
-        try {
-            String formattedTime = schedule.getScheduledTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a"));
-            String title = String.format("Study Reminder - %s", timeframe);
-            String message = String.format(
-                "Don't forget! You have '%s' scheduled for %s. Subject: %s",
-                schedule.getTopic(),
-                formattedTime,
-                schedule.getSubject()
-            );
-
-            // Get student ID from the Student entity
-            Long studentId = schedule.getStudent() != null ? schedule.getStudent().getId() : 1L;
+    private String currentWeekKey() {
+        LocalDate today = LocalDate.now();
+        return today.get(IsoFields.WEEK_BASED_YEAR) + "-W" + today.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
 
-            notificationService.createNotification(
-                studentId,
-                title,
-                message,
-                Notification.NotificationType.SCHEDULE_REMINDER,
-                schedule.getId().toString()
-            );
-        } catch (Exception e) {
-            System.err.println("Error creating schedule reminder: " + e.getMessage());
-        }
+    private Notification scheduleReminder(Long studentId, StudySchedule schedule, int leadMinutes) {
+        NotificationTemplate template = NotificationTemplate.SCHEDULE_REMINDER;
+        return new Notification(
+            studentId,
+            Notification.NotificationType.SCHEDULE_REMINDER,
+            template.getId(),
+            template.encode(leadMinutes, schedule.getTopic(), schedule.getScheduledTime(), schedule.getSubject()),
+            schedule.getId().toString()
+        );
     }
 
-    private void createSessionReminder(GroupSession session) {
-        try {
-            String formattedTime = session.getScheduledTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a"));
-            String title = "Group Session Starting Soon";
-            String message = String.format(
-                "Your group study session '%s' starts in 30 minutes (%s). Don't be late!",
-                session.getTitle(),
-                formattedTime
-            );
+    private Notification sessionReminder(Long participantId, GroupSession session, int leadMinutes) {
+        NotificationTemplate template = NotificationTemplate.SESSION_REMINDER;
+        return new Notification(
+            participantId,
+            Notification.NotificationType.SESSION_REMINDER,
+            template.getId(),
+            template.encode(session.getTitle(), leadMinutes, session.getScheduledTime()),
+            session.getId().toString()
+        );
+    }
 
-            // Send to all participants in the session
-            List<Long> participantIds = getSessionParticipants(session);
-
-            for (Long participantId : participantIds) {
-                notificationService.createNotification(
-                    participantId,
-                    title,
-                    message,
-                    Notification.NotificationType.SESSION_REMINDER,
-                    session.getId().toString()
-                );
+    // Adds the reminders a due one may take along into its digest, see fireReminders
+    private void takeAlongUpcoming(List<StudySchedule> schedules, Map<Long, Integer> scheduleLeads,
+                                   List<GroupSession> sessions, Map<Long, Integer> sessionLeads,
+                                   LocalDateTime now, Predicate<ReminderWheelService.Reminder> claimEarly) {
+        // Days of the events with a due reminder, per student and lead
+        Map<Long, Map<Integer, Set<LocalDate>>> dueDays = new HashMap<>();
+        for (StudySchedule schedule : schedules) {
+            addDueDay(dueDays, studentOf(schedule), scheduleLeads.get(schedule.getId()), schedule.getScheduledTime());
+        }
+        for (GroupSession session : sessions) {
+            for (Long participantId : getSessionParticipants(session)) {
+                addDueDay(dueDays, participantId, sessionLeads.get(session.getId()), session.getScheduledTime());
+            }
+        }
+        dueDays.keySet().removeAll(loadInChunks(dueDays.keySet(), studentRepository::findReminderDigestOptOuts));
+
+        Set<Integer> leads = new HashSet<>();
+        dueDays.values().forEach(byLead -> leads.addAll(byLead.keySet()));
+        for (int lead : leads) {
+            LocalDateTime from = now.plusMinutes(lead);
+            LocalDateTime to = from.plus(maxAdvance(lead));
+            if (reminderProperties.getScheduleLeadMinutes().contains(lead)) {
+                for (StudySchedule schedule : loadInChunks(dueDays.keySet(), ids ->
+                        studyScheduleRepository.findUpcomingSchedulesOfStudentsBetween(ids, from, to))) {
+                    if (!scheduleLeads.containsKey(schedule.getId())
+                            && takesAlong(dueDays, studentOf(schedule), lead, schedule.getScheduledTime())
+                            && claimEarly.test(new ReminderWheelService.Reminder(
+                                ReminderWheelService.ReminderKind.SCHEDULE, schedule.getId(), lead))) {
+                        scheduleLeads.put(schedule.getId(), lead);
+                        schedules.add(schedule);
+                    }
+                }
+            }
+            if (reminderProperties.getSessionLeadMinutes().contains(lead)) {
+                // A session taken along goes out early to all of its participants
+                for (GroupSession session : groupSessionRepository.findSessionsBetween(from, to)) {
+                    if (session.getStatus() == GroupSession.SessionStatus.SCHEDULED
+                            && !sessionLeads.containsKey(session.getId())
+                            && getSessionParticipants(session).stream().anyMatch(participantId ->
+                                takesAlong(dueDays, participantId, lead, session.getScheduledTime()))
+                            && claimEarly.test(new ReminderWheelService.Reminder(
+                                ReminderWheelService.ReminderKind.SESSION, session.getId(), lead))) {
+                        sessionLeads.put(session.getId(), lead);
+                        sessions.add(session);
+                    }
+                }
             }
-        } catch (Exception e) {
-            System.err.println("Error creating session reminder: " + e.getMessage());
         }
     }
 
-    private void createOverdueWarning(StudySchedule schedule) {
-        try {
-            String title = "Overdue Task Warning";
-            String message = String.format(
-                "Your study task '%s' for %s was scheduled for %s and is now overdue. Consider rescheduling or marking as complete.",
-                schedule.getTopic(),
-                schedule.getSubject(),
-                schedule.getScheduledTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a"))
-            );
+    private void addDueDay(Map<Long, Map<Integer, Set<LocalDate>>> dueDays, Long studentId, int lead,
+                           LocalDateTime eventTime) {
+        dueDays.computeIfAbsent(studentId, id -> new HashMap<>())
+            .computeIfAbsent(lead, l -> new HashSet<>())
+            .add(eventTime.toLocalDate());
+    }
 
-            // Get student ID from the Student entity
-            Long studentId = schedule.getStudent() != null ? schedule.getStudent().getId() : 1L;
+    private boolean takesAlong(Map<Long, Map<Integer, Set<LocalDate>>> dueDays, Long studentId, int lead,
+                               LocalDateTime eventTime) {
+        Set<LocalDate> days = dueDays.getOrDefault(studentId, Map.of()).get(lead);
+        return days != null && (lead < LONG_LEAD_MINUTES || days.contains(eventTime.toLocalDate()));
+    }
 
-            notificationService.createNotification(
-                studentId,
-                title,
-                message,
-                Notification.NotificationType.DEADLINE_WARNING,
-                schedule.getId().toString()
-            );
-        } catch (Exception e) {
-            System.err.println("Error creating overdue warning: " + e.getMessage());
+    // How long before its deadline a reminder may go out with another one's digest
+    private Duration maxAdvance(int leadMinutes) {
+        long minutes = (long) (leadMinutes * reminderProperties.getDigestMaxAdvanceFraction());
+        if (leadMinutes < LONG_LEAD_MINUTES) {
+            minutes = Math.min(minutes, reminderProperties.getDigestWindowMinutes());
         }
+        return Duration.ofMinutes(Math.max(minutes, 0));
     }
 
-    private String getRandomStudyTip() {
-        String[] tips = {
-            "Take regular breaks every 25-30 minutes to maintain focus and prevent burnout.",
-            "Create a dedicated study space free from distractions to improve concentration.",
-            "Use active recall techniques like flashcards and practice questions instead of just re-reading.",
-            "Set specific, achievable goals for each study session to stay motivated.",
-            "Get enough sleep - your brain consolidates information during rest.",
-            "Stay hydrated and eat brain-healthy foods like nuts, berries, and fish.",
-            "Use the Pomodoro Technique: 25 minutes of focused study followed by a 5-minute break.",
-            "Teach concepts to others or explain them out loud to reinforce your understanding.",
-            "Practice spaced repetition - review material at increasing intervals over time.",
-            "Find your peak concentration hours and schedule difficult subjects during those times.",
-            "Use visual aids like mind maps and diagrams to organize complex information.",
-            "Join study groups to discuss concepts and gain different perspectives.",
-            "Eliminate digital distractions by using website blockers during study time.",
-            "Reward yourself after completing study goals to maintain motivation.",
-            "Review material before bed - your brain processes information during sleep."
-        };
-
-        Random random = new Random();
-        return tips[random.nextInt(tips.length)];
+    // Get student ID from the Student entity
+    private Long studentOf(StudySchedule schedule) {
+        return schedule.getStudent() != null ? schedule.getStudent().getId() : 1L;
     }
 
-    private String generateWeeklyProgressSummary(Long studentId) {
-        // This would analyze the student's study patterns, completed schedules, etc.
-        // For now, returning a template message
-        return "This week you completed several study sessions and stayed on track with your schedule. " +
-               "Keep up the great work! Remember to review your completed topics and prepare for upcoming deadlines. " +
-               "Your consistency is the key to success!";
+    // Keeps IN lists to a size every database accepts
+    private <T> List<T> loadInChunks(Collection<Long> ids, Function<List<Long>, List<T>> loader) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<T> loaded = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += 1000) {
+            loaded.addAll(loader.apply(idList.subList(from, Math.min(from + 1000, idList.size()))));
+        }
+        return loaded;
     }
 
-    private List<Long> getActiveStudentIds() {
-        // This would query the database for active students
-        // For now, returning a placeholder - you'd implement based on your Student entity
-        try {
-            // return studentRepository.findActiveStudentIds();
-            return List.of(1L, 2L, 3L); // Placeholder
-        } catch (Exception e) {
-            return List.of();
-        }
+    private void createOverdueWarning(StudySchedule schedule) {
+        // Get student ID from the Student entity
+        Long studentId = schedule.getStudent() != null ? schedule.getStudent().getId() : 1L;
+
+        notificationService.createNotification(
+            studentId,
+            Notification.NotificationType.DEADLINE_WARNING,
+            NotificationTemplate.OVERDUE_WARNING,
+            schedule.getId().toString(),
+            schedule.getTopic(),
+            schedule.getSubject(),
+            schedule.getScheduledTime()
+        );
+    }
+
+    // Same tip for every partition and node on a given day; texts are notification.tip.<n>
+    private int getStudyTipOfTheDay() {
+        return LocalDate.now().getDayOfYear() % STUDY_TIP_COUNT;
     }
 
     private List<Long> getSessionParticipants(GroupSession session) {
@@ -2,82 +2,209 @@ package org.example.service;
 
 import org.example.entity.Notification;
 import org.example.repository.NotificationRepository;
+import org.example.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class NotificationService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    // One page of the notification feed; nextCursor is null on the last page
+    public record FeedPage(List<Notification> items, String nextCursor) {}
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
+    @Autowired
+    private NotificationRenderer notificationRenderer;
+
     // Create a new notification
     public Notification createNotification(Long studentId, String title, String message,
                                          Notification.NotificationType type) {
         Notification notification = new Notification(studentId, title, message, type);
-        return notificationRepository.save(notification);
+        return save(notification);
     }
 
     // Create a notification with related entity
     public Notification createNotification(Long studentId, String title, String message,
                                          Notification.NotificationType type, String relatedEntityId) {
         Notification notification = new Notification(studentId, title, message, type, relatedEntityId);
-        return notificationRepository.save(notification);
+        return save(notification);
+    }
+
+    // Create a notification stored as a template id and packed arguments, rendered when read
+    public Notification createNotification(Long studentId, Notification.NotificationType type,
+                                         NotificationTemplate template, String relatedEntityId, Object... args) {
+        Notification notification = new Notification(studentId, type, template.getId(), template.encode(args), relatedEntityId);
+        return save(notification);
+    }
+
+    // Persist a batch of notifications in one transaction
+    public List<Notification> createNotifications(List<Notification> notifications) {
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        Map<Long, Long> unreadByStudent = new HashMap<>();
+        for (Notification notification : saved) {
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                unreadByStudent.merge(notification.getStudentId(), 1L, Long::sum);
+            }
+        }
+        afterCommit(() -> {
+            unreadByStudent.forEach(unreadCountCache::add);
+            saved.forEach(notificationStreamService::publishNotification);
+        });
+        return saved;
     }
 
     // Get all notifications for a student
     public List<Notification> getNotificationsByStudentId(Long studentId) {
-        return notificationRepository.findByStudentIdOrderByCreatedAtDesc(studentId);
+        return notificationRenderer.render(notificationRepository.findByStudentIdOrderByCreatedAtDesc(studentId));
+    }
+
+    // Get one keyset-paginated page of a student's feed, newest first
+    @Transactional(readOnly = true)
+    public FeedPage getNotificationFeed(Long studentId, String cursor, int limit,
+                                        Notification.NotificationType type, boolean unreadOnly) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        LocalDateTime cursorCreatedAt = FAR_FUTURE;
+        long cursorId = Long.MAX_VALUE;
+
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                cursorCreatedAt = LocalDateTime.parse(parts[0]);
+                cursorId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid feed cursor");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Notification> rows = notificationRepository.findFeedPage(
+            studentId, type, unreadOnly, cursorCreatedAt, cursorId, PageRequest.of(0, pageSize + 1));
+        notificationRenderer.render(rows);
+        if (rows.size() <= pageSize) {
+            return new FeedPage(rows, null);
+        }
+
+        List<Notification> items = rows.subList(0, pageSize);
+        Notification last = items.get(pageSize - 1);
+        String nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            (last.getCreatedAt() + "|" + last.getId()).getBytes(StandardCharsets.UTF_8));
+        return new FeedPage(new ArrayList<>(items), nextCursor);
     }
 
     // Get unread notifications for a student
     public List<Notification> getUnreadNotificationsByStudentId(Long studentId) {
-        return notificationRepository.findByStudentIdAndIsReadOrderByCreatedAtDesc(studentId, false);
+        return notificationRenderer.render(notificationRepository.findByStudentIdAndIsReadOrderByCreatedAtDesc(studentId, false));
     }
 
-    // Get count of unread notifications
+    // Get count of unread notifications; served from memory once the student is cached.
+    // SUPPORTS keeps cache hits from opening a transaction or borrowing a connection.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Long getUnreadCount(Long studentId) {
-        return notificationRepository.countUnreadByStudentId(studentId);
+        return unreadCountCache.get(studentId, () -> notificationRepository.countUnreadByStudentId(studentId));
     }
 
     // Mark notification as read
     public void markAsRead(Long notificationId) {
         Optional<Notification> notification = notificationRepository.findById(notificationId);
         if (notification.isPresent()) {
+            boolean wasUnread = !Boolean.TRUE.equals(notification.get().getIsRead());
             notification.get().setIsRead(true);
             notificationRepository.save(notification.get());
+            if (wasUnread) {
+                Long studentId = notification.get().getStudentId();
+                afterCommit(() -> unreadCountChanged(studentId, -1));
+            }
         }
     }
 
-    // Mark all notifications as read for a student
-    public void markAllAsRead(Long studentId) {
-        List<Notification> unreadNotifications = getUnreadNotificationsByStudentId(studentId);
-        for (Notification notification : unreadNotifications) {
-            notification.setIsRead(true);
+    // Mark all notifications as read for a student with a single UPDATE
+    public int markAllAsRead(Long studentId) {
+        return markReadMatching(studentId, null, null);
+    }
+
+    // Mark all notifications of one type as read
+    public int markAsReadByType(Long studentId, Notification.NotificationType type) {
+        return markReadMatching(studentId, type, null);
+    }
+
+    // Mark notifications created before a timestamp as read
+    public int markAsReadBefore(Long studentId, LocalDateTime before) {
+        return markReadMatching(studentId, null, before);
+    }
+
+    // Mark read by type and/or cutoff; null means no restriction
+    public int markReadMatching(Long studentId, Notification.NotificationType type, LocalDateTime before) {
+        LocalDateTime now = LocalDateTime.now();
+        int marked = notificationRepository.markReadMatching(studentId, type, before != null ? before : FAR_FUTURE, now);
+        afterCommit(() -> unreadCountChanged(studentId, -marked));
+        return marked;
+    }
+
+    // Delete a set of a student's notifications with one DELETE
+    public int deleteNotifications(Long studentId, List<Long> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
         }
-        notificationRepository.saveAll(unreadNotifications);
+        // Flipping to read first locks the rows and tells us exactly how many unread ones go away
+        int unread = notificationRepository.markReadByIds(studentId, notificationIds, LocalDateTime.now());
+        int deleted = notificationRepository.deleteByStudentIdAndIds(studentId, notificationIds);
+        afterCommit(() -> unreadCountChanged(studentId, -unread));
+        return deleted;
+    }
+
+    // Opt a student in or out of combined reminder digests
+    public boolean setReminderDigest(Long studentId, boolean enabled) {
+        return studentRepository.updateReminderDigest(studentId, enabled) > 0;
     }
 
     // Get recent notifications (last 24 hours)
     public List<Notification> getRecentNotifications(Long studentId) {
         LocalDateTime since = LocalDateTime.now().minusDays(1);
-        return notificationRepository.findRecentByStudentId(studentId, since);
+        return notificationRenderer.render(notificationRepository.findRecentByStudentId(studentId, since));
     }
 
     // Get latest N notifications
     public List<Notification> getLatestNotifications(Long studentId, int limit) {
-        return notificationRepository.findLatestByStudentId(studentId, limit);
+        return notificationRenderer.render(notificationRepository.findLatestByStudentId(studentId, limit));
     }
 
     // Delete a notification
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId).ifPresent(notification -> {
+            notificationRepository.delete(notification);
+            if (!Boolean.TRUE.equals(notification.getIsRead())) {
+                afterCommit(() -> unreadCountChanged(notification.getStudentId(), -1));
+            }
+        });
     }
 
     // Create study reminder notifications
@@ -117,4 +244,36 @@ public class NotificationService {
         String title = "Study Tip";
         createNotification(studentId, title, tip, Notification.NotificationType.STUDY_TIP);
     }
+
+    private Notification save(Notification notification) {
+        Notification saved = notificationRepository.save(notification);
+        afterCommit(() -> {
+            if (!Boolean.TRUE.equals(saved.getIsRead())) {
+                unreadCountCache.add(saved.getStudentId(), 1);
+            }
+            notificationStreamService.publishNotification(saved);
+        });
+        return saved;
+    }
+
+    private void unreadCountChanged(Long studentId, long delta) {
+        if (delta != 0) {
+            unreadCountCache.add(studentId, delta);
+            notificationStreamService.publishUnreadCountChanged(studentId);
+        }
+    }
+
+    // Counters follow committed state only, so rolled-back writes never skew them
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
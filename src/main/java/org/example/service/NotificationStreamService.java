@@ -0,0 +1,427 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.entity.Notification;
+import org.example.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-sent event streams of new notifications and unread counts, one
+ * channel per student.
+ *
+ * Publishing only appends to the student's replay buffer and schedules the
+ * channel on a small shared dispatcher pool, so callers never wait on a
+ * client socket. Each channel is drained by one dispatcher thread at a time,
+ * which keeps events in order per student. Unread-count changes are
+ * coalesced: a burst of changes produces one event carrying the latest count.
+ *
+ * Dispatchers never write to a socket either: they queue events per
+ * subscriber, and a writer thread of that subscriber's own sends them. A
+ * subscriber that falls more than {@code subscriber-queue-size} events
+ * behind has its backlog dropped and gets a resync instead, and one whose
+ * write has been stuck for {@code write-timeout-ms} is disconnected, so a
+ * slow client only ever holds up itself.
+ *
+ * Notification events carry ids of the form {@code <boot>-<sequence>}. A
+ * client that reconnects with {@code Last-Event-ID} gets only the buffered
+ * events after that id; if some of them have already left the buffer, or the
+ * id comes from before a restart, it gets a {@code resync} event instead and
+ * should reload its feed. Streams are per node: events are only delivered to
+ * clients connected to the node that created them.
+ */
+@Service
+public class NotificationStreamService {
+
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+    public static final String RESYNC_EVENT = "resync";
+
+    @Value("${app.notifications.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.notifications.stream.replay-buffer-size:100}")
+    private int replayBufferSize;
+
+    @Value("${app.notifications.stream.replay-window-seconds:300}")
+    private int replayWindowSeconds;
+
+    @Value("${app.notifications.stream.dispatcher-threads:2}")
+    private int dispatcherThreads;
+
+    @Value("${app.notifications.stream.subscriber-queue-size:50}")
+    private int subscriberQueueSize;
+
+    @Value("${app.notifications.stream.write-timeout-ms:10000}")
+    private long writeTimeoutMillis;
+
+    @Autowired
+    private UnreadCountCache unreadCountCache;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationRenderer notificationRenderer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private ExecutorService dispatcher;
+    private ExecutorService writers;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Grows only with the writes in progress, each of which the heartbeat cuts off after the write timeout
+        AtomicInteger writerCount = new AtomicInteger();
+        writers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-writer-" + writerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("notifications.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open notification event streams on this node")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    /**
+     * Open a stream for {@code studentId}. The first events are the
+     * notifications missed since {@code lastEventId} (or a resync) followed by
+     * the current unread count.
+     */
+    public SseEmitter subscribe(Long studentId, String lastEventId) {
+        SseEmitter emitter = createEmitter();
+        Subscriber subscriber = new Subscriber(emitter, LocaleContextHolder.getLocale());
+
+        Channel channel = channels.compute(studentId, (id, existing) -> {
+            Channel target = existing != null ? existing : new Channel(id, sequence.get());
+            synchronized (target) {
+                long latest = sequence.get();
+                Long resumeFrom = parseSequence(lastEventId);
+                if (lastEventId == null || lastEventId.isBlank()) {
+                    subscriber.cursor = latest;
+                } else if (resumeFrom == null || resumeFrom < target.evictedUpTo || resumeFrom > latest) {
+                    subscriber.cursor = latest;
+                    subscriber.needsResync = true;
+                } else {
+                    subscriber.cursor = resumeFrom;
+                }
+            }
+            target.subscribers.add(subscriber);
+            return target;
+        });
+        subscriberCount.incrementAndGet();
+
+        Runnable remove = () -> removeSubscriber(channel, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        scheduleDrain(channel);
+        return emitter;
+    }
+
+    // Called after the notification has committed
+    public void publishNotification(Notification notification) {
+        Channel channel = channels.get(notification.getStudentId());
+        if (channel == null) {
+            return;
+        }
+        synchronized (channel) {
+            channel.recent.addLast(new StreamEvent(sequence.incrementAndGet(), notification));
+            while (channel.recent.size() > replayBufferSize) {
+                channel.evictedUpTo = channel.recent.pollFirst().seq();
+            }
+        }
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            channel.unreadChanged.set(true);
+        }
+        scheduleDrain(channel);
+    }
+
+    // Called after the unread counter has been adjusted
+    public void publishUnreadCountChanged(Long studentId) {
+        Channel channel = channels.get(studentId);
+        if (channel == null) {
+            return;
+        }
+        channel.unreadChanged.set(true);
+        scheduleDrain(channel);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Keep idle connections open through proxies, disconnect clients whose writes are stuck
+    // and drop channels nobody can resume any more
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long idleCutoff = System.currentTimeMillis() - replayWindowSeconds * 1000L;
+        long stuckSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        for (Long studentId : channels.keySet()) {
+            Channel channel = channels.computeIfPresent(studentId, (id, existing) ->
+                existing.subscribers.isEmpty() && existing.idleSince < idleCutoff ? null : existing);
+            if (channel == null || channel.subscribers.isEmpty()) {
+                continue;
+            }
+            for (Subscriber subscriber : channel.subscribers) {
+                long writeStartedAt = subscriber.writeStartedAt;
+                if (writeStartedAt != 0 && writeStartedAt - stuckSince < 0) {
+                    // Completing the response makes the blocked write fail and frees its thread
+                    removeSubscriber(channel, subscriber);
+                    subscriber.emitter.completeWithError(new IOException("Notification stream write timed out"));
+                }
+            }
+            channel.heartbeatDue.set(true);
+            scheduleDrain(channel);
+        }
+    }
+
+    // Overridden in tests to stand in for a client connection
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void scheduleDrain(Channel channel) {
+        // Only the caller that moves the counter off zero starts a drain, so one thread drains a channel at a time
+        if (channel.drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                int requests = channel.drainRequests.get();
+                do {
+                    drain(channel);
+                    requests = channel.drainRequests.addAndGet(-requests);
+                } while (requests != 0);
+            });
+        } catch (RejectedExecutionException e) {
+            channel.drainRequests.set(0);
+        }
+    }
+
+    // Turns the channel's news into events on each subscriber's queue; never touches a socket
+    private void drain(Channel channel) {
+        List<StreamEvent> buffered;
+        long evictedUpTo;
+        synchronized (channel) {
+            buffered = new ArrayList<>(channel.recent);
+            evictedUpTo = channel.evictedUpTo;
+        }
+        boolean unreadChanged = channel.unreadChanged.getAndSet(false);
+        boolean heartbeat = channel.heartbeatDue.getAndSet(false);
+        Long unreadCount = null;
+
+        for (Subscriber subscriber : channel.subscribers) {
+            List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+            long missed = buffered.stream().filter(event -> event.seq() > subscriber.cursor).count();
+            if (subscriber.cursor < evictedUpTo) {
+                subscriber.needsResync = true;
+            } else if (subscriber.queued() + missed > subscriberQueueSize) {
+                // Too slow to keep up: drop what it has not received yet and let it reload
+                subscriber.clearQueue();
+                subscriber.needsResync = true;
+            }
+
+            if (subscriber.needsResync) {
+                // Missed events are gone; tell the client to reload instead of sending a partial history
+                subscriber.cursor = buffered.isEmpty()
+                        ? Math.max(subscriber.cursor, evictedUpTo)
+                        : buffered.get(buffered.size() - 1).seq();
+                events.add(SseEmitter.event()
+                        .id(eventId(subscriber.cursor))
+                        .name(RESYNC_EVENT)
+                        .data(Map.of("reason", "missed-events")));
+                subscriber.needsResync = false;
+                subscriber.needsUnreadCount = true;
+            }
+
+            for (StreamEvent event : buffered) {
+                if (event.seq() > subscriber.cursor) {
+                    events.add(SseEmitter.event()
+                            .id(eventId(event.seq()))
+                            .name(NOTIFICATION_EVENT)
+                            .data(notificationRenderer.renderCopy(event.notification(), subscriber.locale)));
+                    subscriber.cursor = event.seq();
+                }
+            }
+
+            if (unreadChanged || subscriber.needsUnreadCount) {
+                if (unreadCount == null) {
+                    Long studentId = channel.studentId;
+                    unreadCount = unreadCountCache.get(studentId,
+                        () -> notificationRepository.countUnreadByStudentId(studentId));
+                }
+                // No id, so Last-Event-ID keeps pointing at the last notification
+                events.add(SseEmitter.event()
+                        .name(UNREAD_COUNT_EVENT)
+                        .data(Map.of("unreadCount", unreadCount)));
+                subscriber.needsUnreadCount = false;
+            }
+
+            if (heartbeat && events.isEmpty() && subscriber.queued() == 0) {
+                events.add(SseEmitter.event().comment("heartbeat"));
+            }
+
+            if (!events.isEmpty()) {
+                subscriber.enqueue(events);
+                startWriter(channel, subscriber);
+            }
+        }
+    }
+
+    private void startWriter(Channel channel, Subscriber subscriber) {
+        // At most one writer per subscriber, which keeps its events in order
+        if (!subscriber.writing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            writers.execute(() -> write(channel, subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.writing.set(false);
+        }
+    }
+
+    private void write(Channel channel, Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.poll()) != null) {
+                subscriber.writeStartedAt = System.nanoTime();
+                subscriber.emitter.send(event);
+                subscriber.writeStartedAt = 0;
+            }
+        } catch (Exception e) {
+            // Client went away or timed out; the container reports completion separately
+            removeSubscriber(channel, subscriber);
+            subscriber.clearQueue();
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.writeStartedAt = 0;
+            subscriber.writing.set(false);
+        }
+        // Events queued between the last poll and releasing the flag
+        if (subscriber.queued() > 0 && channel.subscribers.contains(subscriber)) {
+            startWriter(channel, subscriber);
+        }
+    }
+
+    private void removeSubscriber(Channel channel, Subscriber subscriber) {
+        if (channel.subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+            if (channel.subscribers.isEmpty()) {
+                channel.idleSince = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private String eventId(long seq) {
+        return bootId + "-" + seq;
+    }
+
+    // Sequence of an id issued by this process, or null for anything else
+    private Long parseSequence(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(bootId + "-")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(bootId.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record StreamEvent(long seq, Notification notification) {}
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Locale locale;
+        // Only read and written by the thread draining the channel, after subscribe has published it
+        private long cursor;
+        private boolean needsResync;
+        private boolean needsUnreadCount = true;
+        // Events waiting for this subscriber's writer, which sends them in order
+        private final ArrayDeque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private volatile long writeStartedAt; // System.nanoTime() of the send in progress, or 0
+
+        private Subscriber(SseEmitter emitter, Locale locale) {
+            this.emitter = emitter;
+            this.locale = locale;
+        }
+
+        private synchronized void enqueue(List<SseEmitter.SseEventBuilder> events) {
+            queue.addAll(events);
+        }
+
+        private synchronized SseEmitter.SseEventBuilder poll() {
+            return queue.pollFirst();
+        }
+
+        private synchronized int queued() {
+            return queue.size();
+        }
+
+        private synchronized void clearQueue() {
+            queue.clear();
+        }
+    }
+
+    private static final class Channel {
+        private final Long studentId;
+        private final ArrayDeque<StreamEvent> recent = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicInteger drainRequests = new AtomicInteger();
+        private final AtomicBoolean unreadChanged = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        // Highest sequence no longer in the buffer; resuming from before it needs a resync
+        private long evictedUpTo;
+        private volatile long idleSince = System.currentTimeMillis();
+
+        private Channel(Long studentId, long createdAtSequence) {
+            this.studentId = studentId;
+            this.evictedUpTo = createdAtSequence;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Message templates for generated notifications.
+ *
+ * A templated notification stores only the template id and its arguments
+ * packed into a short string; title and message are rendered from
+ * {@code notification.<id>.title} / {@code .message} in messages_*.properties
+ * when the notification is read. Argument {@code {n}} of both texts is the
+ * n-th argument, formatted according to its kind.
+ */
+public enum NotificationTemplate {
+
+    // {0} lead time, {1} topic, {2} scheduled time, {3} subject
+    SCHEDULE_REMINDER("schedule_reminder", ArgKind.LEAD, ArgKind.TEXT, ArgKind.DATETIME, ArgKind.TEXT),
+    // {0} session title, {1} lead time, {2} scheduled time
+    SESSION_REMINDER("session_reminder", ArgKind.TEXT, ArgKind.LEAD, ArgKind.DATETIME),
+    // {0} topic, {1} subject, {2} scheduled time
+    OVERDUE_WARNING("overdue_warning", ArgKind.TEXT, ArgKind.TEXT, ArgKind.DATETIME),
+    // {0} tip number
+    STUDY_TIP("study_tip", ArgKind.TIP),
+    // {0} number of items, {1} item list
+    REMINDER_DIGEST("reminder_digest", ArgKind.NUMBER, ArgKind.ITEMS);
+
+    // One line of an ITEMS argument
+    public record Item(String label, LocalDateTime time) {}
+
+    public enum ArgKind {
+        TEXT,     // stored as is
+        DATETIME, // minutes since the epoch in base 36, formatted for the reader's locale
+        LEAD,     // minutes before the event, rendered as "1 hour", "30 minutes", ...
+        TIP,      // index of notification.tip.<n>
+        NUMBER,   // plain integer
+        ITEMS     // list of Item, each rendered with notification.<id>.item
+    }
+
+    // ASCII unit, record and group separators; never appear in user-entered text once stripped
+    private static final char SEPARATOR = '\u001F';
+    private static final char ITEM_SEPARATOR = '\u001E';
+    private static final char FIELD_SEPARATOR = '\u001D';
+
+    private final String id;
+    private final ArgKind[] argKinds;
+
+    NotificationTemplate(String id, ArgKind... argKinds) {
+        this.id = id;
+        this.argKinds = argKinds;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ArgKind[] getArgKinds() {
+        return argKinds.clone();
+    }
+
+    public static NotificationTemplate fromId(String id) {
+        for (NotificationTemplate template : values()) {
+            if (template.id.equals(id)) {
+                return template;
+            }
+        }
+        throw new IllegalArgumentException("Unknown notification template: " + id);
+    }
+
+    // Pack arguments in template order: String for TEXT, LocalDateTime for DATETIME,
+    // Integer for LEAD, TIP and NUMBER, List<Item> for ITEMS
+    public String encode(Object... args) {
+        if (args.length != argKinds.length) {
+            throw new IllegalArgumentException(id + " takes " + argKinds.length + " arguments, got " + args.length);
+        }
+        StringBuilder params = new StringBuilder();
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                params.append(SEPARATOR);
+            }
+            switch (argKinds[i]) {
+                case TEXT -> params.append(clean(args[i]));
+                case DATETIME -> params.append(encodeDateTime((LocalDateTime) args[i]));
+                case LEAD, TIP, NUMBER -> params.append(((Number) args[i]).intValue());
+                case ITEMS -> {
+                    List<?> items = (List<?>) args[i];
+                    for (int j = 0; j < items.size(); j++) {
+                        Item item = (Item) items.get(j);
+                        if (j > 0) {
+                            params.append(ITEM_SEPARATOR);
+                        }
+                        params.append(clean(item.label())).append(FIELD_SEPARATOR).append(encodeDateTime(item.time()));
+                    }
+                }
+            }
+        }
+        return params.toString();
+    }
+
+    public String[] decode(String params) {
+        String[] parts = params == null ? new String[0] : params.split(String.valueOf(SEPARATOR), argKinds.length);
+        String[] values = new String[argKinds.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < parts.length ? parts[i] : "";
+        }
+        return values;
+    }
+
+    public static List<Item> decodeItems(String value) {
+        List<Item> items = new ArrayList<>();
+        if (value == null || value.isEmpty()) {
+            return items;
+        }
+        for (String item : value.split(String.valueOf(ITEM_SEPARATOR))) {
+            int split = item.lastIndexOf(FIELD_SEPARATOR);
+            items.add(new Item(item.substring(0, split), decodeDateTime(item.substring(split + 1))));
+        }
+        return items;
+    }
+
+    private static String clean(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toString().replace(SEPARATOR, ' ').replace(ITEM_SEPARATOR, ' ').replace(FIELD_SEPARATOR, ' ');
+    }
+
+    private static String encodeDateTime(LocalDateTime value) {
+        return Long.toString(value.toEpochSecond(ZoneOffset.UTC) / 60, Character.MAX_RADIX);
+    }
+
+    public static LocalDateTime decodeDateTime(String value) {
+        return LocalDateTime.ofEpochSecond(Long.parseLong(value, Character.MAX_RADIX) * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,208 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One-off conversion of notifications stored with a fully rendered message
+ * into template id plus packed arguments.
+ *
+ * Runs in the background after startup under a job lease, walking
+ * not-yet-templated reminder, warning and tip rows in id order and rewriting
+ * each chunk with one batched UPDATE. Rows whose text does not match the
+ * English format the scheduler used to write are left as they are and keep
+ * being shown verbatim. Re-running is harmless.
+ *
+ * Tables created before templates existed also need their columns adjusted
+ * before any templated row is written. That happens synchronously while the
+ * application context starts, ahead of the scheduled jobs and the reminder
+ * wheel, since the schema update does not relax or widen existing columns.
+ */
+@Component
+public class NotificationTemplateMigration {
+
+    private static final DateTimeFormatter LEGACY_TIME = DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a", Locale.ENGLISH);
+    private static final Pattern SCHEDULE_TITLE = Pattern.compile("Study Reminder - (.+)");
+    private static final Pattern SCHEDULE_MESSAGE = Pattern.compile(
+        "Don't forget! You have '(.*)' scheduled for (.+?)\\. Subject: (.*)", Pattern.DOTALL);
+    private static final Pattern SESSION_MESSAGE = Pattern.compile(
+        "Your group study session '(.*)' starts in (.+) \\((.+)\\)\\. Don't be late!", Pattern.DOTALL);
+    private static final Pattern OVERDUE_MESSAGE = Pattern.compile(
+        "Your study task '(.*)' for (.*) was scheduled for (.+) and is now overdue\\. " +
+        "Consider rescheduling or marking as complete\\.", Pattern.DOTALL);
+    private static final Pattern LEAD = Pattern.compile("(\\d+) (minutes|hour|hours)");
+
+    @Value("${app.notifications.templates.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${app.notifications.templates.migration-chunk-size:500}")
+    private int chunkSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @PostConstruct
+    public void prepareColumns() {
+        // Created NOT NULL before templates existed
+        for (String column : List.of("title", "message")) {
+            alter("ALTER TABLE notifications ALTER COLUMN " + column + " DROP NOT NULL");
+        }
+        // Created as a bounded VARCHAR by earlier versions; digests and long topics need more
+        alter("ALTER TABLE notifications ALTER COLUMN params SET DATA TYPE TEXT");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() ->
+            jobLeaseService.runExclusively("migrateNotificationTemplates", Duration.ofHours(2), Duration.ofMinutes(1),
+                this::migrate),
+            "notification-template-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return number of rows converted
+     */
+    public long migrate() {
+        try {
+            Map<String, Integer> tipIndexes = loadTipIndexes();
+            long converted = 0;
+            long afterId = 0;
+            while (true) {
+                List<Object[]> updates = new ArrayList<>();
+                List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, type, title, message FROM notifications WHERE template_id IS NULL " +
+                    "AND type IN ('SCHEDULE_REMINDER', 'SESSION_REMINDER', 'DEADLINE_WARNING', 'STUDY_TIP') " +
+                    "AND id > ? ORDER BY id LIMIT ?", afterId, chunkSize);
+                if (rows.isEmpty()) {
+                    return converted;
+                }
+                for (Map<String, Object> row : rows) {
+                    Long id = ((Number) row.get("id")).longValue();
+                    afterId = id;
+                    Object[] templated = convert((String) row.get("type"), (String) row.get("title"),
+                                                 (String) row.get("message"), tipIndexes);
+                    if (templated != null) {
+                        updates.add(new Object[] {templated[0], templated[1], id});
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                        "UPDATE notifications SET template_id = ?, params = ?, title = NULL, message = NULL WHERE id = ?",
+                        updates);
+                    converted += updates.size();
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error migrating notifications to templates: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private void alter(String statement) {
+        try {
+            jdbcTemplate.execute(statement);
+        } catch (Exception e) {
+            // Already in shape, or the table is new and gets created that way
+        }
+    }
+
+    private Map<String, Integer> loadTipIndexes() {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; ; i++) {
+            try {
+                indexes.put(messageSource.getMessage("notification.tip." + i, null, Locale.ENGLISH), i);
+            } catch (NoSuchMessageException e) {
+                return indexes;
+            }
+        }
+    }
+
+    // [templateId, params] or null when the text is not in a known format
+    private Object[] convert(String type, String title, String message, Map<String, Integer> tipIndexes) {
+        if (message == null) {
+            return null;
+        }
+        try {
+            switch (type) {
+                case "SCHEDULE_REMINDER": {
+                    Matcher titleMatch = SCHEDULE_TITLE.matcher(title == null ? "" : title);
+                    Matcher messageMatch = SCHEDULE_MESSAGE.matcher(message);
+                    Integer lead = titleMatch.matches() ? parseLead(titleMatch.group(1)) : null;
+                    if (lead == null || !messageMatch.matches()) {
+                        return null;
+                    }
+                    return templated(NotificationTemplate.SCHEDULE_REMINDER, lead, messageMatch.group(1),
+                        LocalDateTime.parse(messageMatch.group(2), LEGACY_TIME), messageMatch.group(3));
+                }
+                case "SESSION_REMINDER": {
+                    Matcher match = SESSION_MESSAGE.matcher(message);
+                    Integer lead = match.matches() ? parseLead(match.group(2)) : null;
+                    if (lead == null) {
+                        return null;
+                    }
+                    return templated(NotificationTemplate.SESSION_REMINDER, match.group(1), lead,
+                        LocalDateTime.parse(match.group(3), LEGACY_TIME));
+                }
+                case "DEADLINE_WARNING": {
+                    Matcher match = OVERDUE_MESSAGE.matcher(message);
+                    if (!match.matches()) {
+                        return null;
+                    }
+                    return templated(NotificationTemplate.OVERDUE_WARNING, match.group(1), match.group(2),
+                        LocalDateTime.parse(match.group(3), LEGACY_TIME));
+                }
+                case "STUDY_TIP": {
+                    Integer tip = tipIndexes.get(message);
+                    return tip == null ? null : templated(NotificationTemplate.STUDY_TIP, tip);
+                }
+                default:
+                    return null;
+            }
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private Object[] templated(NotificationTemplate template, Object... args) {
+        return new Object[] {template.getId(), template.encode(args)};
+    }
+
+    private Integer parseLead(String text) {
+        Matcher match = LEAD.matcher(text);
+        if (!match.matches()) {
+            return null;
+        }
+        int amount = Integer.parseInt(match.group(1));
+        return "minutes".equals(match.group(2)) ? amount : amount * 60;
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -30,6 +31,15 @@ public class RealTimeAnalyticsService {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     public UserAnalytics calculateRealTimeMetrics(Long userId) {
         UserAnalytics analytics = analyticsRepository.findByUserId(userId)
                 .orElse(new UserAnalytics());
@@ -250,7 +260,18 @@ public class RealTimeAnalyticsService {
         return Math.max(0, Math.min(100, 100 - (variance * 10)));
     }
 
+    // Concurrent requests for one user (several tabs, dashboard plus AI panel) share one computation
     public Map<String, Object> getPersonalizedAIInsights(Long userId) {
+        return singleFlight.execute("analytics.insights", userId, () -> computePersonalizedAIInsights(userId));
+    }
+
+    // After a write: computed afresh, since a flight already in the air may have read the old metrics
+    public Map<String, Object> refreshPersonalizedAIInsights(Long userId) {
+        calculateRealTimeMetrics(userId);
+        return computePersonalizedAIInsights(userId);
+    }
+
+    private Map<String, Object> computePersonalizedAIInsights(Long userId) {
         UserAnalytics analytics = analyticsRepository.findByUserId(userId)
                 .orElse(calculateRealTimeMetrics(userId));
 
@@ -337,16 +358,18 @@ public class RealTimeAnalyticsService {
     // Scheduled task to update analytics for all active users
     @Scheduled(fixedRate = 300000) // Every 5 minutes
     public void updateAllUserAnalytics() {
-        // This would update analytics for active users
-        // Implementation depends on how you track active users
+        scheduledJobRunner.run("updateAllUserAnalytics", run ->
+            jobLeaseService.runExclusively("updateAllUserAnalytics", Duration.ofMinutes(4), Duration.ofMinutes(1), () -> {
+                // This would update analytics for active users
+                // Implementation depends on how you track active users
+            })
+        );
     }
 
     // Real-time update when user completes a session
     public void onSessionCompleted(Long userId, StudySchedule completedSession) {
-        calculateRealTimeMetrics(userId);
-
         // Trigger AI insights update
-        Map<String, Object> updatedInsights = getPersonalizedAIInsights(userId);
+        Map<String, Object> updatedInsights = refreshPersonalizedAIInsights(userId);
 
         // Here you could emit WebSocket events for real-time UI updates
         // webSocketService.sendToUser(userId, "analytics-updated", updatedInsights);
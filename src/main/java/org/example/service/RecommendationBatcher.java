@@ -0,0 +1,231 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.config.AIServiceProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects recommendation requests from concurrent users and sends them to
+ * the AI service as one batched call.
+ *
+ * A batch is closed when it holds {@code batchMaxSize} requests or
+ * {@code batchMaxWaitMs} after its first request arrived, whichever comes
+ * first, so a lone request waits at most a few milliseconds. Batches are
+ * sent on a small pool while the next one is being collected; when every
+ * sender is busy the collector sends the batch itself, which slows intake
+ * instead of queuing without bound. Each caller's future completes with its
+ * own recommendations, or with null when the batch call failed, was
+ * rejected by the circuit breaker or could not be sent because the
+ * application is shutting down.
+ *
+ * Metrics: ai.recommendations.batch.size (summary) and
+ * ai.recommendations.batch.wait (timer, submit to batch send).
+ */
+@Component
+public class RecommendationBatcher {
+
+    private record Pending(Map<String, Object> insights, long submittedAt,
+                           CompletableFuture<List<Map<String, Object>>> result) {}
+
+    @Autowired
+    private AIServiceProperties properties;
+
+    @Autowired
+    private AIHttpClient aiHttpClient;
+
+    @Autowired
+    private AIServiceGuard aiServiceGuard;
+
+    @Autowired
+    private AIExecutors aiExecutors;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    // Handed to the senders and not yet answered
+    private final Set<Pending> inFlight = ConcurrentHashMap.newKeySet();
+    private Thread collector;
+    private volatile boolean stopped;
+    private ThreadPoolExecutor senders;
+    private DistributionSummary batchSize;
+    private Timer batchWait;
+
+    @PostConstruct
+    public void init() {
+        batchSize = DistributionSummary.builder("ai.recommendations.batch.size")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchWait = Timer.builder("ai.recommendations.batch.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        if (!properties.isBatchEnabled()) {
+            return;
+        }
+
+        senders = aiExecutors.batchSenders();
+        collector = new Thread(this::collect, "ai-batch-collector");
+        collector.setDaemon(true);
+        collector.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopped = true;
+        if (collector == null) {
+            return;
+        }
+        collector.interrupt();
+        collector.join(1000);
+        // Let batches already handed over finish; whatever cannot is answered with null
+        senders.shutdown();
+        senders.awaitTermination(properties.getTimeout(), TimeUnit.MILLISECONDS);
+        senders.shutdownNow();
+        abandon(inFlight);
+    }
+
+    /**
+     * @return the user's recommendations, or null if the AI service did not
+     *         provide them
+     */
+    public CompletableFuture<List<Map<String, Object>>> submit(Map<String, Object> insights) {
+        CompletableFuture<List<Map<String, Object>>> result = new CompletableFuture<>();
+        if (collector == null) {
+            result.complete(null);
+            return result;
+        }
+        queue.add(new Pending(insights, System.nanoTime(), result));
+        if (stopped) {
+            // The collector may already have drained the queue for the last time
+            abandonQueued();
+        }
+        return result;
+    }
+
+    private void collect() {
+        int maxSize = properties.getBatchMaxSize();
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(properties.getBatchMaxWaitMs());
+        List<Pending> batch = new ArrayList<>(maxSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Pending first = queue.take();
+                batch.add(first);
+                long deadline = first.submittedAt() + maxWaitNanos;
+                while (batch.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+                batch = new ArrayList<>(maxSize);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Nobody will send what is left
+        abandon(batch);
+        abandonQueued();
+    }
+
+    private void dispatch(List<Pending> batch) {
+        inFlight.addAll(batch);
+        Runnable task = () -> {
+            try {
+                send(batch);
+            } catch (Exception e) {
+                // Never leave a caller waiting; futures already completed are unaffected
+                abandon(batch);
+            } finally {
+                batch.forEach(inFlight::remove);
+            }
+        };
+        try {
+            senders.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (senders.isShutdown()) {
+                abandon(batch);
+                batch.forEach(inFlight::remove);
+            } else {
+                // Every sender is busy; sending it here slows intake instead
+                task.run();
+            }
+        }
+    }
+
+    private static void abandon(Iterable<Pending> pending) {
+        pending.forEach(p -> p.result().complete(null));
+    }
+
+    private void abandonQueued() {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().complete(null);
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        long now = System.nanoTime();
+        batchSize.record(batch.size());
+        List<Map<String, Object>> requests = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            batchWait.record(now - pending.submittedAt(), TimeUnit.NANOSECONDS);
+            requests.add(pending.insights());
+        }
+
+        List<?> results = aiServiceGuard.call(AIHttpClient.Endpoint.RECOMMENDATIONS_BATCH, () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            ResponseEntity<Map<String, Object>> response = aiHttpClient
+                .restTemplate(AIHttpClient.Endpoint.RECOMMENDATIONS_BATCH)
+                .exchange(aiHttpClient.url(AIHttpClient.Endpoint.RECOMMENDATIONS_BATCH), HttpMethod.POST,
+                    new HttpEntity<>(Map.of("requests", requests), headers),
+                    new ParameterizedTypeReference<Map<String, Object>>() {});
+
+            Map<String, Object> body = response.getBody();
+            if (response.getStatusCode().is2xxSuccessful() && body != null
+                    && Boolean.TRUE.equals(body.get("success")) && body.get("results") instanceof List<?> list) {
+                return list;
+            }
+            return null;
+        }, () -> null);
+
+        for (int i = 0; i < batch.size(); i++) {
+            List<Map<String, Object>> recommendations = null;
+            if (results != null && i < results.size() && results.get(i) instanceof Map<?, ?> result) {
+                recommendations = recommendationsOf(result);
+            }
+            batch.get(i).result().complete(recommendations);
+        }
+    }
+
+    // A result of the wrong shape counts as missing, like a failed call
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> recommendationsOf(Map<?, ?> result) {
+        return result.get("recommendations") instanceof List<?> list ? (List<Map<String, Object>>) list : null;
+    }
+}
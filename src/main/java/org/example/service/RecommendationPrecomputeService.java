@@ -0,0 +1,327 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.config.RecommendationPrecomputeProperties;
+import org.example.entity.UserRecommendationSnapshot;
+import org.example.repository.UserRecommendationSnapshotRepository;
+import org.example.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputes every active user's dashboard insights (rule-based
+ * recommendations, next goals, motivational message) and AI service
+ * recommendations each night, one row per user in
+ * {@code user_recommendation_snapshots}.
+ *
+ * Active user ids are read in keyset-paged chunks and the chunks computed
+ * in parallel, at most {@code maxInFlightChunks} at a time. Within a chunk
+ * the AI requests are all submitted before any is awaited, so the
+ * recommendation batcher sends them as a few batched calls. The dashboard
+ * then serves a snapshot with one primary-key lookup while it is younger
+ * than {@code maxAgeHours}, and computes live otherwise. When a user's
+ * analytics change during the day their row is marked evicted, and no
+ * snapshot computed before the mark is served; a snapshot's computation
+ * time is taken before its analytics are read, so one from a run that
+ * overlapped the change stays unserved as well.
+ *
+ * Metrics: recommendations.snapshot.rows, .stale and .oldest.age (gauges,
+ * refreshed after each run and every 15 minutes) and
+ * recommendations.snapshot.lookups (counter, tagged
+ * result=fresh|stale|evicted|missing).
+ */
+@Service
+public class RecommendationPrecomputeService {
+
+    private static final TypeReference<Map<String, Object>> INSIGHTS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<Map<String, Object>>> RECOMMENDATIONS_TYPE = new TypeReference<>() {};
+
+    @Autowired
+    private RecommendationPrecomputeProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserRecommendationSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private RealTimeAnalyticsService analyticsService;
+
+    @Autowired
+    private AIService aiService;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate writeTransaction;
+    private ExecutorService workers;
+    private final AtomicLong snapshotRows = new AtomicLong();
+    private final AtomicLong staleRows = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "precompute-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        Gauge.builder("recommendations.snapshot.rows", snapshotRows, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("recommendations.snapshot.stale", staleRows, AtomicLong::get)
+                .description("Snapshots older than the serving age limit")
+                .register(meterRegistry);
+        Gauge.builder("recommendations.snapshot.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    @Scheduled(cron = "${app.ai.precompute.cron:0 30 2 * * *}")
+    public void precomputeRecommendations() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduledJobRunner.run("precomputeRecommendations", run ->
+            jobLeaseService.runExclusively("precomputeRecommendations", Duration.ofHours(3), Duration.ofMinutes(10), () -> {
+                precomputeAll(run);
+                refreshFreshnessMetrics();
+            })
+        );
+    }
+
+    @Scheduled(fixedDelay = 900000, initialDelay = 60000)
+    public void refreshFreshnessMetrics() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            snapshotRows.set(snapshotRepository.count());
+            staleRows.set(snapshotRepository.countByComputedAtBefore(now.minusHours(properties.getMaxAgeHours())));
+            LocalDateTime oldest = snapshotRepository.findOldestComputedAt();
+            oldestAgeSeconds.set(oldest != null ? Duration.between(oldest, now).getSeconds() : 0);
+        } catch (Exception e) {
+            System.err.println("Error reading recommendation snapshot freshness: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The user's precomputed insights, with the AI recommendations under
+     * "aiRecommendations" and the computation time under "computedAt", if a
+     * snapshot younger than {@code maxAgeHours} exists.
+     */
+    public Optional<Map<String, Object>> findFresh(Long userId) {
+        Optional<UserRecommendationSnapshot> snapshot = snapshotRepository.findById(userId);
+        if (snapshot.isEmpty()) {
+            lookup("missing");
+            return Optional.empty();
+        }
+        if (snapshot.get().getComputedAt().isBefore(LocalDateTime.now().minusHours(properties.getMaxAgeHours()))) {
+            lookup("stale");
+            return Optional.empty();
+        }
+        if (snapshot.get().getEvictedAt() != null
+                && !snapshot.get().getComputedAt().isAfter(snapshot.get().getEvictedAt())) {
+            lookup("evicted");
+            return Optional.empty();
+        }
+
+        try {
+            Map<String, Object> insights = objectMapper.readValue(snapshot.get().getInsights(), INSIGHTS_TYPE);
+            if (snapshot.get().getAiRecommendations() != null) {
+                insights.put("aiRecommendations",
+                    objectMapper.readValue(snapshot.get().getAiRecommendations(), RECOMMENDATIONS_TYPE));
+            }
+            insights.put("computedAt", snapshot.get().getComputedAt().toString());
+            lookup("fresh");
+            return Optional.of(insights);
+        } catch (JsonProcessingException e) {
+            lookup("missing");
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Called when a user's analytics change, so the dashboard stops serving
+     * the old snapshot. Marks the row rather than deleting it: a nightly
+     * chunk that read the analytics before the change and writes afterwards
+     * leaves the mark in place, and its snapshot is not served either.
+     */
+    public void evict(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                if (snapshotRepository.markEvicted(userId, now) == 0) {
+                    snapshotRepository.insertEvictedIfAbsent(userId, now);
+                }
+            });
+        } catch (DataAccessException e) {
+            // The nightly run inserted the user's row at the same moment; mark that one
+            writeTransaction.executeWithoutResult(status -> snapshotRepository.markEvicted(userId, now));
+        }
+    }
+
+    private void precomputeAll(ScheduledJobRunner.JobRun run) {
+        int chunkSize = properties.getChunkSize();
+        int maxInFlight = properties.getMaxInFlightChunks();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long afterId = 0L;
+        try {
+            while (true) {
+                List<Long> chunk = userRepository.findActiveIdsAfter(afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1);
+
+                inFlight.acquireUninterruptibly();
+                workers.execute(() -> {
+                    try {
+                        precomputeChunk(chunk, run);
+                    } catch (Exception e) {
+                        run.itemFailed(e);
+                        System.err.println("Error precomputing recommendations for chunk ending at user "
+                            + chunk.get(chunk.size() - 1) + ": " + e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            // Wait for every submitted chunk to finish
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+    }
+
+    private void precomputeChunk(List<Long> userIds, ScheduledJobRunner.JobRun run) {
+        // Before reading, so an eviction while the chunk runs is never older than the snapshot
+        LocalDateTime computedAt = LocalDateTime.now();
+        Map<Long, Map<String, Object>> insightsByUser = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            try {
+                insightsByUser.put(userId, analyticsService.getPersonalizedAIInsights(userId));
+            } catch (Exception e) {
+                run.itemFailed(e);
+            }
+        }
+
+        // Submit every request before waiting on any, so they leave as batched calls
+        Map<Long, CompletableFuture<List<Map<String, Object>>>> aiByUser = new LinkedHashMap<>();
+        insightsByUser.forEach((userId, insights) -> aiByUser.put(userId, aiService.fetchRecommendations(insights)));
+
+        List<UserRecommendationSnapshot> snapshots = new ArrayList<>(insightsByUser.size());
+        for (Map.Entry<Long, Map<String, Object>> entry : insightsByUser.entrySet()) {
+            try {
+                List<Map<String, Object>> aiRecommendations = aiByUser.get(entry.getKey()).exceptionally(e -> null).join();
+                snapshots.add(new UserRecommendationSnapshot(
+                    entry.getKey(),
+                    objectMapper.writeValueAsString(entry.getValue()),
+                    aiRecommendations != null ? objectMapper.writeValueAsString(aiRecommendations) : null,
+                    computedAt));
+            } catch (JsonProcessingException e) {
+                run.itemFailed(e);
+            }
+        }
+
+        saveSnapshots(snapshots);
+        run.addItems(snapshots.size());
+    }
+
+    /**
+     * Upserts a chunk's snapshots with one SELECT for the chunk: rows from
+     * earlier nights are updated in place, keeping their eviction mark, users
+     * without one are inserted as new, and both are written in JDBC batches.
+     * The rows stay locked until the chunk is written.
+     */
+    void saveSnapshots(List<UserRecommendationSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        try {
+            writeSnapshots(snapshots);
+        } catch (DataAccessException e) {
+            // An eviction inserted one of the users' rows in between; now it is updated instead
+            writeSnapshots(snapshots);
+        }
+    }
+
+    private void writeSnapshots(List<UserRecommendationSnapshot> snapshots) {
+        List<Long> userIds = snapshots.stream().map(UserRecommendationSnapshot::getUserId).toList();
+        writeTransaction.executeWithoutResult(status -> {
+            Map<Long, UserRecommendationSnapshot> existing = new HashMap<>();
+            snapshotRepository.findAllForUpdate(userIds).forEach(snapshot -> existing.put(snapshot.getUserId(), snapshot));
+
+            List<UserRecommendationSnapshot> inserts = new ArrayList<>();
+            for (UserRecommendationSnapshot snapshot : snapshots) {
+                UserRecommendationSnapshot current = existing.get(snapshot.getUserId());
+                if (current == null) {
+                    inserts.add(snapshot);
+                } else {
+                    current.setInsights(snapshot.getInsights());
+                    current.setAiRecommendations(snapshot.getAiRecommendations());
+                    current.setComputedAt(snapshot.getComputedAt());
+                }
+            }
+            snapshotRepository.saveAll(inserts);
+        });
+    }
+
+    private void lookup(String result) {
+        Counter.builder("recommendations.snapshot.lookups")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
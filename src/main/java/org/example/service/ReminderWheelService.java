@@ -0,0 +1,370 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.config.ReminderProperties;
+import org.example.entity.GroupSession;
+import org.example.entity.StudySchedule;
+import org.example.repository.GroupSessionRepository;
+import org.example.repository.StudyScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps every reminder deadline inside the configured horizon in an in-memory
+ * timing wheel and fires them as they come due, instead of polling the
+ * database on a fixed rate.
+ *
+ * The wheel is rebuilt from the database on startup, topped up by a periodic
+ * refill, and kept current by the schedule and session services calling the
+ * {@code on*} hooks whenever they create, update or delete an entity.
+ *
+ * Reminders that come due in the same tick are handed over as one batch.
+ * With digests enabled the batch may also take a student's next reminders
+ * off the wheel and send them early in the same digest; those are remembered
+ * until their own deadline passes so a refill or poll does not put them back.
+ *
+ * Every node keeps its own wheel, but only the holder of the
+ * {@code reminder-wheel} lease sends notifications; a node that takes over
+ * leadership rebuilds its wheel from the database first. The hooks only
+ * reach the wheel of the node that handled the request, so the leader also
+ * re-reads schedules and sessions by {@code updatedAt} every
+ * {@code changePollMillis} to pick up saves made through other nodes.
+ * Deletes on other nodes are not seen, but their reminders find no row to
+ * send for when they fire.
+ */
+@Service
+public class ReminderWheelService {
+
+    public enum ReminderKind {
+        SCHEDULE, SESSION
+    }
+
+    // Identifies one reminder; also the key in the wheel
+    public record Reminder(ReminderKind kind, Long entityId, int leadMinutes) {}
+
+    // One schedule or session
+    private record Tracked(ReminderKind kind, Long entityId) {}
+
+    // The version of a schedule or session the wheel last scheduled
+    private record Seen(LocalDateTime startTime, LocalDateTime updatedAt) {}
+
+    private static final String LEADER_LEASE = "reminder-wheel";
+    // Re-read window behind each poll, for clock skew between nodes and saves committed late
+    private static final Duration CHANGE_OVERLAP = Duration.ofSeconds(30);
+
+    @Autowired
+    private ReminderProperties properties;
+
+    @Autowired
+    private NotificationSchedulerService notificationSchedulerService;
+
+    @Autowired
+    private StudyScheduleRepository studyScheduleRepository;
+
+    @Autowired
+    private GroupSessionRepository groupSessionRepository;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    private HierarchicalTimingWheel<Reminder, Reminder> wheel;
+    private ScheduledExecutorService ticker;
+    private ExecutorService dispatcher;
+    private volatile boolean leader;
+    private volatile LocalDateTime lastChangePoll = LocalDateTime.now();
+    // Last version seen per schedule or session, to tell a move from any other edit
+    private final ConcurrentHashMap<Tracked, Seen> seen = new ConcurrentHashMap<>();
+    // Reminders sent ahead of time in a digest, with the deadline they would have had
+    private final ConcurrentHashMap<Reminder, LocalDateTime> sentEarly = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        wheel = new HierarchicalTimingWheel<>(
+            properties.getTickMillis(),
+            properties.getWheelSize(),
+            properties.getWheelLevels(),
+            System.currentTimeMillis()
+        );
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        leader = jobLeaseService.holdLeadership(LEADER_LEASE, leaderLease());
+        rebuild();
+
+        dispatcher = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "reminder-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reminder-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, properties.getTickMillis(),
+            properties.getTickMillis(), TimeUnit.MILLISECONDS);
+        long leaderCheckMillis = leaderLease().toMillis() / 3;
+        ticker.scheduleAtFixedRate(this::checkLeadership, leaderCheckMillis,
+            leaderCheckMillis, TimeUnit.MILLISECONDS);
+        ticker.scheduleAtFixedRate(this::pollChanges, properties.getChangePollMillis(),
+            properties.getChangePollMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    // Discard the wheel contents and reload every deadline in the horizon
+    public void rebuild() {
+        lastChangePoll = LocalDateTime.now();
+        wheel.clear();
+        seen.clear();
+        loadHorizon();
+    }
+
+    // Top up the wheel as the horizon slides forward
+    @Scheduled(fixedRateString = "${app.notifications.reminders.refill-interval-ms:900000}",
+               initialDelayString = "${app.notifications.reminders.refill-interval-ms:900000}")
+    public void refillHorizon() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduledJobRunner.run("refillReminderHorizon", run -> run.addItems(loadHorizon()));
+    }
+
+    public void onScheduleSaved(StudySchedule schedule) {
+        if (!properties.isEnabled() || schedule == null || schedule.getId() == null) {
+            return;
+        }
+        reschedule(ReminderKind.SCHEDULE, schedule.getId(), schedule.getScheduledTime(), schedule.getUpdatedAt(),
+            !Boolean.TRUE.equals(schedule.getCompleted()), properties.getScheduleLeadMinutes(), true);
+    }
+
+    public void onScheduleDeleted(Long scheduleId) {
+        if (properties.isEnabled() && scheduleId != null) {
+            cancelAll(ReminderKind.SCHEDULE, scheduleId, properties.getScheduleLeadMinutes());
+            seen.remove(new Tracked(ReminderKind.SCHEDULE, scheduleId));
+        }
+    }
+
+    public void onSessionSaved(GroupSession session) {
+        if (!properties.isEnabled() || session == null || session.getId() == null) {
+            return;
+        }
+        reschedule(ReminderKind.SESSION, session.getId(), session.getScheduledTime(), session.getUpdatedAt(),
+            session.getStatus() == GroupSession.SessionStatus.SCHEDULED, properties.getSessionLeadMinutes(), true);
+    }
+
+    public void onSessionDeleted(Long sessionId) {
+        if (properties.isEnabled() && sessionId != null) {
+            cancelAll(ReminderKind.SESSION, sessionId, properties.getSessionLeadMinutes());
+            seen.remove(new Tracked(ReminderKind.SESSION, sessionId));
+        }
+    }
+
+    public int getPendingReminderCount() {
+        return wheel.size();
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    private void checkLeadership() {
+        try {
+            boolean wasLeader = leader;
+            leader = jobLeaseService.holdLeadership(LEADER_LEASE, leaderLease());
+            if (leader && !wasLeader) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            leader = false;
+            System.err.println("Error renewing reminder leadership: " + e.getMessage());
+        }
+    }
+
+    private void pollChanges() {
+        if (!leader) {
+            return;
+        }
+        try {
+            LocalDateTime pollStartedAt = LocalDateTime.now();
+            LocalDateTime since = lastChangePoll.minus(CHANGE_OVERLAP);
+            for (StudySchedule schedule : studyScheduleRepository.findByUpdatedAtAfter(since)) {
+                onScheduleSaved(schedule);
+            }
+            for (GroupSession session : groupSessionRepository.findByUpdatedAtAfter(since)) {
+                onSessionSaved(session);
+            }
+            lastChangePoll = pollStartedAt;
+        } catch (Exception e) {
+            System.err.println("Error polling reminder changes: " + e.getMessage());
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Reminder> dueReminders = wheel.advanceTo(System.currentTimeMillis());
+            if (!leader || dueReminders.isEmpty()) {
+                return;
+            }
+            // Everything due in one tick is sent together so reminders can be combined per student
+            dispatcher.execute(() -> fire(dueReminders));
+        } catch (Exception e) {
+            System.err.println("Error advancing reminder wheel: " + e.getMessage());
+        }
+    }
+
+    private void fire(List<Reminder> reminders) {
+        try {
+            notificationSchedulerService.fireReminders(reminders, this::claimEarly);
+        } catch (Exception e) {
+            System.err.println("Error firing " + reminders.size() + " reminders: " + e.getMessage());
+        }
+    }
+
+    // Takes a reminder off the wheel to send it now; false if it is not pending
+    private synchronized boolean claimEarly(Reminder reminder) {
+        Seen version = seen.get(new Tracked(reminder.kind(), reminder.entityId()));
+        if (version == null || !wheel.cancel(reminder)) {
+            return false;
+        }
+        sentEarly.put(reminder, version.startTime().minusMinutes(reminder.leadMinutes()));
+        return true;
+    }
+
+    // Returns the number of schedules and sessions considered
+    private int loadHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        long horizonMinutes = horizonMillis() / 60_000L;
+        int loaded = 0;
+
+        seen.values().removeIf(version -> version.startTime().isBefore(now));
+        sentEarly.values().removeIf(deadline -> deadline.isBefore(now));
+
+        LocalDateTime scheduleWindowEnd = now.plusMinutes(horizonMinutes + maxLead(properties.getScheduleLeadMinutes()));
+        for (StudySchedule schedule : studyScheduleRepository.findUpcomingSchedulesBetween(now, scheduleWindowEnd)) {
+            reschedule(ReminderKind.SCHEDULE, schedule.getId(), schedule.getScheduledTime(), schedule.getUpdatedAt(),
+                true, properties.getScheduleLeadMinutes(), false);
+            loaded++;
+        }
+
+        LocalDateTime sessionWindowEnd = now.plusMinutes(horizonMinutes + maxLead(properties.getSessionLeadMinutes()));
+        for (GroupSession session : groupSessionRepository.findSessionsBetween(now, sessionWindowEnd)) {
+            reschedule(ReminderKind.SESSION, session.getId(), session.getScheduledTime(), session.getUpdatedAt(),
+                session.getStatus() == GroupSession.SessionStatus.SCHEDULED, properties.getSessionLeadMinutes(), false);
+            loaded++;
+        }
+        return loaded;
+    }
+
+    // Brings an entity's reminders in line with a saved or re-read row. Only a
+    // changed start time, or an entity not seen before when catchUpIfNew is
+    // set, catches up on an overdue reminder; any other edit (a new
+    // description, marking it complete) must not resend one already sent.
+    private synchronized void reschedule(ReminderKind kind, Long entityId, LocalDateTime startTime,
+                                         LocalDateTime updatedAt, boolean active, List<Integer> leads,
+                                         boolean catchUpIfNew) {
+        if (startTime == null) {
+            cancelAll(kind, entityId, leads);
+            return;
+        }
+        Tracked key = new Tracked(kind, entityId);
+        Seen previous = seen.get(key);
+        // A poll can read a row just before this node's own newer save of it
+        if (previous != null && updatedAt != null && previous.updatedAt() != null
+                && updatedAt.isBefore(previous.updatedAt())) {
+            return;
+        }
+        seen.put(key, new Seen(startTime, updatedAt));
+
+        boolean moved = previous != null && !startTime.equals(previous.startTime());
+        if (moved || !active) {
+            cancelAll(kind, entityId, leads);
+        }
+        if (active) {
+            scheduleLeads(kind, entityId, startTime, leads, moved || (previous == null && catchUpIfNew));
+        }
+    }
+
+    // Deadlines already passed are skipped, except that a freshly created or
+    // moved entity still gets its shortest overdue reminder straight away
+    private void scheduleLeads(ReminderKind kind, Long entityId, LocalDateTime startTime,
+                               List<Integer> leads, boolean catchUp) {
+        long now = System.currentTimeMillis();
+        long startMillis = startTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (startMillis <= now) {
+            return;
+        }
+        long horizonEnd = now + horizonMillis();
+        Reminder overdue = null;
+
+        for (int lead : leads) {
+            Reminder reminder = new Reminder(kind, entityId, lead);
+            long deadline = startMillis - lead * 60_000L;
+            if (sentEarly.containsKey(reminder)) {
+                continue;
+            }
+            if (deadline <= now) {
+                if (catchUp && (overdue == null || lead < overdue.leadMinutes())) {
+                    overdue = reminder;
+                }
+            } else if (deadline <= horizonEnd) {
+                wheel.schedule(reminder, deadline, reminder);
+            }
+        }
+
+        if (overdue != null) {
+            wheel.schedule(overdue, now, overdue);
+        }
+    }
+
+    private Duration leaderLease() {
+        return Duration.ofSeconds(properties.getLeaderLeaseSeconds());
+    }
+
+    // Also forgets reminders sent early, so a moved entity is reminded again
+    private void cancelAll(ReminderKind kind, Long entityId, List<Integer> leads) {
+        for (int lead : leads) {
+            Reminder reminder = new Reminder(kind, entityId, lead);
+            wheel.cancel(reminder);
+            sentEarly.remove(reminder);
+        }
+    }
+
+    private long horizonMillis() {
+        return Math.min(properties.getHorizonHours() * 3_600_000L, wheel.capacityMillis());
+    }
+
+    private int maxLead(List<Integer> leads) {
+        return leads.isEmpty() ? 0 : Collections.max(leads);
+    }
+}
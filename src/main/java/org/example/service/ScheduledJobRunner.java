@@ -0,0 +1,180 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.config.SchedulerProperties;
+import org.example.config.SchedulingConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Runs scheduled jobs on a thread of their own with skip-if-running
+ * semantics and per-job metrics.
+ *
+ * A {@code @Scheduled} method calls {@link #run} and returns at once; the job
+ * body runs on a dedicated {@code job-<name>} thread, so one slow job cannot
+ * delay another. A trigger that fires while the previous run is still going
+ * is skipped rather than queued. Failures are counted per job and exception
+ * type instead of being swallowed inside each job; a run whose items all
+ * failed counts as a failed run.
+ *
+ * Metrics, all tagged with {@code job}:
+ * scheduler.job.duration (timer, also tagged outcome),
+ * scheduler.job.lag (timer, how late the trigger fired),
+ * scheduler.job.items (counter), scheduler.job.failures and
+ * scheduler.job.item.failures (counters, also tagged exception),
+ * scheduler.job.skipped (counter, also tagged reason),
+ * scheduler.job.running and scheduler.job.last.success (gauges).
+ */
+@Service
+public class ScheduledJobRunner {
+
+    // Handed to the job body; safe to call from the job's helper threads
+    public static final class JobRun {
+        private final LongAdder items = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> itemFailures = new ConcurrentHashMap<>();
+
+        public void addItems(long count) {
+            items.add(count);
+        }
+
+        // One item failed but the run carries on with the rest
+        public void itemFailed(Exception e) {
+            itemFailures.computeIfAbsent(e.getClass().getSimpleName(), type -> new LongAdder()).increment();
+        }
+    }
+
+    private final class Job {
+        final String name;
+        final AtomicBoolean running = new AtomicBoolean();
+        final AtomicLong lastSuccessEpochSeconds = new AtomicLong();
+        final ThreadPoolExecutor executor;
+        final Timer lag;
+        final Counter items;
+
+        Job(String name) {
+            this.name = name;
+            // At most one thread, started on demand and retired when idle
+            this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "job-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.allowCoreThreadTimeOut(true);
+            this.lag = Timer.builder("scheduler.job.lag").tag("job", name).register(meterRegistry);
+            this.items = Counter.builder("scheduler.job.items").tag("job", name).register(meterRegistry);
+            Gauge.builder("scheduler.job.running", running, flag -> flag.get() ? 1 : 0)
+                    .tag("job", name)
+                    .register(meterRegistry);
+            Gauge.builder("scheduler.job.last.success", lastSuccessEpochSeconds, AtomicLong::get)
+                    .tag("job", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Autowired
+    private SchedulerProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.executor.shutdownNow());
+    }
+
+    /**
+     * Start {@code work} on the job's own thread unless the job is disabled
+     * or its previous run has not finished.
+     *
+     * @return true if the run was started
+     */
+    public boolean run(String jobName, Consumer<JobRun> work) {
+        Job job = jobs.computeIfAbsent(jobName, Job::new);
+        long lagNanos = SchedulingConfig.currentTriggerLagNanos();
+        if (lagNanos >= 0) {
+            job.lag.record(lagNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (properties.getDisabledJobs().contains(jobName)) {
+            skipped(job, "disabled");
+            return false;
+        }
+        if (!job.running.compareAndSet(false, true)) {
+            skipped(job, "running");
+            return false;
+        }
+        try {
+            job.executor.execute(() -> execute(job, work));
+            return true;
+        } catch (RejectedExecutionException e) {
+            job.running.set(false);
+            skipped(job, "rejected");
+            return false;
+        }
+    }
+
+    public boolean isRunning(String jobName) {
+        Job job = jobs.get(jobName);
+        return job != null && job.running.get();
+    }
+
+    private void execute(Job job, Consumer<JobRun> work) {
+        JobRun run = new JobRun();
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            work.accept(run);
+            if (run.items.sum() == 0 && !run.itemFailures.isEmpty()) {
+                outcome = "failure";
+            } else {
+                job.lastSuccessEpochSeconds.set(System.currentTimeMillis() / 1000);
+            }
+        } catch (Exception e) {
+            outcome = "failure";
+            Counter.builder("scheduler.job.failures")
+                    .tag("job", job.name)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            System.err.println("Scheduled job " + job.name + " failed: " + e);
+        } finally {
+            Timer.builder("scheduler.job.duration")
+                    .tag("job", job.name)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            job.items.increment(run.items.sum());
+            run.itemFailures.forEach((exception, count) -> Counter.builder("scheduler.job.item.failures")
+                    .tag("job", job.name)
+                    .tag("exception", exception)
+                    .register(meterRegistry)
+                    .increment(count.sum()));
+            job.running.set(false);
+        }
+    }
+
+    private void skipped(Job job, String reason) {
+        Counter.builder("scheduler.job.skipped")
+                .tag("job", job.name)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Moves the id sequences past ids already in the tables.
+ *
+ * Entities used to get their ids from IDENTITY columns, which forces an
+ * immediate INSERT per entity and so turns off JDBC insert batching. They
+ * now draw ids from one sequence per table in blocks of 50 (pooled-lo), but
+ * a sequence created by the schema update starts at 1 while a table that
+ * was filled through its IDENTITY column already holds higher ids. For each
+ * table this takes one value from the sequence and, if it is not above the
+ * table's highest id, restarts the sequence just past it. Sequences are only
+ * ever moved forward, so re-running is harmless.
+ *
+ * Runs while the application context starts, after the schema update and
+ * before the scheduled jobs, so no insert can draw a stale id. Nodes take
+ * turns under a lease: a node that finds another one migrating waits for it
+ * and then checks the sequences itself, which changes nothing after a
+ * finished migration and completes one whose node died midway.
+ */
+@Component
+public class SequenceIdMigration {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final long RETRY_MILLIS = 1000;
+
+    // Table -> sequence, as declared by each entity's @SequenceGenerator
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "users", "users_seq",
+        "students", "students_seq",
+        "study_groups", "study_groups_seq",
+        "study_schedules", "study_schedules_seq",
+        "group_sessions", "group_sessions_seq",
+        "notifications", "notifications_seq",
+        "notification_outbox", "notification_outbox_seq",
+        "user_analytics", "user_analytics_seq",
+        "student_daily_rollups", "student_daily_rollups_seq"
+    );
+
+    @Value("${app.ids.migrate-sequences-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @PostConstruct
+    public void migrate() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        // Two nodes restarting a sequence at once could both hand out the same block, so they take turns
+        try {
+            while (!jobLeaseService.runExclusively("migrateSequenceIds", LEASE, Duration.ZERO,
+                    () -> SEQUENCES.forEach((table, sequence) -> advance(dialect, table, sequence)))) {
+                Thread.sleep(RETRY_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void advance(Dialect dialect, String table, String sequence) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            if (maxId == null) {
+                return;
+            }
+            Long next = jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+            if (next != null && next <= maxId) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + 1));
+            }
+        } catch (Exception e) {
+            System.err.println("Error moving " + sequence + " past ids in " + table + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical computations: while one caller computes a
+ * value for (name, key), other callers asking for the same pair wait for
+ * that computation and get its result (or its exception) instead of running
+ * their own. Nothing is remembered once the computation finishes; the next
+ * caller computes afresh.
+ *
+ * Results are shared between the coalesced callers and must not be modified.
+ * A computation must not ask for its own (name, key), or it waits on itself.
+ *
+ * Metric: singleflight.calls (counter, tagged name and role=leader|coalesced).
+ */
+@Component
+public class SingleFlight {
+
+    private record Flight(String name, Object key) {}
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param name what is computed, e.g. "analytics.insights"; also the metric tag
+     * @param key  identifies the input, e.g. a user id; must have equals/hashCode
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> computation) {
+        Flight flight = new Flight(name, key);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flight, mine);
+
+        if (existing != null) {
+            count(name, "coalesced");
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+
+        count(name, "leader");
+        try {
+            T result = computation.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, mine);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(cause);
+    }
+
+    private void count(String name, String role) {
+        Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.config.BroadcastProperties;
+import org.example.entity.JobCheckpoint;
+import org.example.repository.JobCheckpointRepository;
+import org.example.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs per-student work over every student id in a range without loading the
+ * ids into memory.
+ *
+ * Ids are streamed from the database, cut into chunks and handed to a bounded
+ * worker pool; at most {@code maxInFlightChunks} chunks exist at any time, so
+ * memory use does not grow with the number of students. Progress is recorded
+ * in {@code job_checkpoints} as the highest id below which every chunk has
+ * finished, and a run interrupted by a restart resumes from there. Chunks that
+ * had finished above the checkpoint are processed again, so chunk work should
+ * tolerate the occasional repeat.
+ */
+@Service
+public class StudentBroadcastService {
+
+    @Autowired
+    private BroadcastProperties properties;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate streamTransaction;
+    private TransactionTemplate checkpointTransaction;
+    private ExecutorService workers;
+
+    @PostConstruct
+    public void init() {
+        streamTransaction = new TransactionTemplate(transactionManager);
+        streamTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        streamTransaction.setReadOnly(true);
+
+        checkpointTransaction = new TransactionTemplate(transactionManager);
+        checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "broadcast-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * Feed every student id in {@code range} to {@code chunkWork} in chunks.
+     * The checkpoint is stored under {@code jobName#partition}; a checkpoint
+     * from the same {@code runKey} is resumed, one from an earlier run is
+     * discarded. A failed chunk stops the partition and is counted against
+     * {@code run}; the next run resumes after the last finished chunk.
+     *
+     * @return number of students processed by this call
+     */
+    public long broadcast(String jobName, String runKey, JobLeaseService.IdRange range,
+                          ScheduledJobRunner.JobRun run, Consumer<List<Long>> chunkWork) {
+        String checkpointName = jobName + "#" + range.partition();
+        JobCheckpoint existing = checkpointRepository.findById(checkpointName)
+                .filter(checkpoint -> runKey.equals(checkpoint.getRunKey()))
+                .orElse(null);
+        if (existing != null && Boolean.TRUE.equals(existing.getCompleted())) {
+            return 0;
+        }
+
+        // Resume with the bounds recorded when the run started, not today's partitioning
+        long startAfter = existing != null ? existing.getLastProcessedId() : range.fromId() - 1;
+        long toId = existing != null ? existing.getToId() : range.toId();
+        long alreadyProcessed = existing != null ? existing.getProcessedCount() : 0L;
+
+        ChunkTracker tracker = new ChunkTracker(checkpointName, runKey, toId, startAfter, alreadyProcessed);
+        tracker.save(false);
+
+        int chunkSize = properties.getChunkSize();
+        int maxInFlight = properties.getMaxInFlightChunks();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        try {
+            streamTransaction.executeWithoutResult(status -> {
+                try (var ids = studentRepository.streamIdsAfter(startAfter, toId)) {
+                    Iterator<Long> iterator = ids.iterator();
+                    List<Long> chunk = new ArrayList<>(chunkSize);
+                    while (iterator.hasNext() && !tracker.hasFailed()) {
+                        chunk.add(iterator.next());
+                        if (chunk.size() == chunkSize) {
+                            submit(chunk, chunkWork, tracker, inFlight);
+                            chunk = new ArrayList<>(chunkSize);
+                        }
+                    }
+                    if (!chunk.isEmpty() && !tracker.hasFailed()) {
+                        submit(chunk, chunkWork, tracker, inFlight);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            tracker.fail(e);
+        } finally {
+            // Wait for every submitted chunk to finish
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+
+        tracker.save(!tracker.hasFailed());
+        if (tracker.hasFailed()) {
+            run.itemFailed(tracker.failure);
+        }
+        return tracker.processed - alreadyProcessed;
+    }
+
+    // True if a run with this key started but some partition has not finished
+    public boolean hasIncompleteRun(String jobName, String runKey) {
+        return checkpointRepository.existsIncompleteRun(jobName, runKey);
+    }
+
+    private void submit(List<Long> chunk, Consumer<List<Long>> chunkWork, ChunkTracker tracker, Semaphore inFlight) {
+        inFlight.acquireUninterruptibly();
+        ChunkTracker.Chunk entry = tracker.register(chunk.get(chunk.size() - 1), chunk.size());
+        try {
+            workers.execute(() -> {
+                try {
+                    chunkWork.accept(chunk);
+                    tracker.complete(entry);
+                } catch (Exception e) {
+                    tracker.fail(e);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            tracker.fail(e);
+        }
+    }
+
+    // Tracks chunks in submission order and advances the checkpoint past the
+    // longest prefix of finished chunks
+    private final class ChunkTracker {
+
+        private final class Chunk {
+            private final long lastId;
+            private final int size;
+            private boolean done;
+
+            private Chunk(long lastId, int size) {
+                this.lastId = lastId;
+                this.size = size;
+            }
+        }
+
+        private final String checkpointName;
+        private final String runKey;
+        private final long toId;
+        private final ArrayDeque<Chunk> pending = new ArrayDeque<>();
+        private long watermark;
+        private long processed;
+        private volatile Exception failure;
+
+        private ChunkTracker(String checkpointName, String runKey, long toId, long watermark, long processed) {
+            this.checkpointName = checkpointName;
+            this.runKey = runKey;
+            this.toId = toId;
+            this.watermark = watermark;
+            this.processed = processed;
+        }
+
+        private synchronized Chunk register(long lastId, int size) {
+            Chunk chunk = new Chunk(lastId, size);
+            pending.addLast(chunk);
+            return chunk;
+        }
+
+        private synchronized void complete(Chunk chunk) {
+            chunk.done = true;
+            boolean advanced = false;
+            while (!pending.isEmpty() && pending.peekFirst().done) {
+                Chunk head = pending.pollFirst();
+                watermark = head.lastId;
+                processed += head.size;
+                advanced = true;
+            }
+            if (advanced) {
+                save(false);
+            }
+        }
+
+        private void fail(Exception e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        private boolean hasFailed() {
+            return failure != null;
+        }
+
+        private synchronized void save(boolean completed) {
+            checkpointTransaction.executeWithoutResult(status -> {
+                JobCheckpoint checkpoint = checkpointRepository.findById(checkpointName)
+                        .orElse(new JobCheckpoint(checkpointName, runKey, watermark, toId));
+                checkpoint.setRunKey(runKey);
+                checkpoint.setToId(toId);
+                checkpoint.setLastProcessedId(watermark);
+                checkpoint.setProcessedCount(processed);
+                checkpoint.setCompleted(completed);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+            });
+        }
+    }
+}
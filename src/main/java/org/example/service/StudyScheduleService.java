@@ -18,6 +18,9 @@ public class StudyScheduleService {
     @Autowired
     private AIService aiService;
 
+    @Autowired
+    private ReminderWheelService reminderWheelService;
+
     public List<StudySchedule> getAllSchedules() {
         return scheduleRepository.findAll();
     }
@@ -53,7 +56,9 @@ public class StudyScheduleService {
         schedule.setAiRecommendations(aiAdvice);
 
         schedule.setUpdatedAt(LocalDateTime.now());
-        return scheduleRepository.save(schedule);
+        StudySchedule saved = scheduleRepository.save(schedule);
+        reminderWheelService.onScheduleSaved(saved);
+        return saved;
     }
 
     // Enhanced AI recommendation generation
@@ -98,13 +103,16 @@ public class StudyScheduleService {
                     schedule.setDescription(updatedSchedule.getDescription());
                     schedule.setCompleted(updatedSchedule.getCompleted());
                     schedule.setUpdatedAt(LocalDateTime.now());
-                    return scheduleRepository.save(schedule);
+                    StudySchedule saved = scheduleRepository.save(schedule);
+                    reminderWheelService.onScheduleSaved(saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Schedule not found with id: " + id));
     }
 
     public void deleteSchedule(Long id) {
         scheduleRepository.deleteById(id);
+        reminderWheelService.onScheduleDeleted(id);
     }
 
     public StudySchedule markAsCompleted(Long id) {
@@ -112,7 +120,9 @@ public class StudyScheduleService {
                 .map(schedule -> {
                     schedule.setCompleted(true);
                     schedule.setUpdatedAt(LocalDateTime.now());
-                    return scheduleRepository.save(schedule);
+                    StudySchedule saved = scheduleRepository.save(schedule);
+                    reminderWheelService.onScheduleSaved(saved);
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Schedule not found with id: " + id));
     }
@@ -0,0 +1,153 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory unread notification counters per student.
+ *
+ * Counters are striped across independently locked LRU segments so the
+ * cache stays bounded and busy students do not contend with each other.
+ * A miss is seeded from the COUNT query; after that NotificationService
+ * adjusts the counter as notifications are created, read and deleted.
+ * Seeding races and changes made by other nodes can leave a counter off by
+ * a little, so a periodic reconciler recounts every cached student.
+ */
+@Component
+public class UnreadCountCache {
+
+    @Value("${app.notifications.unread-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${app.notifications.unread-cache.stripes:64}")
+    private int stripeCount;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    private Stripe[] stripes;
+
+    @PostConstruct
+    public void init() {
+        int perStripe = Math.max(1, maxEntries / stripeCount);
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    public long get(Long studentId, LongSupplier loader) {
+        Stripe stripe = stripeFor(studentId);
+        AtomicLong counter;
+        synchronized (stripe) {
+            counter = stripe.counters.get(studentId);
+        }
+        if (counter != null) {
+            return counter.get();
+        }
+
+        // Load outside the lock so a slow COUNT never blocks other students
+        long loaded = loader.getAsLong();
+        synchronized (stripe) {
+            counter = stripe.counters.putIfAbsent(studentId, new AtomicLong(loaded));
+        }
+        return counter != null ? counter.get() : loaded;
+    }
+
+    // No-op for students that are not cached; they are seeded on the next read
+    public void add(Long studentId, long delta) {
+        AtomicLong counter = peek(studentId);
+        if (counter != null) {
+            counter.updateAndGet(value -> Math.max(0, value + delta));
+        }
+    }
+
+    public void set(Long studentId, long value) {
+        AtomicLong counter = peek(studentId);
+        if (counter != null) {
+            counter.set(Math.max(0, value));
+        }
+    }
+
+    public void invalidate(Long studentId) {
+        Stripe stripe = stripeFor(studentId);
+        synchronized (stripe) {
+            stripe.counters.remove(studentId);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.counters.size();
+            }
+        }
+        return size;
+    }
+
+    // Recount every cached student in batches to correct any drift
+    @Scheduled(fixedDelayString = "${app.notifications.unread-cache.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        scheduledJobRunner.run("reconcileUnreadCounters", run -> {
+            List<Long> cachedIds = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    cachedIds.addAll(stripe.counters.keySet());
+                }
+            }
+
+            for (int from = 0; from < cachedIds.size(); from += 500) {
+                List<Long> batch = cachedIds.subList(from, Math.min(from + 500, cachedIds.size()));
+                Map<Long, Long> counts = new HashMap<>();
+                for (Object[] row : notificationRepository.countUnreadByStudentIds(batch)) {
+                    counts.put((Long) row[0], ((Number) row[1]).longValue());
+                }
+                for (Long studentId : batch) {
+                    set(studentId, counts.getOrDefault(studentId, 0L));
+                }
+                run.addItems(batch.size());
+            }
+        });
+    }
+
+    private AtomicLong peek(Long studentId) {
+        Stripe stripe = stripeFor(studentId);
+        synchronized (stripe) {
+            return stripe.counters.get(studentId);
+        }
+    }
+
+    private Stripe stripeFor(Long studentId) {
+        return stripes[Math.floorMod(Long.hashCode(studentId), stripes.length)];
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<Long, AtomicLong> counters;
+
+        private Stripe(int capacity) {
+            // Access-ordered so the least recently used student is evicted first
+            this.counters = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, AtomicLong> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.config.DeliveryProperties;
+import org.example.entity.NotificationOutbox;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * POSTs a batch of messages as one JSON array to the configured URL; the
+ * recipient is passed through as a topic. Each element carries the outbox id
+ * so the receiver can drop duplicates after a retry. Any non-2xx response
+ * fails the whole batch.
+ */
+@Component
+public class WebhookDeliveryChannel implements DeliveryChannel {
+
+    public static final String NAME = "webhook";
+
+    @Autowired
+    private DeliveryProperties properties;
+
+    private RestTemplate restTemplate;
+
+    @PostConstruct
+    public void init() {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getWebhook().getTimeoutMs());
+        requestFactory.setReadTimeout(properties.getWebhook().getTimeoutMs());
+        restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        String url = properties.getWebhook().getUrl();
+        return properties.getWebhook().isEnabled() && url != null && !url.isBlank();
+    }
+
+    @Override
+    public int getBatchSize() {
+        return properties.getWebhook().getBatchSize();
+    }
+
+    @Override
+    public Map<Long, String> deliver(List<NotificationOutbox> batch) {
+        List<Map<String, Object>> payload = new ArrayList<>(batch.size());
+        for (NotificationOutbox message : batch) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", message.getId());
+            item.put("topic", message.getRecipient());
+            item.put("subject", message.getSubject());
+            item.put("body", message.getBody());
+            item.put("createdAt", message.getCreatedAt().toString());
+            payload.add(item);
+        }
+
+        Map<Long, String> failures = new HashMap<>();
+        try {
+            restTemplate.postForEntity(properties.getWebhook().getUrl(), payload, Void.class);
+        } catch (RestClientException e) {
+            batch.forEach(message -> failures.put(message.getId(), String.valueOf(e)));
+        }
+        return failures;
+    }
+}
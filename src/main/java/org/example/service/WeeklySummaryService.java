@@ -0,0 +1,247 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.example.entity.StudentDailyRollup;
+import org.example.repository.StudentDailyRollupRepository;
+import org.example.repository.StudyScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds weekly progress summaries from per-student daily rollups.
+ *
+ * Rollups hold one row per student, day and subject and are recomputed from
+ * {@code study_schedules} with a single grouped query per day: hourly for
+ * today, nightly for the previous week so late completions are picked up.
+ * The weekly batch then reads a few rows per student instead of scanning raw
+ * schedules, and each summary is plain arithmetic over those rows.
+ *
+ * On startup any days of the lookback window older than the earliest rollup
+ * are rolled up once, so the first summaries after deploy already have a
+ * last week to compare against and a full streak history.
+ */
+@Service
+public class WeeklySummaryService {
+
+    // Rollup days read per student: this week, last week and enough history for the streak
+    private static final int LOOKBACK_DAYS = 28;
+
+    @Autowired
+    private StudentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private StudyScheduleRepository studyScheduleRepository;
+
+    @Autowired
+    private JobLeaseService jobLeaseService;
+
+    @Autowired
+    private ScheduledJobRunner scheduledJobRunner;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer studentLatency;
+    private Timer batchDuration;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        studentLatency = Timer.builder("weekly.summary.student.latency")
+                .description("Time to compute one student's weekly summary")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        batchDuration = Timer.builder("weekly.summary.batch.duration")
+                .description("Duration of the weekly summary batch on this node")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Timer getBatchDuration() {
+        return batchDuration;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRollups() {
+        scheduledJobRunner.run("backfillRollups", run ->
+            jobLeaseService.runExclusively("backfillRollups", Duration.ofHours(1), Duration.ZERO, () -> {
+                LocalDate today = LocalDate.now();
+                LocalDate earliest = rollupRepository.findEarliestRollupDate();
+                LocalDate end = earliest != null && earliest.isBefore(today) ? earliest : today.plusDays(1);
+                for (LocalDate day = today.minusDays(LOOKBACK_DAYS - 1); day.isBefore(end); day = day.plusDays(1)) {
+                    rollUpDay(day, run);
+                }
+            })
+        );
+    }
+
+    // Keep today's rollups close to current
+    @Scheduled(cron = "0 50 * * * *")
+    public void rollUpToday() {
+        scheduledJobRunner.run("rollUpToday", run ->
+            jobLeaseService.runExclusively("rollUpToday", Duration.ofMinutes(30), Duration.ofMinutes(5),
+                () -> rollUpDay(LocalDate.now(), run)));
+    }
+
+    // Recompute the past week each night so completions marked late are counted
+    @Scheduled(cron = "0 15 0 * * *")
+    public void rollUpRecentDays() {
+        scheduledJobRunner.run("rollUpRecentDays", run ->
+            jobLeaseService.runExclusively("rollUpRecentDays", Duration.ofHours(1), Duration.ofMinutes(10), () -> {
+                LocalDate today = LocalDate.now();
+                for (int daysAgo = 7; daysAgo >= 1; daysAgo--) {
+                    rollUpDay(today.minusDays(daysAgo), run);
+                }
+            })
+        );
+    }
+
+    // A day that fails is counted against the run and the rest carry on
+    public void rollUpDay(LocalDate day, ScheduledJobRunner.JobRun run) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                rollupRepository.deleteByRollupDate(day);
+                List<Object[]> rows = studyScheduleRepository.aggregateByStudentAndSubject(
+                        day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                List<StudentDailyRollup> rollups = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    rollups.add(new StudentDailyRollup(
+                        (Long) row[0],
+                        day,
+                        (String) row[1],
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[3]).intValue(),
+                        row[4] != null ? ((Number) row[4]).intValue() : 0
+                    ));
+                }
+                rollupRepository.saveAll(rollups);
+            });
+            run.addItems(1);
+        } catch (Exception e) {
+            run.itemFailed(e);
+        }
+    }
+
+    /**
+     * Summaries for a chunk of students, read with one rollup query.
+     * Students without any rollup rows still get a summary.
+     */
+    public Map<Long, String> summarize(List<Long> studentIds, LocalDate today) {
+        LocalDate from = today.minusDays(LOOKBACK_DAYS - 1);
+        Map<Long, List<StudentDailyRollup>> byStudent = new HashMap<>();
+        for (StudentDailyRollup rollup : rollupRepository.findForStudents(studentIds, from, today)) {
+            byStudent.computeIfAbsent(rollup.getStudentId(), id -> new ArrayList<>()).add(rollup);
+        }
+
+        Map<Long, String> summaries = new LinkedHashMap<>();
+        for (Long studentId : studentIds) {
+            List<StudentDailyRollup> rollups = byStudent.getOrDefault(studentId, List.of());
+            long start = System.nanoTime();
+            summaries.put(studentId, summarizeStudent(rollups, today));
+            studentLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return summaries;
+    }
+
+    private String summarizeStudent(List<StudentDailyRollup> rollups, LocalDate today) {
+        int thisWeekMinutes = 0;
+        int lastWeekMinutes = 0;
+        int planned = 0;
+        int completed = 0;
+        boolean[] studiedOn = new boolean[LOOKBACK_DAYS]; // index = days ago
+        Map<String, Integer> minutesBySubject = new HashMap<>();
+
+        for (StudentDailyRollup rollup : rollups) {
+            int daysAgo = (int) ChronoUnit.DAYS.between(rollup.getRollupDate(), today);
+            if (daysAgo < 0 || daysAgo >= LOOKBACK_DAYS) {
+                continue;
+            }
+            if (rollup.getCompletedSessions() > 0) {
+                studiedOn[daysAgo] = true;
+            }
+            if (daysAgo < 7) {
+                thisWeekMinutes += rollup.getCompletedMinutes();
+                planned += rollup.getPlannedSessions();
+                completed += rollup.getCompletedSessions();
+                minutesBySubject.merge(rollup.getSubject(), rollup.getCompletedMinutes(), Integer::sum);
+            } else if (daysAgo < 14) {
+                lastWeekMinutes += rollup.getCompletedMinutes();
+            }
+        }
+
+        // A streak stays alive until the end of today, so start counting from yesterday if needed
+        int streak = 0;
+        int day = studiedOn[0] ? 0 : 1;
+        while (day < LOOKBACK_DAYS && studiedOn[day]) {
+            streak++;
+            day++;
+        }
+
+        if (planned == 0 && thisWeekMinutes == 0) {
+            return lastWeekMinutes > 0
+                ? String.format("You didn't log any study sessions this week, down from %s last week. " +
+                                "Plan a short session tomorrow to get back on track!", formatHours(lastWeekMinutes))
+                : "You didn't log any study sessions this week. " +
+                  "Plan a short session tomorrow and start building your streak!";
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("This week you studied %s", formatHours(thisWeekMinutes)));
+        int difference = thisWeekMinutes - lastWeekMinutes;
+        if (lastWeekMinutes == 0) {
+            summary.append(" (none last week)");
+        } else if (difference >= 0) {
+            summary.append(String.format(" (%s more than last week)", formatHours(difference)));
+        } else {
+            summary.append(String.format(" (%s less than last week)", formatHours(-difference)));
+        }
+        summary.append(String.format(" and completed %d of %d planned sessions (%d%%).",
+            completed, planned, planned == 0 ? 0 : Math.round(completed * 100f / planned)));
+
+        String topSubject = null;
+        int topMinutes = 0;
+        for (Map.Entry<String, Integer> entry : minutesBySubject.entrySet()) {
+            if (entry.getValue() > topMinutes) {
+                topSubject = entry.getKey();
+                topMinutes = entry.getValue();
+            }
+        }
+        if (topSubject != null) {
+            summary.append(String.format(" Top subject: %s (%s).", topSubject, formatHours(topMinutes)));
+        }
+
+        if (streak >= LOOKBACK_DAYS) {
+            summary.append(String.format(" Current streak: %d+ days. Outstanding consistency!", LOOKBACK_DAYS));
+        } else if (streak > 0) {
+            summary.append(String.format(" Current streak: %d day%s. Keep it going!", streak, streak == 1 ? "" : "s"));
+        } else {
+            summary.append(" Study today to start a new streak!");
+        }
+        return summary.toString();
+    }
+
+    private String formatHours(int minutes) {
+        return String.format("%.1f hours", minutes / 60.0);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+/**
+ * A burst of personalized recommendation requests, each with a slow
+ * database lookup and a slow AI service, must leave
+ * ForkJoinPool.commonPool() free for the rest of the JVM. For contrast the
+ * same blocking work is first put on the common pool directly, which is
+ * what supplyAsync without an executor does: a task queued behind it waits
+ * for all of it.
+ */
+class AIExecutorsStarvationTest {
+
+    private static final long LOOKUP_MS = 50;
+    private static final int BURST = ForkJoinPool.getCommonPoolParallelism() * 10;
+
+    private AIServiceStub stub;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new AIServiceStub(new AIServiceStub.Settings().setLatencyMs(100));
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop();
+    }
+
+    @Test
+    void aiWorkLeavesTheCommonPoolFree() throws Exception {
+        // Before: the blocking lookups on the common pool
+        for (int i = 0; i < BURST; i++) {
+            ForkJoinPool.commonPool().execute(AIExecutorsStarvationTest::lookup);
+        }
+        long starvedMs = commonPoolLatencyMs();
+        ForkJoinPool.commonPool().awaitQuiescence(30, TimeUnit.SECONDS);
+
+        // After: the same burst through AIService
+        Set<String> lookupThreads = ConcurrentHashMap.newKeySet();
+        try (AnnotationConfigApplicationContext context = AIServiceTestContext.start(stub, Map.of())) {
+            RealTimeAnalyticsService analyticsService = context.getBean(RealTimeAnalyticsService.class);
+            Mockito.when(analyticsService.getPersonalizedAIInsights(anyLong())).thenAnswer(invocation -> {
+                lookupThreads.add(Thread.currentThread().getName());
+                lookup();
+                return Map.of("completion_rate", 0.5);
+            });
+            AIService aiService = context.getBean(AIService.class);
+
+            List<CompletableFuture<List<Map<String, Object>>>> requests = new ArrayList<>(BURST);
+            for (long user = 0; user < BURST; user++) {
+                requests.add(aiService.getPersonalizedRecommendationsAsync(user));
+            }
+            long freeMs = commonPoolLatencyMs();
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).get(30, TimeUnit.SECONDS);
+
+            System.out.printf("%d requests, %d ms lookups: a common-pool task waited %d ms with the lookups "
+                    + "on the common pool, %d ms with them on the AI executors%n",
+                BURST, LOOKUP_MS, starvedMs, freeMs);
+            // Queued behind BURST / parallelism rounds of lookups
+            assertThat(starvedMs).isGreaterThanOrEqualTo(5 * LOOKUP_MS);
+            assertThat(freeMs).isLessThan(LOOKUP_MS);
+            assertThat(lookupThreads).isNotEmpty().allSatisfy(name -> assertThat(name).startsWith("ai-blocking-"));
+            assertThat(requests).allSatisfy(request -> assertThat(request.join()).isNotEmpty());
+        }
+    }
+
+    // How long a trivial task submitted to the common pool waits to run
+    private static long commonPoolLatencyMs() throws Exception {
+        long start = System.nanoTime();
+        ForkJoinPool.commonPool().submit(() -> { }).get(30, TimeUnit.SECONDS);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static void lookup() {
+        try {
+            Thread.sleep(LOOKUP_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
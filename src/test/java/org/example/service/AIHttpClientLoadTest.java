@@ -0,0 +1,149 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load against a slow stub where one request in ten hangs far longer than
+ * any timeout. Every call must come back within its endpoint's response
+ * timeout (plus scheduling slack) on both the reactive and the pooled
+ * blocking client, and latency must not creep up as hung requests pile up
+ * on the server side.
+ */
+class AIHttpClientLoadTest {
+
+    private static final long TIMEOUT_MS = 500;
+    private static final long SLACK_MS = 500;
+    private static final int CALLERS = 32;
+    private static final long RUN_MS = 3000;
+
+    private final AIServiceStub.Settings slowBackend = new AIServiceStub.Settings()
+        .setThreads(200)
+        .setDistribution(AIServiceStub.LatencyDistribution.LOG_NORMAL)
+        .setLatencyMs(100)
+        .setSpreadMs(50)
+        .setTimeoutRate(0.1)
+        .setHangMs(10000);
+    private AIServiceStub stub;
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void start() throws Exception {
+        stub = new AIServiceStub(new AIServiceStub.Settings().setThreads(slowBackend.getThreads()));
+        stub.start();
+        context = AIServiceTestContext.start(stub, Map.of(
+            "app.ai.service.endpoint-timeouts.prediction", String.valueOf(TIMEOUT_MS),
+            "app.ai.service.bulkhead-max-concurrent", String.valueOf(CALLERS),
+            // Hung calls count as failures; keep the circuit closed so every call reaches the stub
+            "app.ai.service.circuit-failure-rate-threshold", "100"));
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+        stub.stop();
+    }
+
+    @Test
+    void latencyStaysBoundedWhileTheBackendHangs() throws Exception {
+        AIService aiService = context.getBean(AIService.class);
+        AIHttpClient aiHttpClient = context.getBean(AIHttpClient.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // The first calls load classes and open connections; measure the steady state
+        stub.setSettings(new AIServiceStub.Settings());
+        for (int i = 0; i < 20; i++) {
+            aiService.predictPerformance(Map.of("warm_up", i)).block(Duration.ofSeconds(30));
+            aiHttpClient.restTemplate(AIHttpClient.Endpoint.PREDICTION).postForEntity(
+                aiHttpClient.url(AIHttpClient.Endpoint.PREDICTION),
+                new HttpEntity<>(Map.of("warm_up", i), headers), Map.class);
+        }
+        stub.setSettings(slowBackend);
+
+        List<long[]> samples = Collections.synchronizedList(new ArrayList<>()); // {startedAt, latency} in ms
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        long runStart = System.nanoTime();
+        long deadline = runStart + TimeUnit.MILLISECONDS.toNanos(RUN_MS);
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            boolean reactive = i % 2 == 0;
+            running.add(callers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    if (reactive) {
+                        aiService.predictPerformance(Map.of("study_consistency", 0.9)).block(Duration.ofSeconds(30));
+                    } else {
+                        try {
+                            aiHttpClient.restTemplate(AIHttpClient.Endpoint.PREDICTION).postForEntity(
+                                aiHttpClient.url(AIHttpClient.Endpoint.PREDICTION),
+                                new HttpEntity<>(Map.of("study_consistency", 0.9), headers), Map.class);
+                        } catch (Exception e) {
+                            // A timed out call is an answer too; only its latency matters here
+                        }
+                    }
+                    long end = System.nanoTime();
+                    samples.add(new long[] {
+                        TimeUnit.NANOSECONDS.toMillis(start - runStart), TimeUnit.NANOSECONDS.toMillis(end - start)});
+                }
+                return null;
+            }));
+        }
+        for (Future<?> caller : running) {
+            caller.get(RUN_MS + 30000, TimeUnit.MILLISECONDS);
+        }
+        callers.shutdownNow();
+
+        List<Long> all = latencies(samples, 0, Long.MAX_VALUE);
+        List<Long> firstSecond = latencies(samples, 0, 1000);
+        List<Long> lastSecond = latencies(samples, RUN_MS - 1000, Long.MAX_VALUE);
+        long timedOut = all.stream().filter(latency -> latency >= TIMEOUT_MS).count();
+        System.out.printf("%d calls, %d cut at the timeout; p50 %d ms, p99 %d ms, max %d ms; "
+                + "p99 first second %d ms, last second %d ms%n",
+            all.size(), timedOut, percentile(all, 50), percentile(all, 99), all.get(all.size() - 1),
+            percentile(firstSecond, 99), percentile(lastSecond, 99));
+
+        // The backend hung for some calls, and none of them held its caller past the timeout
+        assertThat(timedOut).isPositive();
+        assertThat(all.get(all.size() - 1)).isLessThanOrEqualTo(TIMEOUT_MS + SLACK_MS);
+        // Hung server-side requests do not make later calls slower
+        assertThat(percentile(lastSecond, 99)).isLessThanOrEqualTo(TIMEOUT_MS + SLACK_MS);
+        assertThat(percentile(lastSecond, 50)).isLessThanOrEqualTo(2 * percentile(firstSecond, 50) + 100);
+
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value())
+            .isEqualTo(50.0);
+    }
+
+    private static List<Long> latencies(List<long[]> samples, long fromMs, long toMs) {
+        synchronized (samples) {
+            return samples.stream()
+                .filter(sample -> sample[0] >= fromMs && sample[0] < toMs)
+                .map(sample -> sample[1])
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
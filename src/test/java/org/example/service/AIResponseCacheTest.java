@@ -0,0 +1,198 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.AIServiceProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The AI response cache with loaders the test completes by hand: fresh
+ * entries served without a call, stale ones served at once while a single
+ * background refresh runs (and kept when it fails), expired ones loaded
+ * again, and concurrent misses for one key sharing a single load.
+ */
+class AIResponseCacheTest {
+
+    private static final AIHttpClient.Endpoint ENDPOINT = AIHttpClient.Endpoint.PREDICTION;
+    private static final Map<String, Object> PAYLOAD = Map.of("user", 1);
+
+    private final AIServiceProperties properties = new AIServiceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Every load the cache starts, for the test to complete
+    private final BlockingQueue<CompletableFuture<String>> loads = new LinkedBlockingQueue<>();
+    private final Supplier<CompletableFuture<String>> loader = () -> {
+        CompletableFuture<String> load = new CompletableFuture<>();
+        loads.add(load);
+        return load;
+    };
+    private AIExecutors aiExecutors;
+    private AIResponseCache cache;
+
+    @BeforeEach
+    void start() {
+        aiExecutors = new AIExecutors();
+        ReflectionTestUtils.setField(aiExecutors, "properties", properties);
+        ReflectionTestUtils.setField(aiExecutors, "meterRegistry", meterRegistry);
+        aiExecutors.init();
+
+        cache = new AIResponseCache();
+        ReflectionTestUtils.setField(cache, "properties", properties);
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "aiExecutors", aiExecutors);
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        cache.init();
+    }
+
+    @AfterEach
+    void stop() {
+        aiExecutors.shutdown();
+    }
+
+    @Test
+    void freshEntriesAreServedWithoutACallWhateverTheMapOrder() throws Exception {
+        properties.setCacheTtlSeconds(60);
+        Map<String, Object> ab = new LinkedHashMap<>();
+        ab.put("a", 1);
+        ab.put("b", 2);
+        Map<String, Object> ba = new LinkedHashMap<>();
+        ba.put("b", 2);
+        ba.put("a", 1);
+
+        CompletableFuture<String> first = cache.getAsync(ENDPOINT, ab, loader);
+        nextLoad().complete("v1");
+
+        assertThat(first.join()).isEqualTo("v1");
+        assertThat(cache.getAsync(ENDPOINT, ba, loader).join()).isEqualTo("v1");
+        assertThat(loads).isEmpty();
+        assertThat(requests("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void staleEntriesAreServedAtOnceWhileOneRefreshRuns() throws Exception {
+        // No TTL, so every read after the first is stale
+        properties.setCacheTtlSeconds(0);
+        properties.setCacheStaleSeconds(60);
+        seed("v1");
+
+        assertThat(cache.getAsync(ENDPOINT, PAYLOAD, loader).join()).isEqualTo("v1");
+        CompletableFuture<String> refresh = nextLoad();
+        assertThat(cache.getAsync(ENDPOINT, PAYLOAD, loader).join()).isEqualTo("v1");
+        assertThat(loads.poll(100, TimeUnit.MILLISECONDS)).isNull();
+
+        refresh.complete("v2");
+        awaitRefreshes(1);
+
+        assertThat(cache.getAsync(ENDPOINT, PAYLOAD, loader).join()).isEqualTo("v2");
+        assertThat(requests("stale")).isEqualTo(3);
+    }
+
+    @Test
+    void aFailedRefreshKeepsTheStaleAnswer() throws Exception {
+        properties.setCacheTtlSeconds(0);
+        properties.setCacheStaleSeconds(60);
+        seed("v1");
+
+        cache.getAsync(ENDPOINT, PAYLOAD, loader).join();
+        nextLoad().completeExceptionally(new IllegalStateException("AI service down"));
+        awaitRefreshes(1);
+        // A null answer is a failure too and is not cached
+        cache.getAsync(ENDPOINT, PAYLOAD, loader).join();
+        nextLoad().complete(null);
+        awaitRefreshes(2);
+
+        assertThat(cache.getAsync(ENDPOINT, PAYLOAD, loader).join()).isEqualTo("v1");
+        assertThat(meterRegistry.counter("ai.cache.refreshes",
+            "endpoint", ENDPOINT.getKey(), "outcome", "failure").count()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredEntriesAreLoadedAgain() throws Exception {
+        properties.setCacheTtlSeconds(0);
+        properties.setCacheStaleSeconds(0);
+        seed("v1");
+
+        CompletableFuture<String> reload = cache.getAsync(ENDPOINT, PAYLOAD, loader);
+
+        assertThat(reload).isNotDone();
+        nextLoad().complete("v2");
+        assertThat(reload.join()).isEqualTo("v2");
+        assertThat(requests("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        properties.setCacheTtlSeconds(60);
+
+        List<CompletableFuture<String>> waiting = List.of(
+            cache.getAsync(ENDPOINT, PAYLOAD, loader),
+            cache.getAsync(ENDPOINT, PAYLOAD, loader),
+            cache.getAsync(ENDPOINT, PAYLOAD, loader));
+        CompletableFuture<String> load = nextLoad();
+
+        assertThat(loads).isEmpty();
+        assertThat(waiting).noneMatch(CompletableFuture::isDone);
+        load.complete("v1");
+
+        assertThat(waiting).extracting(CompletableFuture::join).containsOnly("v1");
+        assertThat(cache.getAsync(ENDPOINT, PAYLOAD, loader).join()).isEqualTo("v1");
+        assertThat(loads).isEmpty();
+        assertThat(requests("miss")).isEqualTo(1);
+        assertThat(requests("coalesced")).isEqualTo(2);
+    }
+
+    @Test
+    void aFailedSharedLoadFailsEveryWaiterAndIsNotRemembered() throws Exception {
+        properties.setCacheTtlSeconds(60);
+        CompletableFuture<String> first = cache.getAsync(ENDPOINT, PAYLOAD, loader);
+        CompletableFuture<String> second = cache.getAsync(ENDPOINT, PAYLOAD, loader);
+
+        nextLoad().completeExceptionally(new IllegalStateException("AI service down"));
+
+        assertThatThrownBy(first::join).hasRootCauseMessage("AI service down");
+        assertThatThrownBy(second::join).hasRootCauseMessage("AI service down");
+        CompletableFuture<String> retry = cache.getAsync(ENDPOINT, PAYLOAD, loader);
+        nextLoad().complete("v1");
+        assertThat(retry.join()).isEqualTo("v1");
+    }
+
+    private void seed(String value) throws InterruptedException {
+        CompletableFuture<String> first = cache.getAsync(ENDPOINT, PAYLOAD, loader);
+        nextLoad().complete(value);
+        first.join();
+    }
+
+    // Refreshes start on the cache's refresher thread, so wait for them
+    private CompletableFuture<String> nextLoad() throws InterruptedException {
+        CompletableFuture<String> load = loads.poll(5, TimeUnit.SECONDS);
+        assertThat(load).as("a load was started").isNotNull();
+        return load;
+    }
+
+    // The refresher may still be finishing one after its load completes
+    private void awaitRefreshes(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.find("ai.cache.refreshes").counters().stream().mapToDouble(c -> c.count()).sum() < count) {
+            assertThat(System.currentTimeMillis()).as("refresh finished").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private double requests(String result) {
+        return meterRegistry.counter("ai.cache.requests", "endpoint", ENDPOINT.getKey(), "result", result).count();
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Responses recorded from the Python AI service (ai-service/app.py), kept
+ * under src/test/resources/ai-service. They were captured by calling the
+ * route functions with the request bodies below and random seeded with
+ * 20261019, so re-recording gives the same files:
+ * <pre>
+ *   health                  GET
+ *   recommendations         {"completion_rate": 0.5, "average_session_time": 150}
+ *   recommendations-batch   {"requests": [{"completion_rate": 0.5}, {"completion_rate": 0.9, "average_session_time": 60}]}
+ *   analytics               {"consistent_schedule": true, "regular_breaks": true}
+ *   schedule-optimize       {"preferred_times": ["09:00"]}
+ *   prediction-performance  {"study_consistency": 0.9}
+ * </pre>
+ */
+final class AIServiceFixtures {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private AIServiceFixtures() {
+    }
+
+    static Map<String, Object> load(String name) {
+        try (InputStream in = AIServiceFixtures.class.getResourceAsStream("/ai-service/" + name + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("No recorded response " + name);
+            }
+            return OBJECT_MAPPER.readValue(in, new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // JSON round trip, so Java values compare with recorded ones as the client would see them
+    static Map<String, Object> asJson(Object value) {
+        return OBJECT_MAPPER.convertValue(value, new TypeReference<Map<String, Object>>() {});
+    }
+
+    /**
+     * The structure of a JSON value without its contents: objects become
+     * their keys (sorted) with the shape of each value, lists the shape of
+     * their first element, and scalars their JSON type.
+     */
+    static Object shape(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> shape = new TreeMap<>();
+            map.forEach((key, child) -> shape.put(String.valueOf(key), shape(child)));
+            return shape;
+        }
+        if (value instanceof List<?> list) {
+            return list.isEmpty() ? List.of() : List.of(shape(list.get(0)));
+        }
+        if (value instanceof Number) {
+            return "number";
+        }
+        if (value instanceof Boolean) {
+            return "boolean";
+        }
+        return value == null ? "null" : "string";
+    }
+}
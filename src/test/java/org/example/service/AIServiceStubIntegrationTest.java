@@ -0,0 +1,80 @@
+package org.example.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * AIService and its HTTP client, guard, cache and batcher against a running
+ * stub, without the rest of the application. The local fallback is off, so
+ * every answer checked here came over the wire.
+ */
+class AIServiceStubIntegrationTest {
+
+    private static AIServiceStub stub;
+    private static AnnotationConfigApplicationContext context;
+    private static AIService aiService;
+
+    @BeforeAll
+    static void start() throws Exception {
+        stub = new AIServiceStub(new AIServiceStub.Settings());
+        stub.start();
+        context = AIServiceTestContext.start(stub, Map.of());
+        aiService = context.getBean(AIService.class);
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+        stub.stop();
+    }
+
+    private final LocalAIEngine engine = new LocalAIEngine();
+
+    @Test
+    void optimizedScheduleIsAdaptedFromTheServiceList() {
+        long before = stub.getRequestCount("/api/schedule/optimize");
+
+        Map<String, Object> optimized = aiService.optimizeSchedule(Map.of("preferred_times", List.of("09:00")))
+            .block(Duration.ofSeconds(5));
+
+        assertThat(stub.getRequestCount("/api/schedule/optimize")).isEqualTo(before + 1);
+        assertThat(optimized).containsOnlyKeys("schedule", "optimization_score");
+        assertThat(AIServiceFixtures.asJson(optimized))
+            .isEqualTo(AIServiceFixtures.asJson(engine.optimizeSchedule(Map.of())));
+    }
+
+    @Test
+    void recommendationsComeBackThroughTheBatcher() throws Exception {
+        long before = stub.getRequestCount("/api/recommendations/batch");
+        Map<String, Object> userAnalytics = Map.of("completion_rate", 0.5);
+
+        List<Map<String, Object>> recommendations = aiService.fetchRecommendations(userAnalytics).get(5, TimeUnit.SECONDS);
+
+        assertThat(stub.getRequestCount("/api/recommendations/batch")).isGreaterThan(before);
+        assertThat(AIServiceFixtures.asJson(Map.of("r", recommendations)))
+            .isEqualTo(AIServiceFixtures.asJson(Map.of("r", engine.generateRecommendations(userAnalytics))));
+    }
+
+    @Test
+    void predictionAndAnalyticsAreReadFromTheirFields() {
+        Map<String, Object> prediction = aiService.predictPerformance(Map.of("study_consistency", 0.9))
+            .block(Duration.ofSeconds(5));
+        assertThat(prediction).containsKeys("predicted_score", "confidence", "factors", "recommendations");
+        assertThat(prediction.get("predicted_score"))
+            .isEqualTo(engine.predictPerformance(Map.of("study_consistency", 0.9)).get("predicted_score"));
+
+        Map<String, Object> analytics = aiService.analyzeStudyDataAsync(
+                Map.of("consistent_schedule", true, "regular_breaks", true))
+            .block(Duration.ofSeconds(5));
+        assertThat(analytics).containsEntry("efficiency", 88);
+    }
+}
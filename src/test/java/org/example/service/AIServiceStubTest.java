@@ -0,0 +1,99 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the stub and checks every endpoint answers in the shape recorded
+ * from the Python service, so code tested against the stub sees what it
+ * will see in production.
+ */
+class AIServiceStubTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private AIServiceStub stub;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new AIServiceStub(new AIServiceStub.Settings().setThreads(4));
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop();
+    }
+
+    @Test
+    void endpointsAnswerInTheRecordedShapes() throws Exception {
+        assertSameShape("health", get("/health"));
+        assertSameShape("recommendations", post("/api/recommendations",
+            "{\"completion_rate\": 0.5, \"average_session_time\": 150}"));
+        assertSameShape("recommendations-batch", post("/api/recommendations/batch",
+            "{\"requests\": [{\"completion_rate\": 0.5}, {\"completion_rate\": 0.9, \"average_session_time\": 60}]}"));
+        assertSameShape("analytics", post("/api/analytics",
+            "{\"consistent_schedule\": true, \"regular_breaks\": true}"));
+        assertSameShape("schedule-optimize", post("/api/schedule/optimize", "{\"preferred_times\": [\"09:00\"]}"));
+        assertSameShape("prediction-performance", post("/api/prediction/performance", "{\"study_consistency\": 0.9}"));
+    }
+
+    @Test
+    void batchAnswersEachRequestInOrder() throws Exception {
+        HttpResponse<String> response = post("/api/recommendations/batch",
+            "{\"requests\": [{}, {\"completion_rate\": 0.5}, {}]}");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("Improve Task Completion");
+        assertThat(stub.getRequestCount("/api/recommendations/batch")).isEqualTo(1);
+        assertThat(stub.getRequestCount("/api/recommendations")).isZero();
+    }
+
+    @Test
+    void injectedFailuresAndLatencyApplyToARunningStub() throws Exception {
+        stub.setSettings(new AIServiceStub.Settings().setErrorRate(1));
+        HttpResponse<String> failed = post("/api/recommendations", "{}");
+        assertThat(failed.statusCode()).isEqualTo(500);
+        assertThat(failed.body()).contains("\"success\":false");
+
+        stub.setSettings(new AIServiceStub.Settings().setLatencyMs(200));
+        long start = System.nanoTime();
+        assertThat(post("/api/recommendations", "{}").statusCode()).isEqualTo(200);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+        // Health checks are never delayed or failed
+        assertThat(get("/health").statusCode()).isEqualTo(200);
+    }
+
+    private void assertSameShape(String recorded, HttpResponse<String> response) throws Exception {
+        assertThat(response.statusCode()).as(recorded).isEqualTo(200);
+        Object served = objectMapper.readValue(response.body(), Object.class);
+        assertThat(AIServiceFixtures.shape(served)).as(recorded)
+            .isEqualTo(AIServiceFixtures.shape(AIServiceFixtures.load(recorded)));
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + stub.getPort() + path);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.AIServiceProperties;
+import org.mockito.Mockito;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The AI request path (AIService with its HTTP client, guard, cache,
+ * batcher and pools) without the rest of the application, for tests that
+ * run it against an {@link AIServiceStub}.
+ */
+final class AIServiceTestContext {
+
+    @Configuration
+    @EnableConfigurationProperties
+    @Import({AIServiceProperties.class, AIHttpClient.class, AIServiceGuard.class, AIHealthProber.class,
+        AIResponseCache.class, AIExecutors.class, RecommendationBatcher.class, LocalAIEngine.class, AIService.class})
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    private AIServiceTestContext() {
+    }
+
+    /**
+     * Starts a context pointed at the running stub, with the local fallback
+     * and the cache off so every answer comes over the wire. The
+     * app.ai.service.* properties given override those defaults; the
+     * analytics service is a mock.
+     */
+    static AnnotationConfigApplicationContext start(AIServiceStub stub, Map<String, Object> properties) {
+        Map<String, Object> all = new HashMap<>();
+        all.put("app.ai.service.url", "http://localhost:" + stub.getPort());
+        all.put("app.ai.service.local-fallback", "false");
+        all.put("app.ai.service.cache-enabled", "false");
+        all.putAll(properties);
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", all));
+        // A ready-made singleton, so nothing is injected into the mock
+        context.getBeanFactory().registerSingleton("realTimeAnalyticsService", Mockito.mock(RealTimeAnalyticsService.class));
+        context.register(Config.class);
+        context.refresh();
+        return context;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.GroupSession;
+import org.example.entity.Notification;
+import org.example.entity.Student;
+import org.example.entity.StudyGroup;
+import org.example.entity.StudySchedule;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk inserts of schedules, notifications and group sessions with their
+ * attendees, with ids from IDENTITY columns (as before, mapped through
+ * benchmark/identity-ids-orm.xml) and from pooled-lo sequences (as now).
+ * IDENTITY needs each row's INSERT run on its own to learn the id;
+ * sequences let Hibernate send the inserts in batches of 20.
+ */
+class BulkInsertBenchmarkTest {
+
+    private static final int SCHEDULES = 1000;
+    private static final int NOTIFICATIONS = 1000;
+    private static final int SESSIONS = 200;
+    private static final int ATTENDEES = 5;
+    private static final int ROUNDS = 3;
+
+    private record Result(long statements, long bestMs) {}
+
+    @Test
+    void sequencesBatchTheInserts() {
+        Result identity = run(Map.of(JpaTestContext.MAPPING_RESOURCE, "benchmark/identity-ids-orm.xml"));
+        Result sequences = run(Map.of());
+
+        System.out.printf("%d schedules, %d notifications, %d sessions x %d attendees per round, best of %d:%n"
+                + "  IDENTITY:           %d prepared statements, %d ms%n"
+                + "  pooled-lo sequence: %d prepared statements, %d ms%n",
+            SCHEDULES, NOTIFICATIONS, SESSIONS, ATTENDEES, ROUNDS,
+            identity.statements(), identity.bestMs(), sequences.statements(), sequences.bestMs());
+        int rows = SCHEDULES + NOTIFICATIONS + SESSIONS;
+        assertThat(identity.statements()).isGreaterThanOrEqualTo(rows);
+        // Batches of 20 plus one sequence call per 50 ids
+        assertThat(sequences.statements()).isLessThanOrEqualTo(rows / 5);
+    }
+
+    private Result run(Map<String, Object> properties) {
+        try (AnnotationConfigApplicationContext context = JpaTestContext.start(properties)) {
+            EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            Statistics statistics = JpaTestContext.statistics(context);
+
+            Long[] ids = transaction.execute(status -> {
+                Student student = new Student("bench@example.org", "Bench", "secret");
+                entityManager.persist(student);
+                StudyGroup group = new StudyGroup("Bench group", "Mathematics", student);
+                entityManager.persist(group);
+                return new Long[] {student.getId(), group.getId()};
+            });
+
+            long statements = 0;
+            long bestNanos = Long.MAX_VALUE;
+            // The first round warms up; the statement count is the same every round
+            for (int round = 0; round <= ROUNDS; round++) {
+                statistics.clear();
+                long start = System.nanoTime();
+                transaction.executeWithoutResult(status -> insertRound(entityManager, ids[0], ids[1]));
+                long elapsed = System.nanoTime() - start;
+                if (round > 0) {
+                    bestNanos = Math.min(bestNanos, elapsed);
+                    statements = statistics.getPrepareStatementCount();
+                }
+            }
+            return new Result(statements, bestNanos / 1_000_000);
+        }
+    }
+
+    private static void insertRound(EntityManager entityManager, Long studentId, Long groupId) {
+        Student student = entityManager.getReference(Student.class, studentId);
+        StudyGroup group = entityManager.getReference(StudyGroup.class, groupId);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        for (int i = 0; i < SCHEDULES; i++) {
+            StudySchedule schedule = new StudySchedule("Mathematics", "Topic " + i, start.plusMinutes(i), 60,
+                "MEDIUM", "REVIEW");
+            schedule.setStudent(student);
+            entityManager.persist(schedule);
+        }
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            entityManager.persist(new Notification(studentId, "Reminder " + i, "Study starts soon",
+                Notification.NotificationType.SCHEDULE_REMINDER));
+        }
+        for (int i = 0; i < SESSIONS; i++) {
+            GroupSession session = new GroupSession("Session " + i, group, start.plusHours(i));
+            for (long attendee = 1; attendee <= ATTENDEES; attendee++) {
+                session.getAttendeeIds().add(attendee);
+            }
+            entityManager.persist(session);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
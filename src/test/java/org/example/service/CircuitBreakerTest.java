@@ -0,0 +1,125 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The breaker's transitions: opening on the failure rate once the window
+ * holds enough calls, rejecting while open, the limited half-open trial,
+ * closing with a fresh window or opening again, and failures ageing out
+ * of the rolling window.
+ */
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50;
+
+    private final List<String> transitions = new ArrayList<>();
+
+    // 50% over at least 4 calls in a 10 s window, two trial calls when half open
+    private final CircuitBreaker breaker = breaker(10);
+
+    @Test
+    void opensOnlyOnceTheWindowHoldsEnoughCalls() {
+        fail(3);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        succeed(1);
+        fail(1);
+
+        // 4 failures out of 5
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(transitions).containsExactly("CLOSED->OPEN");
+    }
+
+    @Test
+    void staysClosedBelowTheFailureRate() {
+        succeed(6);
+        fail(5);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(transitions).isEmpty();
+    }
+
+    @Test
+    void halfOpenLetsOnlyTheTrialCallsThroughAndClosesWhenTheySucceed() throws InterruptedException {
+        fail(4);
+        Thread.sleep(OPEN_MILLIS + 10);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+        // The window starts empty, so the failures from before the outage no longer count
+        fail(3);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void aFailedTrialOpensTheBreakerAgain() throws InterruptedException {
+        fail(4);
+        Thread.sleep(OPEN_MILLIS + 10);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN");
+    }
+
+    @Test
+    void anAbandonedTrialFreesItsSlot() throws InterruptedException {
+        fail(4);
+        Thread.sleep(OPEN_MILLIS + 10);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void failuresAgeOutOfTheRollingWindow() throws InterruptedException {
+        CircuitBreaker shortWindow = breaker(1);
+        for (int i = 0; i < 3; i++) {
+            shortWindow.onFailure();
+        }
+
+        // Past the one-second bucket the earlier failures are gone
+        Thread.sleep(2000);
+        shortWindow.onFailure();
+
+        assertThat(shortWindow.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private CircuitBreaker breaker(int windowSeconds) {
+        return new CircuitBreaker(50, 4, windowSeconds, OPEN_MILLIS, 2,
+            (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onSuccess();
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+}
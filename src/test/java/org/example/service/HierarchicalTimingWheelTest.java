@@ -0,0 +1,107 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ticking, cascading between levels, rescheduling and capacity of the timing
+ * wheel, driven by hand so no test waits on a real clock.
+ */
+class HierarchicalTimingWheelTest {
+
+    // 10 ms ticks, 8 slots per level, 3 levels: level slots cover 10 ms, 80 ms and 640 ms
+    private final HierarchicalTimingWheel<String, String> wheel = new HierarchicalTimingWheel<>(10, 8, 3, 0);
+
+    @Test
+    void entriesExpireOnTheirTickAndNotBefore() {
+        wheel.schedule("a", 20, "a");
+        // Rounded up to the 30 ms tick, so it never fires early
+        wheel.schedule("b", 25, "b");
+
+        assertThat(wheel.advanceTo(19)).isEmpty();
+        assertThat(wheel.advanceTo(29)).containsExactly("a");
+        assertThat(wheel.advanceTo(30)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void farDeadlinesCascadeDownToTheExactTick() {
+        // 1230 ms sits in the top level, 130 ms in the middle one
+        wheel.schedule("far", 1230, "far");
+        wheel.schedule("mid", 130, "mid");
+
+        assertThat(wheel.advanceTo(129)).isEmpty();
+        assertThat(wheel.advanceTo(130)).containsExactly("mid");
+        assertThat(wheel.advanceTo(1229)).isEmpty();
+        assertThat(wheel.advanceTo(1230)).containsExactly("far");
+    }
+
+    @Test
+    void everyDeadlineWithinCapacityFiresOnItsTick() {
+        long capacity = wheel.capacityMillis();
+        for (long deadline = 10; deadline <= capacity; deadline += 10) {
+            wheel.schedule("k" + deadline, deadline, "k" + deadline);
+        }
+
+        List<String> order = new ArrayList<>();
+        for (long now = 0; now <= capacity; now += 10) {
+            List<String> expired = wheel.advanceTo(now);
+            assertThat(expired).containsExactlyElementsOf(now == 0 ? List.of() : List.of("k" + now));
+            order.addAll(expired);
+        }
+        assertThat(order).hasSize((int) (capacity / 10));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void largeJumpsReturnEverythingDueInDeadlineOrder() {
+        wheel.schedule("c", 900, "c");
+        wheel.schedule("a", 15, "a");
+        wheel.schedule("b", 300, "b");
+
+        assertThat(wheel.advanceTo(5000)).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void reschedulingAndCancellingReplaceTheEntry() {
+        wheel.schedule("a", 500, "first");
+        wheel.schedule("a", 50, "second");
+        wheel.schedule("b", 60, "b");
+        assertThat(wheel.cancel("b")).isTrue();
+        assertThat(wheel.cancel("b")).isFalse();
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advanceTo(1000)).containsExactly("second");
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        wheel.advanceTo(200);
+        wheel.schedule("late", 100, "late");
+
+        assertThat(wheel.contains("late")).isTrue();
+        assertThat(wheel.advanceTo(200)).containsExactly("late");
+        assertThat(wheel.contains("late")).isFalse();
+    }
+
+    @Test
+    void deadlinesBeyondCapacityAreRejected() {
+        assertThat(wheel.capacityMillis()).isEqualTo(5110);
+        assertThat(wheel.schedule("edge", 5110, "edge")).isTrue();
+        assertThat(wheel.schedule("over", 5120, "over")).isFalse();
+        assertThat(wheel.contains("over")).isFalse();
+    }
+
+    @Test
+    void invalidDimensionsAreRejected() {
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String, String>(0, 8, 3, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HierarchicalTimingWheel<String, String>(10, 1, 3, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.service;
+
+import org.example.config.SchedulerProperties;
+import org.example.repository.JobLeaseRepository;
+import org.example.repository.SchedulerNodeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several nodes sharing one database: only one wins a new lease even when
+ * all of them create its row at the same moment, a held lease keeps the
+ * others out, and an expired one can be taken over.
+ */
+class JobLeaseServiceTest {
+
+    private static final Duration HOLD = Duration.ofMinutes(1);
+
+    private AnnotationConfigApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void start() {
+        context = JpaTestContext.start(Map.of());
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void onlyOneNodeWinsARaceToCreateTheLease() throws Exception {
+        int nodes = 8;
+        List<JobLeaseService> services = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            services.add(node("node-" + i));
+        }
+        CyclicBarrier barrier = new CyclicBarrier(nodes);
+        AtomicInteger runs = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(nodes);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (JobLeaseService service : services) {
+                results.add(pool.submit(() -> {
+                    barrier.await(5, TimeUnit.SECONDS);
+                    return service.runExclusively("race", HOLD, HOLD, runs::incrementAndGet);
+                }));
+            }
+            int won = 0;
+            for (Future<Boolean> result : results) {
+                won += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            assertThat(won).isEqualTo(1);
+            assertThat(runs).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_leases", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void aHeldLeaseKeepsOtherNodesOutUntilItExpires() {
+        JobLeaseService a = node("a");
+        JobLeaseService b = node("b");
+
+        // Released after the task, but kept for lockAtLeastFor
+        assertThat(a.runExclusively("nightly", HOLD, HOLD, () -> { })).isTrue();
+        assertThat(b.runExclusively("nightly", HOLD, HOLD, () -> { })).isFalse();
+        assertThat(a.runExclusively("nightly", HOLD, HOLD, () -> { })).isFalse();
+
+        expire("nightly");
+        assertThat(b.runExclusively("nightly", HOLD, Duration.ZERO, () -> { })).isTrue();
+        assertThat(owner("nightly")).isEqualTo("b");
+    }
+
+    @Test
+    void whileTheTaskRunsTheLeaseIsHeld() {
+        JobLeaseService a = node("a");
+        JobLeaseService b = node("b");
+        AtomicInteger nested = new AtomicInteger();
+
+        a.runExclusively("job", HOLD, Duration.ZERO, () -> {
+            if (b.runExclusively("job", HOLD, Duration.ZERO, nested::incrementAndGet)) {
+                nested.incrementAndGet();
+            }
+        });
+
+        assertThat(nested).hasValue(0);
+        // Released with no lockAtLeastFor, so the next run is free to take it
+        assertThat(b.runExclusively("job", HOLD, Duration.ZERO, () -> { })).isTrue();
+    }
+
+    @Test
+    void leadershipIsRenewedByItsHolderAndTakenOverOnceExpired() {
+        JobLeaseService a = node("a");
+        JobLeaseService b = node("b");
+
+        assertThat(a.holdLeadership("leader", HOLD)).isTrue();
+        assertThat(a.holdLeadership("leader", HOLD)).isTrue();
+        assertThat(b.holdLeadership("leader", HOLD)).isFalse();
+
+        expire("leader");
+        assertThat(b.holdLeadership("leader", HOLD)).isTrue();
+        assertThat(a.holdLeadership("leader", HOLD)).isFalse();
+        assertThat(owner("leader")).isEqualTo("b");
+    }
+
+    @Test
+    void disabledLeasesRunEverywhere() {
+        JobLeaseService a = node("a");
+        JobLeaseService b = node("b");
+        ((SchedulerProperties) ReflectionTestUtils.getField(a, "properties")).setLeasesEnabled(false);
+        ((SchedulerProperties) ReflectionTestUtils.getField(b, "properties")).setLeasesEnabled(false);
+
+        assertThat(a.runExclusively("job", HOLD, HOLD, () -> { })).isTrue();
+        assertThat(b.runExclusively("job", HOLD, HOLD, () -> { })).isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM job_leases", Integer.class)).isZero();
+    }
+
+    private JobLeaseService node(String nodeId) {
+        SchedulerProperties properties = new SchedulerProperties();
+        properties.setNodeId(nodeId);
+        JobLeaseService service = new JobLeaseService();
+        ReflectionTestUtils.setField(service, "properties", properties);
+        ReflectionTestUtils.setField(service, "jobLeaseRepository", context.getBean(JobLeaseRepository.class));
+        ReflectionTestUtils.setField(service, "schedulerNodeRepository", context.getBean(SchedulerNodeRepository.class));
+        ReflectionTestUtils.setField(service, "transactionManager", context.getBean(PlatformTransactionManager.class));
+        service.init();
+        return service;
+    }
+
+    private void expire(String jobName) {
+        jdbcTemplate.update("UPDATE job_leases SET lease_until = DATEADD('SECOND', -1, CURRENT_TIMESTAMP) WHERE job_name = ?",
+            jobName);
+    }
+
+    private String owner(String jobName) {
+        return jdbcTemplate.queryForObject("SELECT owner FROM job_leases WHERE job_name = ?", String.class, jobName);
+    }
+}
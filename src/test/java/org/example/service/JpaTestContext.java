@@ -0,0 +1,108 @@
+package org.example.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.repository.GroupSessionRepository;
+import org.example.repository.JobLeaseRepository;
+import org.example.repository.NotificationOutboxRepository;
+import org.example.repository.NotificationRepository;
+import org.example.repository.SchedulerNodeRepository;
+import org.example.repository.StudentRepository;
+import org.example.repository.StudyScheduleRepository;
+import org.example.repository.UserRecommendationSnapshotRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Every entity on a fresh in-memory H2 database, with the JPA settings of
+ * application.properties (pooled-lo sequences, batches of 20, ordered
+ * inserts) and Hibernate statistics on, without the rest of the
+ * application. Repositories are limited to the ones the tests use.
+ */
+final class JpaTestContext {
+
+    // An extra orm.xml to layer over the annotations, e.g. to map ids differently
+    static final String MAPPING_RESOURCE = "test.jpa.mapping-resource";
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = UserRecommendationSnapshotRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+            classes = {UserRecommendationSnapshotRepository.class, JobLeaseRepository.class,
+                SchedulerNodeRepository.class, NotificationRepository.class, StudentRepository.class,
+                StudyScheduleRepository.class, GroupSessionRepository.class, NotificationOutboxRepository.class}))
+    static class Config {
+
+        @Bean(destroyMethod = "close")
+        HikariDataSource dataSource() {
+            HikariDataSource dataSource = new HikariDataSource();
+            // User and Student map a column named year, which H2 2.x reserves
+            dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR");
+            dataSource.setUsername("sa");
+            return dataSource;
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, Environment environment) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setPackagesToScan("org.example.entity");
+            String mappingResource = environment.getProperty(MAPPING_RESOURCE);
+            if (mappingResource != null) {
+                factory.setMappingResources(mappingResource);
+            }
+            Map<String, Object> jpaProperties = new HashMap<>();
+            jpaProperties.put("hibernate.hbm2ddl.auto", "create-drop");
+            jpaProperties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+            jpaProperties.put("hibernate.jdbc.batch_size", "20");
+            jpaProperties.put("hibernate.order_inserts", "true");
+            jpaProperties.put("hibernate.order_updates", "true");
+            jpaProperties.put("hibernate.generate_statistics", "true");
+            factory.setJpaPropertyMap(jpaProperties);
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+    }
+
+    private JpaTestContext() {
+    }
+
+    static AnnotationConfigApplicationContext start(Map<String, Object> properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(Config.class);
+        context.refresh();
+        return context;
+    }
+
+    static Statistics statistics(AnnotationConfigApplicationContext context) {
+        return context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks LocalAIEngine against responses recorded from the Python service:
+ * the same shapes, and the same deterministic rules where the Python engine
+ * has them (personalized recommendations, slot times, factor weights).
+ */
+class LocalAIEngineParityTest {
+
+    private static final List<String> SLOT_TIMES = List.of("09:00", "10:30", "14:00", "15:30", "19:00");
+    private static final Set<String> SUBJECTS = Set.of("Mathematics", "Science", "Literature", "History", "Languages");
+
+    private final LocalAIEngine engine = new LocalAIEngine();
+
+    @Test
+    void recommendationsHaveTheServiceShapeAndCatalogue() {
+        Map<String, Object> recorded = AIServiceFixtures.load("recommendations");
+        Map<String, Object> userData = Map.of("completion_rate", 0.5, "average_session_time", 150);
+        List<Map<String, Object>> local = engine.generateRecommendations(userData);
+
+        List<Map<String, Object>> remote = list(recorded.get("recommendations"));
+        assertThat(local).hasSameSizeAs(remote);
+        assertThat(AIServiceFixtures.shape(local)).isEqualTo(AIServiceFixtures.shape(remote));
+        assertThat(catalogue(userData)).containsAll(remote);
+    }
+
+    @Test
+    void batchResultsHaveTheServiceShape() {
+        Map<String, Object> recorded = AIServiceFixtures.load("recommendations-batch");
+        List<Map<String, Object>> users = List.of(
+            Map.of("completion_rate", 0.5),
+            Map.of("completion_rate", 0.9, "average_session_time", 60));
+
+        List<Map<String, Object>> results = list(recorded.get("results"));
+        assertThat(results).hasSameSizeAs(users);
+        for (int i = 0; i < users.size(); i++) {
+            List<Map<String, Object>> remote = list(results.get(i).get("recommendations"));
+            assertThat(AIServiceFixtures.shape(engine.generateRecommendations(users.get(i))))
+                .isEqualTo(AIServiceFixtures.shape(remote));
+            assertThat(catalogue(users.get(i))).containsAll(remote);
+        }
+    }
+
+    @Test
+    void personalizedRulesFireOnTheServiceThresholds() {
+        assertThat(titles(engine.generateRecommendations(Map.of("completion_rate", 0.69))))
+            .contains("Improve Task Completion");
+        assertThat(titles(engine.generateRecommendations(Map.of("completion_rate", 0.7))))
+            .doesNotContain("Improve Task Completion");
+        assertThat(titles(engine.generateRecommendations(Map.of("completion_rate", 1, "average_session_time", 121))))
+            .contains("Shorter Study Sessions");
+        assertThat(titles(engine.generateRecommendations(Map.of("completion_rate", 1, "average_session_time", 120))))
+            .doesNotContain("Shorter Study Sessions");
+        // A missing completion_rate counts as 0, as in the Python engine
+        assertThat(titles(engine.generateRecommendations(Map.of("study_consistency", 0.9))))
+            .contains("Improve Task Completion");
+        // An empty request gets no personalized rules
+        assertThat(engine.generateRecommendations(Map.of()))
+            .isSubsetOf(LocalAIEngine.BASE_RECOMMENDATIONS);
+    }
+
+    @Test
+    void scheduleSlotsMatchTheServiceList() {
+        Map<String, Object> recorded = AIServiceFixtures.load("schedule-optimize");
+        List<Map<String, Object>> remote = list(recorded.get("optimized_schedule"));
+        List<Map<String, Object>> local = engine.predictOptimalSchedule(Map.of("preferred_times", List.of("09:00")));
+
+        assertThat(AIServiceFixtures.shape(local)).isEqualTo(AIServiceFixtures.shape(remote));
+        assertSlots(remote);
+        assertSlots(local);
+        assertInRange((Number) recorded.get("optimization_score"), 0.8, 0.95);
+        assertInRange(engine.optimizationScore(), 0.8, 0.95);
+    }
+
+    @Test
+    void optimizeScheduleMatchesWhatAIServiceMakesOfTheServiceAnswer() {
+        Map<String, Object> adapted = AIService.toOptimizedSchedule(AIServiceFixtures.load("schedule-optimize"));
+        Map<String, Object> local = AIServiceFixtures.asJson(engine.optimizeSchedule(Map.of()));
+
+        assertThat(adapted).isNotNull();
+        assertThat(AIServiceFixtures.shape(local)).isEqualTo(AIServiceFixtures.shape(adapted));
+    }
+
+    @Test
+    void predictionMatchesTheServiceFactors() {
+        Map<String, Object> recorded = AIServiceFixtures.load("prediction-performance");
+        Map<String, Object> remote = map(recorded.get("prediction"));
+        Map<String, Object> local = AIServiceFixtures.asJson(engine.predictPerformance(Map.of("study_consistency", 0.9)));
+
+        assertThat(AIServiceFixtures.shape(local)).isEqualTo(AIServiceFixtures.shape(remote));
+        // The service reports fixed factor scores; with nothing supplied the engine assumes the same ones
+        assertThat(AIServiceFixtures.asJson(engine.predictPerformance(Map.of("completion_rate", 0.9))).get("factors"))
+            .isEqualTo(remote.get("factors"));
+        assertInRange((Number) local.get("confidence"), 0.7, 0.9);
+        assertThat(titles(list(local.get("recommendations")))).contains("Improve Task Completion");
+        assertThat(titles(list(remote.get("recommendations")))).contains("Improve Task Completion");
+    }
+
+    // Everything the Python engine could sample from for this request: the base list plus the rules that fired
+    private List<Map<String, Object>> catalogue(Map<String, Object> userData) {
+        Set<Map<String, Object>> catalogue = new HashSet<>(LocalAIEngine.BASE_RECOMMENDATIONS);
+        catalogue.addAll(engine.generateRecommendations(userData));
+        return new ArrayList<>(catalogue);
+    }
+
+    private static void assertSlots(List<Map<String, Object>> slots) {
+        assertThat(slots).extracting(slot -> (String) slot.get("time")).containsExactlyInAnyOrderElementsOf(SLOT_TIMES);
+        double previous = Double.MAX_VALUE;
+        for (Map<String, Object> slot : slots) {
+            assertThat(((Number) slot.get("duration")).intValue()).isIn(45, 60, 90);
+            double effectiveness = ((Number) slot.get("effectiveness_score")).doubleValue();
+            assertInRange(effectiveness, 0.7, 0.95);
+            assertThat(effectiveness).isLessThanOrEqualTo(previous);
+            previous = effectiveness;
+            List<?> subjects = (List<?>) slot.get("recommended_subjects");
+            assertThat(subjects).hasSize(2).doesNotHaveDuplicates();
+            assertThat(SUBJECTS).containsAll(subjects.stream().map(String::valueOf).toList());
+        }
+    }
+
+    private static void assertInRange(Number value, double min, double max) {
+        assertThat(value.doubleValue()).isBetween(min, max);
+    }
+
+    private static List<String> titles(List<Map<String, Object>> recommendations) {
+        return recommendations.stream().map(recommendation -> (String) recommendation.get("title")).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> list(Object value) {
+        assertThat(value).isInstanceOf(List.class);
+        return (List<Map<String, Object>>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Object value) {
+        assertThat(value).isInstanceOf(Map.class);
+        return (Map<String, Object>) value;
+    }
+}
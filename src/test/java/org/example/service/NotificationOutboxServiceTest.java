@@ -0,0 +1,337 @@
+package org.example.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.DeliveryProperties;
+import org.example.entity.NotificationOutbox;
+import org.example.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The outbox on H2 delivering to a local SMTP stand-in and an HTTP sink:
+ * messages end up SENT, failures are retried with growing delays and
+ * dead-lettered after the last attempt, two nodes never deliver the same
+ * message twice, and a worker whose claim expired cannot overwrite the
+ * result of the worker that took the message over.
+ */
+class NotificationOutboxServiceTest {
+
+    private static final String BOUNCE = "bounce@example.org";
+
+    private AnnotationConfigApplicationContext context;
+    private NotificationOutboxRepository outboxRepository;
+    private DeliveryProperties properties;
+    private SmtpStandIn smtp;
+    private HttpServer sink;
+    private final List<NotificationOutboxService> nodes = new ArrayList<>();
+    private final List<String> webhookBodies = new CopyOnWriteArrayList<>();
+    private final ExecutorService sinkThreads = Executors.newCachedThreadPool();
+    private volatile IntSupplier sinkStatus = () -> 204;
+
+    @BeforeEach
+    void start() throws IOException {
+        context = JpaTestContext.start(Map.of());
+        outboxRepository = context.getBean(NotificationOutboxRepository.class);
+
+        smtp = new SmtpStandIn(Set.of(BOUNCE));
+        sink = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        sink.createContext("/hooks", exchange -> {
+            webhookBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(sinkStatus.getAsInt(), -1);
+            exchange.close();
+        });
+        // Requests are answered concurrently, so one hanging request does not hold up the retry
+        sink.setExecutor(sinkThreads);
+        sink.start();
+
+        properties = new DeliveryProperties();
+        properties.setWorkerThreads(2);
+        properties.setPollIntervalMs(50);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoffMs(200);
+        properties.setMaxBackoffMs(10_000);
+        properties.getEmail().setEnabled(true);
+        properties.getWebhook().setEnabled(true);
+        properties.getWebhook().setUrl("http://localhost:" + sink.getAddress().getPort() + "/hooks");
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        nodes.forEach(NotificationOutboxService::stop);
+        sink.stop(0);
+        sinkThreads.shutdownNow();
+        smtp.close();
+        context.close();
+    }
+
+    @Test
+    void emailsGoOutOverSmtpAndAreMarkedSent() throws Exception {
+        NotificationOutboxService service = node();
+        for (int i = 0; i < 3; i++) {
+            service.enqueue(EmailDeliveryChannel.NAME, "student" + i + "@example.org", "Reminder", "Study at 5");
+        }
+
+        awaitTrue(() -> count(NotificationOutbox.Status.SENT) == 3);
+
+        assertThat(smtp.delivered).containsExactlyInAnyOrder(
+            "student0@example.org", "student1@example.org", "student2@example.org");
+        assertThat(outboxRepository.findAll()).allSatisfy(message -> {
+            assertThat(message.getClaimToken()).isNull();
+            assertThat(message.getSentAt()).isNotNull();
+            assertThat(message.getAttempts()).isZero();
+        });
+    }
+
+    @Test
+    void aRejectedRecipientIsRetriedWithGrowingDelaysAndThenDeadLettered() throws Exception {
+        NotificationOutboxService service = node();
+        NotificationOutbox good = service.enqueue(EmailDeliveryChannel.NAME, "student@example.org", "Hi", "Body");
+        NotificationOutbox bounced = service.enqueue(EmailDeliveryChannel.NAME, BOUNCE, "Hi", "Body");
+
+        awaitTrue(() -> outboxRepository.findById(bounced.getId()).orElseThrow().getStatus()
+            == NotificationOutbox.Status.DEAD);
+
+        NotificationOutbox dead = outboxRepository.findById(bounced.getId()).orElseThrow();
+        assertThat(dead.getAttempts()).isEqualTo(3);
+        assertThat(dead.getLastError()).contains("550");
+        assertThat(dead.getClaimToken()).isNull();
+        assertThat(outboxRepository.findById(good.getId()).orElseThrow().getStatus())
+            .isEqualTo(NotificationOutbox.Status.SENT);
+        // 200 ms, then 400 ms, each plus up to 20% jitter
+        List<Long> tries = smtp.rejectedAt;
+        assertThat(tries).hasSize(3);
+        assertThat(tries.get(1) - tries.get(0)).isGreaterThanOrEqualTo(200);
+        assertThat(tries.get(2) - tries.get(1)).isGreaterThanOrEqualTo(400);
+        Thread.sleep(800);
+        assertThat(smtp.rejectedAt).hasSize(3);
+    }
+
+    @Test
+    void aFailingWebhookIsRetriedUntilTheSinkAcceptsIt() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        sinkStatus = () -> requests.incrementAndGet() <= 2 ? 503 : 204;
+        NotificationOutboxService service = node();
+        NotificationOutbox message = service.enqueue(WebhookDeliveryChannel.NAME, "reminders", "Hi", "Body");
+
+        awaitTrue(() -> count(NotificationOutbox.Status.SENT) == 1);
+
+        NotificationOutbox sent = outboxRepository.findById(message.getId()).orElseThrow();
+        assertThat(sent.getAttempts()).isEqualTo(2);
+        assertThat(sent.getLastError()).contains("503");
+        assertThat(webhookBodies).hasSize(3).allMatch(body -> body.contains("\"id\":" + message.getId()));
+    }
+
+    @Test
+    void twoNodesNeverDeliverTheSameMessage() throws Exception {
+        properties.getWebhook().setBatchSize(5);
+        NotificationOutboxService first = node();
+        node();
+        for (int i = 0; i < 60; i++) {
+            first.enqueue(WebhookDeliveryChannel.NAME, "topic", "Hi", "Body " + i);
+        }
+
+        awaitTrue(() -> count(NotificationOutbox.Status.SENT) == 60);
+
+        Map<String, Integer> deliveries = new ConcurrentHashMap<>();
+        Matcher id = Pattern.compile("\"id\":(\\d+)").matcher(String.join(",", webhookBodies));
+        while (id.find()) {
+            deliveries.merge(id.group(1), 1, Integer::sum);
+        }
+        assertThat(deliveries).hasSize(60).allSatisfy((messageId, times) -> assertThat(times).isEqualTo(1));
+    }
+
+    @Test
+    void aWorkerWhoseClaimExpiredCannotOverwriteTheResult() throws Exception {
+        properties.setClaimTimeoutSeconds(1);
+        CountDownLatch firstRequestDone = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        // The first delivery hangs past its claim and then fails; the retry by the next claim succeeds
+        sinkStatus = () -> {
+            if (requests.incrementAndGet() > 1) {
+                return 204;
+            }
+            sleep(1500);
+            firstRequestDone.countDown();
+            return 500;
+        };
+        NotificationOutboxService service = node();
+        NotificationOutbox message = service.enqueue(WebhookDeliveryChannel.NAME, "topic", "Hi", "Body");
+
+        assertThat(firstRequestDone.await(10, TimeUnit.SECONDS)).isTrue();
+        awaitTrue(() -> count(NotificationOutbox.Status.SENT) == 1);
+        Thread.sleep(300);
+
+        NotificationOutbox stored = outboxRepository.findById(message.getId()).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(NotificationOutbox.Status.SENT);
+        assertThat(stored.getAttempts()).isZero();
+        assertThat(stored.getLastError()).isNull();
+        assertThat(requests).hasValue(2);
+    }
+
+    private NotificationOutboxService node() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.port());
+        EmailDeliveryChannel email = new EmailDeliveryChannel();
+        ReflectionTestUtils.setField(email, "properties", properties);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("mailSender", mailSender);
+        ReflectionTestUtils.setField(email, "mailSender", beans.getBeanProvider(JavaMailSender.class));
+        WebhookDeliveryChannel webhook = new WebhookDeliveryChannel();
+        ReflectionTestUtils.setField(webhook, "properties", properties);
+        webhook.init();
+
+        NotificationOutboxService service = new NotificationOutboxService();
+        ReflectionTestUtils.setField(service, "properties", properties);
+        ReflectionTestUtils.setField(service, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(service, "channels", List.<DeliveryChannel>of(email, webhook));
+        ReflectionTestUtils.setField(service, "jobLeaseService", Mockito.mock(JobLeaseService.class));
+        ReflectionTestUtils.setField(service, "scheduledJobRunner", Mockito.mock(ScheduledJobRunner.class));
+        ReflectionTestUtils.setField(service, "transactionManager", context.getBean(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.init();
+        service.start();
+        nodes.add(service);
+        return service;
+    }
+
+    private long count(NotificationOutbox.Status status) {
+        return outboxRepository.findAll().stream().filter(message -> message.getStatus() == status).count();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition within 10s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Just enough SMTP for JavaMail: accepts every message and rejects the given recipients with 550
+    private static final class SmtpStandIn implements AutoCloseable {
+        private final ServerSocket server;
+        private final Set<String> rejected;
+        private final List<String> delivered = new CopyOnWriteArrayList<>();
+        private final List<Long> rejectedAt = new CopyOnWriteArrayList<>();
+
+        private SmtpStandIn(Set<String> rejected) throws IOException {
+            this.rejected = rejected;
+            this.server = new ServerSocket(0);
+            Thread acceptor = new Thread(this::accept, "smtp-stand-in");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        private void accept() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread session = new Thread(() -> converse(socket), "smtp-stand-in-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void converse(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost ESMTP");
+                List<String> recipients = new ArrayList<>();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("RCPT TO:")) {
+                        String address = line.substring(line.indexOf('<') + 1, line.lastIndexOf('>'));
+                        if (rejected.contains(address)) {
+                            rejectedAt.add(System.currentTimeMillis());
+                            reply(out, "550 5.1.1 No such user " + address);
+                        } else {
+                            recipients.add(address);
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is not inspected
+                        }
+                        delivered.addAll(recipients);
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        if (command.startsWith("RSET") || command.startsWith("MAIL FROM:")) {
+                            recipients.clear();
+                        }
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.service;
+
+import org.example.entity.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.MessageSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Templated notifications rendered through the MessageSource Boot builds
+ * from the real messages*.properties with the application's i18n settings:
+ * English and Bengali texts, the English fallback for other locales, and
+ * the raw fallback for template ids the bundles do not know.
+ */
+class NotificationRendererTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 14, 16, 30);
+    private static final Locale BENGALI = Locale.forLanguageTag("bn");
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(MessageSourceAutoConfiguration.class))
+        .withPropertyValues(
+            "spring.messages.basename=messages",
+            "spring.messages.encoding=UTF-8",
+            "spring.messages.fallback-to-system-locale=false");
+
+    @Test
+    void scheduleRemindersRenderInEnglishAndBengali() {
+        withRenderer(renderer -> {
+            Notification english = renderer.render(scheduleReminder(), Locale.ENGLISH);
+            Notification bengali = renderer.render(scheduleReminder(), BENGALI);
+
+            assertThat(english.getTitle()).isEqualTo("Study Reminder - 1 hour");
+            assertThat(english.getMessage())
+                .isEqualTo("Don't forget! You have 'Integrals' scheduled for Mar 14, 2026 at 04:30 PM. Subject: Calculus");
+            assertThat(bengali.getTitle()).isEqualTo("পড়াশোনার রিমাইন্ডার - ১ ঘণ্টা");
+            assertThat(bengali.getMessage()).startsWith("ভুলবেন না! ").contains("'Integrals'").endsWith("বিষয়: Calculus");
+        });
+    }
+
+    @Test
+    void tipsAndDigestsResolveTheirNestedKeys() {
+        withRenderer(renderer -> {
+            Notification tip = templated(NotificationTemplate.STUDY_TIP, 5);
+            Notification digest = templated(NotificationTemplate.REMINDER_DIGEST, 2, List.of(
+                new NotificationTemplate.Item("Integrals", AT),
+                new NotificationTemplate.Item("Group session", AT.plusHours(2))));
+
+            assertThat(renderer.render(tip, Locale.ENGLISH).getMessage())
+                .isEqualTo("Stay hydrated and eat brain-healthy foods like nuts, berries, and fish.");
+            assertThat(renderer.renderCopy(tip, BENGALI).getMessage())
+                .isEqualTo("পর্যাপ্ত পানি পান করুন এবং বাদাম, বেরি ও মাছের মতো মস্তিষ্কের জন্য উপকারী খাবার খান।");
+            assertThat(renderer.render(digest, Locale.ENGLISH).getMessage()).isEqualTo(
+                "You have 2 study items coming up:\n"
+                    + "- Integrals at Mar 14, 2026 at 04:30 PM\n"
+                    + "- Group session at Mar 14, 2026 at 06:30 PM");
+        });
+    }
+
+    @Test
+    void otherLocalesReadInEnglish() {
+        withRenderer(renderer -> assertThat(renderer.render(scheduleReminder(), Locale.FRENCH).getTitle())
+            .isEqualTo("Study Reminder - 1 hour"));
+    }
+
+    @Test
+    void anUnknownTemplateFallsBackToItsRawContent() {
+        withRenderer(renderer -> {
+            Notification unknown = new Notification(1L, Notification.NotificationType.STUDY_TIP, "retired_template", "a|b", null);
+
+            renderer.render(unknown, Locale.ENGLISH);
+
+            assertThat(unknown.getTitle()).isEqualTo("retired_template");
+            assertThat(unknown.getMessage()).isEqualTo("a|b");
+        });
+    }
+
+    @Test
+    void aRenderedCopyLeavesTheSharedEntityUntouched() {
+        withRenderer(renderer -> {
+            Notification shared = scheduleReminder();
+
+            Notification copy = renderer.renderCopy(shared, BENGALI);
+
+            assertThat(copy).isNotSameAs(shared);
+            assertThat(copy.getTitle()).isEqualTo("পড়াশোনার রিমাইন্ডার - ১ ঘণ্টা");
+            assertThat(shared.getTitle()).isNull();
+            assertThat(shared.getMessage()).isNull();
+        });
+    }
+
+    private void withRenderer(Consumer<NotificationRenderer> test) {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(MessageSource.class);
+            NotificationRenderer renderer = new NotificationRenderer();
+            ReflectionTestUtils.setField(renderer, "messageSource", context.getBean(MessageSource.class));
+            test.accept(renderer);
+        });
+    }
+
+    private static Notification scheduleReminder() {
+        return templated(NotificationTemplate.SCHEDULE_REMINDER, 60, "Integrals", AT, "Calculus");
+    }
+
+    private static Notification templated(NotificationTemplate template, Object... args) {
+        return new Notification(1L, Notification.NotificationType.SCHEDULE_REMINDER, template.getId(),
+            template.encode(args), null);
+    }
+}
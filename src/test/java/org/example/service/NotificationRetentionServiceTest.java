@@ -0,0 +1,169 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.NotificationRetentionProperties;
+import org.example.entity.Notification;
+import org.example.repository.NotificationRepository;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The retention purge on H2 in chunks of three: it walks past rows that
+ * share a timestamp without skipping any, keeps what is still within
+ * retention, stops at the chunk budget and resumes on the next run, and
+ * keeps a chunk it could not archive, counting it against the run.
+ */
+class NotificationRetentionServiceTest {
+
+    private static final long STUDENT = 3L;
+
+    private AnnotationConfigApplicationContext context;
+    private NotificationRepository notificationRepository;
+    private TransactionTemplate transaction;
+    private NotificationRetentionProperties properties;
+    private UnreadCountCache unreadCountCache;
+    private NotificationRetentionService service;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void start() {
+        context = JpaTestContext.start(Map.of());
+        notificationRepository = context.getBean(NotificationRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        now = LocalDateTime.now().withNano(0);
+
+        properties = new NotificationRetentionProperties();
+        properties.setChunkSize(3);
+        properties.setPauseBetweenChunksMs(0);
+
+        unreadCountCache = new UnreadCountCache();
+        ReflectionTestUtils.setField(unreadCountCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(unreadCountCache, "stripeCount", 1);
+        unreadCountCache.init();
+
+        service = new NotificationRetentionService();
+        ReflectionTestUtils.setField(service, "properties", properties);
+        ReflectionTestUtils.setField(service, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(service, "unreadCountCache", unreadCountCache);
+        ReflectionTestUtils.setField(service, "notificationStreamService", Mockito.mock(NotificationStreamService.class));
+        ReflectionTestUtils.setField(service, "transactionManager", context.getBean(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.init();
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void rowsSharingATimestampAcrossChunkBoundariesAreAllPurged() {
+        // Eleven expired tips over four timestamps, so most chunks end inside a run of equal timestamps
+        for (int i = 0; i < 11; i++) {
+            insert(Notification.NotificationType.STUDY_TIP, now.minusDays(20).plusMinutes(i / 3), false);
+        }
+        Notification fresh = insert(Notification.NotificationType.STUDY_TIP, now.minusDays(13), false);
+        unreadCountCache.get(STUDENT, () -> notificationRepository.countUnreadByStudentId(STUDENT));
+
+        assertThat(service.purge(new ScheduledJobRunner.JobRun())).isEqualTo(11);
+
+        assertThat(notificationRepository.findAll()).extracting(Notification::getId).containsExactly(fresh.getId());
+        // The counter followed the unread rows that went away
+        assertThat(unreadCountCache.get(STUDENT, () -> 99)).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyRulesLeaveUnreadRowsAlone() {
+        Notification unread = insert(Notification.NotificationType.SCHEDULE_REMINDER, now.minusDays(40), false);
+        insert(Notification.NotificationType.SCHEDULE_REMINDER, now.minusDays(40), true);
+        Notification recentRead = insert(Notification.NotificationType.SCHEDULE_REMINDER, now.minusDays(10), true);
+        // No rule for this type
+        Notification invitation = insert(Notification.NotificationType.GROUP_INVITATION, now.minusDays(400), true);
+
+        assertThat(service.purge(new ScheduledJobRunner.JobRun())).isEqualTo(1);
+
+        assertThat(notificationRepository.findAll()).extracting(Notification::getId)
+            .containsExactlyInAnyOrder(unread.getId(), recentRead.getId(), invitation.getId());
+    }
+
+    @Test
+    void aRunStopsAtItsChunkBudgetAndTheNextOneContinues() {
+        for (int i = 0; i < 8; i++) {
+            insert(Notification.NotificationType.STUDY_TIP, now.minusDays(30).plusSeconds(i), true);
+        }
+        properties.setMaxChunksPerRun(2);
+
+        assertThat(service.purge(new ScheduledJobRunner.JobRun())).isEqualTo(6);
+        assertThat(notificationRepository.count()).isEqualTo(2);
+        assertThat(service.purge(new ScheduledJobRunner.JobRun())).isEqualTo(2);
+        assertThat(notificationRepository.count()).isZero();
+    }
+
+    @Test
+    void archivedChunksAreReadableAsOneGzipStream(@TempDir Path archive) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            insert(Notification.NotificationType.STUDY_TIP, now.minusDays(30).plusSeconds(i), true);
+        }
+        properties.setArchiveEnabled(true);
+        properties.setArchiveDirectory(archive.toString());
+
+        assertThat(service.purge(new ScheduledJobRunner.JobRun())).isEqualTo(5);
+
+        Path file = archive.resolve("notifications-" + LocalDate.now() + ".jsonl.gz");
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<String> lines = reader.lines().toList();
+            assertThat(lines).hasSize(5).allMatch(line -> line.contains("\"type\":\"STUDY_TIP\""));
+        }
+    }
+
+    @Test
+    void aChunkThatCannotBeArchivedIsKeptAndCountedAgainstTheRun(@TempDir Path archive) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            insert(Notification.NotificationType.STUDY_TIP, now.minusDays(30).plusSeconds(i), true);
+        }
+        // A plain file where the archive directory should be
+        Path blocked = Files.createFile(archive.resolve("blocked"));
+        properties.setArchiveEnabled(true);
+        properties.setArchiveDirectory(blocked.resolve("archive").toString());
+        ScheduledJobRunner.JobRun run = new ScheduledJobRunner.JobRun();
+
+        assertThat(service.purge(run)).isZero();
+
+        assertThat(notificationRepository.count()).isEqualTo(5);
+        assertThat(ReflectionTestUtils.getField(run, "itemFailures")).asInstanceOf(InstanceOfAssertFactories.MAP)
+            .containsOnlyKeys("UncheckedIOException");
+    }
+
+    private Notification insert(Notification.NotificationType type, LocalDateTime createdAt, boolean read) {
+        return transaction.execute(status -> {
+            Notification notification = new Notification(STUDENT, "Title", "Message", type);
+            notification.setCreatedAt(createdAt);
+            notification.setIsRead(read);
+            return notificationRepository.save(notification);
+        });
+    }
+}
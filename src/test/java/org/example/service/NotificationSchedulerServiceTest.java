@@ -0,0 +1,220 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.ReminderProperties;
+import org.example.entity.GroupSession;
+import org.example.entity.Notification;
+import org.example.entity.Student;
+import org.example.entity.StudyGroup;
+import org.example.entity.StudySchedule;
+import org.example.repository.GroupSessionRepository;
+import org.example.repository.StudentRepository;
+import org.example.repository.StudyScheduleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Due reminders on H2 taking along a student's next reminders into one
+ * digest: the rest of the event's day for day-ahead reminders, only the
+ * digest window for short leads, never more than the allowed share of the
+ * lead early, and only what the wheel hands over.
+ */
+class NotificationSchedulerServiceTest {
+
+    private static final int DAY = 1440;
+
+    private AnnotationConfigApplicationContext context;
+    private TransactionTemplate transaction;
+    private StudyScheduleRepository studyScheduleRepository;
+    private GroupSessionRepository groupSessionRepository;
+    private StudentRepository studentRepository;
+    private NotificationService notificationService;
+    private ReminderProperties properties;
+    private NotificationSchedulerService service;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void start() {
+        context = JpaTestContext.start(Map.of());
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        studyScheduleRepository = context.getBean(StudyScheduleRepository.class);
+        groupSessionRepository = context.getBean(GroupSessionRepository.class);
+        studentRepository = context.getBean(StudentRepository.class);
+        notificationService = Mockito.mock(NotificationService.class);
+        properties = new ReminderProperties();
+        now = LocalDateTime.now();
+
+        service = new NotificationSchedulerService();
+        ReflectionTestUtils.setField(service, "notificationService", notificationService);
+        ReflectionTestUtils.setField(service, "studyScheduleRepository", studyScheduleRepository);
+        ReflectionTestUtils.setField(service, "groupSessionRepository", groupSessionRepository);
+        ReflectionTestUtils.setField(service, "studentRepository", studentRepository);
+        ReflectionTestUtils.setField(service, "reminderProperties", properties);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void aDayAheadReminderTakesAlongTheRestOfThatDay() {
+        Student student = student("a@example.org", true);
+        Student other = student("b@example.org", true);
+        // Six hours inside the next twelve that fall on one calendar day
+        LocalDateTime rangeStart = now.plusMinutes(DAY);
+        LocalDateTime dayStart = rangeStart.plusHours(6).toLocalDate().equals(rangeStart.toLocalDate())
+            ? rangeStart : rangeStart.toLocalDate().plusDays(1).atStartOfDay();
+        StudySchedule due = schedule(student, dayStart.plusMinutes(1));
+        List<Long> sameDay = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            sameDay.add(schedule(student, due.getScheduledTime().plusMinutes(50L * i)).getId());
+        }
+        StudySchedule nextDay = schedule(student, due.getScheduledTime().toLocalDate().plusDays(1).atTime(0, 30));
+        StudySchedule othersSchedule = schedule(other, due.getScheduledTime().plusMinutes(10));
+        Set<Long> claimed = new HashSet<>();
+
+        List<Notification> sent = fire(List.of(reminder(due, DAY)), claimAll(claimed));
+
+        assertThat(claimed).containsExactlyInAnyOrderElementsOf(sameDay)
+            .doesNotContain(nextDay.getId(), othersSchedule.getId());
+        assertThat(sent).hasSize(1);
+        assertThat(digestSize(sent.get(0))).isEqualTo(6);
+    }
+
+    @Test
+    void aShortLeadTakesAlongOnlyItsWindow() {
+        Student student = student("a@example.org", true);
+        StudySchedule due = schedule(student, now.plusMinutes(61));
+        StudySchedule soon = schedule(student, now.plusMinutes(60 + 20));
+        StudySchedule later = schedule(student, now.plusMinutes(60 + 45));
+        Set<Long> claimed = new HashSet<>();
+
+        List<Notification> sent = fire(List.of(reminder(due, 60)), claimAll(claimed));
+
+        assertThat(claimed).containsExactly(soon.getId()).doesNotContain(later.getId());
+        assertThat(sent).hasSize(1);
+        assertThat(digestSize(sent.get(0))).isEqualTo(2);
+    }
+
+    @Test
+    void noReminderGoesOutEarlierThanItsShareOfTheLead() {
+        properties.setDigestMaxAdvanceFraction(0.25);
+        Student student = student("a@example.org", true);
+        StudySchedule due = schedule(student, now.plusMinutes(61));
+        schedule(student, now.plusMinutes(60 + 20));
+        Set<Long> claimed = new HashSet<>();
+
+        // A quarter of an hour's lead is 15 minutes, so the reminder 20 minutes on waits for its own deadline
+        List<Notification> sent = fire(List.of(reminder(due, 60)), claimAll(claimed));
+
+        assertThat(claimed).isEmpty();
+        assertThat(sent).extracting(Notification::getTemplateId).containsExactly("schedule_reminder");
+    }
+
+    @Test
+    void onlyRemindersTheWheelHandsOverAreTakenAlong() {
+        Student student = student("a@example.org", true);
+        Student optedOut = student("b@example.org", false);
+        StudySchedule due = schedule(student, now.plusMinutes(61));
+        schedule(student, now.plusMinutes(70));
+        StudySchedule optedOutDue = schedule(optedOut, now.plusMinutes(61));
+        schedule(optedOut, now.plusMinutes(70));
+        List<ReminderWheelService.Reminder> asked = new ArrayList<>();
+
+        List<Notification> sent = fire(List.of(reminder(due, 60), reminder(optedOutDue, 60)), reminder -> {
+            asked.add(reminder);
+            return false;
+        });
+
+        // The wheel refused the one asked for; the opted-out student's was never asked for
+        assertThat(asked).hasSize(1);
+        assertThat(sent).extracting(Notification::getTemplateId).containsOnly("schedule_reminder").hasSize(2);
+    }
+
+    @Test
+    void aSessionTakenAlongStillReachesEveryParticipant() {
+        Student a = student("a@example.org", true);
+        Student b = student("b@example.org", true);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+            context.getBean(EntityManagerFactory.class));
+        StudyGroup group = transaction.execute(status -> {
+            StudyGroup created = new StudyGroup("Group", "Mathematics", a);
+            entityManager.persist(created);
+            return created;
+        });
+        GroupSession due = session(group, now.plusMinutes(31), a.getId());
+        GroupSession soon = session(group, now.plusMinutes(40), a.getId(), b.getId());
+        Set<Long> claimed = new HashSet<>();
+
+        List<Notification> sent = fire(List.of(new ReminderWheelService.Reminder(
+            ReminderWheelService.ReminderKind.SESSION, due.getId(), 30)), claimAll(claimed));
+
+        assertThat(claimed).containsExactly(soon.getId());
+        assertThat(sent).hasSize(2);
+        Notification forA = sent.stream().filter(n -> n.getStudentId().equals(a.getId())).findFirst().orElseThrow();
+        Notification forB = sent.stream().filter(n -> n.getStudentId().equals(b.getId())).findFirst().orElseThrow();
+        assertThat(digestSize(forA)).isEqualTo(2);
+        assertThat(forB.getTemplateId()).isEqualTo("session_reminder");
+        assertThat(forB.getRelatedEntityId()).isEqualTo(soon.getId().toString());
+    }
+
+    private List<Notification> fire(List<ReminderWheelService.Reminder> due,
+                                    Predicate<ReminderWheelService.Reminder> claimEarly) {
+        transaction.executeWithoutResult(status -> service.fireReminders(due, claimEarly));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> sent = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(notificationService).createNotifications(sent.capture());
+        return sent.getValue();
+    }
+
+    private static Predicate<ReminderWheelService.Reminder> claimAll(Set<Long> claimed) {
+        return reminder -> claimed.add(reminder.entityId());
+    }
+
+    private static ReminderWheelService.Reminder reminder(StudySchedule schedule, int lead) {
+        return new ReminderWheelService.Reminder(ReminderWheelService.ReminderKind.SCHEDULE, schedule.getId(), lead);
+    }
+
+    private static int digestSize(Notification notification) {
+        assertThat(notification.getTemplateId()).isEqualTo(NotificationTemplate.REMINDER_DIGEST.getId());
+        return Integer.parseInt(NotificationTemplate.REMINDER_DIGEST.decode(notification.getParams())[0]);
+    }
+
+    private Student student(String email, boolean digest) {
+        Student student = new Student(email, "Student", "secret");
+        student.setReminderDigest(digest);
+        return transaction.execute(status -> studentRepository.save(student));
+    }
+
+    private StudySchedule schedule(Student student, LocalDateTime at) {
+        StudySchedule schedule = new StudySchedule("Mathematics", "Topic", at, 60, "MEDIUM", "REVIEW");
+        schedule.setStudent(student);
+        return transaction.execute(status -> studyScheduleRepository.save(schedule));
+    }
+
+    private GroupSession session(StudyGroup group, LocalDateTime at, Long... attendees) {
+        GroupSession session = new GroupSession("Session", group, at);
+        session.getAttendeeIds().addAll(List.of(attendees));
+        return transaction.execute(status -> groupSessionRepository.save(session));
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.service;
+
+import org.example.entity.Notification;
+import org.example.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+
+/**
+ * NotificationService on H2: walking the keyset feed page by page, including
+ * rows that share a timestamp, and rejecting cursors it did not issue; bulk
+ * read and delete transitions report exact counts and move the cached unread
+ * counter only once they commit.
+ */
+class NotificationServiceTest {
+
+    private static final long STUDENT = 7L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private AnnotationConfigApplicationContext context;
+    private NotificationRepository notificationRepository;
+    private TransactionTemplate transaction;
+    private UnreadCountCache unreadCountCache;
+    private NotificationService service;
+
+    @BeforeEach
+    void start() {
+        context = JpaTestContext.start(Map.of());
+        notificationRepository = context.getBean(NotificationRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        NotificationRenderer renderer = Mockito.mock(NotificationRenderer.class);
+        Mockito.when(renderer.render(anyList())).then(AdditionalAnswers.returnsFirstArg());
+
+        unreadCountCache = new UnreadCountCache();
+        ReflectionTestUtils.setField(unreadCountCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(unreadCountCache, "stripeCount", 1);
+        unreadCountCache.init();
+
+        service = new NotificationService();
+        ReflectionTestUtils.setField(service, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(service, "unreadCountCache", unreadCountCache);
+        ReflectionTestUtils.setField(service, "notificationStreamService", Mockito.mock(NotificationStreamService.class));
+        ReflectionTestUtils.setField(service, "notificationRenderer", renderer);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void theFeedIsWalkedNewestFirstWithoutGapsOrRepeats() {
+        // Three rows per minute, so page boundaries fall between rows with equal timestamps
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            expected.add(insert(STUDENT, BASE.plusMinutes(i / 3), Notification.NotificationType.STUDY_TIP, false).getId());
+        }
+        insert(STUDENT + 1, BASE, Notification.NotificationType.STUDY_TIP, false);
+        expected.sort((a, b) -> {
+            int byTime = notificationRepository.findById(b).orElseThrow().getCreatedAt()
+                .compareTo(notificationRepository.findById(a).orElseThrow().getCreatedAt());
+            return byTime != 0 ? byTime : Long.compare(b, a);
+        });
+
+        List<Long> walked = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            NotificationService.FeedPage page = service.getNotificationFeed(STUDENT, cursor, 4, null, false);
+            page.items().forEach(notification -> walked.add(notification.getId()));
+            pageSizes.add(page.items().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(walked).containsExactlyElementsOf(expected);
+        assertThat(pageSizes).containsExactly(4, 4, 4, 4, 4, 4, 1);
+    }
+
+    @Test
+    void aFullLastPageHasNoNextCursor() {
+        for (int i = 0; i < 4; i++) {
+            insert(STUDENT, BASE.plusMinutes(i), Notification.NotificationType.STUDY_TIP, false);
+        }
+
+        NotificationService.FeedPage first = service.getNotificationFeed(STUDENT, null, 2, null, false);
+        NotificationService.FeedPage second = service.getNotificationFeed(STUDENT, first.nextCursor(), 2, null, false);
+
+        assertThat(first.nextCursor()).isNotNull();
+        assertThat(second.items()).hasSize(2);
+        assertThat(second.nextCursor()).isNull();
+        assertThat(service.getNotificationFeed(STUDENT + 1, null, 2, null, false).items()).isEmpty();
+    }
+
+    @Test
+    void filtersApplyAcrossPages() {
+        for (int i = 0; i < 6; i++) {
+            insert(STUDENT, BASE.plusMinutes(i), i % 2 == 0
+                ? Notification.NotificationType.STUDY_TIP : Notification.NotificationType.SESSION_REMINDER, i < 3);
+        }
+
+        NotificationService.FeedPage tips = service.getNotificationFeed(STUDENT, null, 2, Notification.NotificationType.STUDY_TIP, false);
+        NotificationService.FeedPage moreTips = service.getNotificationFeed(STUDENT, tips.nextCursor(), 2,
+            Notification.NotificationType.STUDY_TIP, false);
+        NotificationService.FeedPage unread = service.getNotificationFeed(STUDENT, null, 10, null, true);
+
+        assertThat(tips.items()).extracting(Notification::getCreatedAt).containsExactly(BASE.plusMinutes(4), BASE.plusMinutes(2));
+        assertThat(moreTips.items()).extracting(Notification::getCreatedAt).containsExactly(BASE);
+        assertThat(moreTips.nextCursor()).isNull();
+        assertThat(unread.items()).extracting(Notification::getCreatedAt)
+            .containsExactly(BASE.plusMinutes(5), BASE.plusMinutes(4), BASE.plusMinutes(3));
+    }
+
+    @Test
+    void pageSizeIsClampedToOneAndAHundred() {
+        for (int i = 0; i < 105; i++) {
+            insert(STUDENT, BASE.plusSeconds(i), Notification.NotificationType.STUDY_TIP, false);
+        }
+
+        assertThat(service.getNotificationFeed(STUDENT, null, 0, null, false).items()).hasSize(1);
+        assertThat(service.getNotificationFeed(STUDENT, null, 500, null, false).items()).hasSize(100);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String notBase64 = "%%%";
+        String missingId = Base64.getUrlEncoder().encodeToString(BASE.toString().getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|12".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of(notBase64, missingId, badDate)) {
+            assertThatThrownBy(() -> service.getNotificationFeed(STUDENT, cursor, 10, null, false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid feed cursor");
+        }
+    }
+
+    @Test
+    void markAllAsReadCountsOnlyUnreadRowsOfTheStudent() {
+        insertMix();
+        assertThat(service.getUnreadCount(STUDENT)).isEqualTo(4);
+
+        assertThat(inTransaction(() -> service.markAllAsRead(STUDENT))).isEqualTo(4);
+        assertThat(inTransaction(() -> service.markAllAsRead(STUDENT))).isZero();
+
+        assertThat(service.getUnreadCount(STUDENT)).isZero();
+        assertThat(notificationRepository.countUnreadByStudentId(STUDENT + 1)).isEqualTo(1);
+    }
+
+    @Test
+    void markReadByTypeAndCutoffTouchOnlyMatchingRows() {
+        insertMix();
+        service.getUnreadCount(STUDENT);
+
+        assertThat(inTransaction(() -> service.markAsReadByType(STUDENT, Notification.NotificationType.SESSION_REMINDER)))
+            .isEqualTo(2);
+        // The cutoff is exclusive: only the unread tip from BASE is older than BASE + 3 minutes
+        assertThat(inTransaction(() -> service.markAsReadBefore(STUDENT, BASE.plusMinutes(3)))).isEqualTo(1);
+
+        assertThat(service.getUnreadCount(STUDENT)).isEqualTo(1);
+        assertThat(notificationRepository.countUnreadByStudentId(STUDENT)).isEqualTo(1);
+    }
+
+    @Test
+    void bulkDeleteCountsRowsAndTheUnreadOnesAmongThem() {
+        List<Notification> mine = insertMix();
+        Notification theirs = insert(STUDENT + 1, BASE, Notification.NotificationType.STUDY_TIP, false);
+        service.getUnreadCount(STUDENT);
+        // Two unread, one read and another student's notification
+        List<Long> ids = List.of(mine.get(0).getId(), mine.get(1).getId(), mine.get(4).getId(), theirs.getId());
+
+        assertThat(inTransaction(() -> service.deleteNotifications(STUDENT, ids))).isEqualTo(3);
+
+        assertThat(service.getUnreadCount(STUDENT)).isEqualTo(2);
+        assertThat(notificationRepository.countUnreadByStudentId(STUDENT)).isEqualTo(2);
+        assertThat(notificationRepository.findById(theirs.getId())).isPresent();
+        assertThat(inTransaction(() -> service.deleteNotifications(STUDENT, List.of()))).isZero();
+    }
+
+    @Test
+    void aRolledBackBulkUpdateLeavesTheCounterAlone() {
+        insertMix();
+        service.getUnreadCount(STUDENT);
+
+        transaction.executeWithoutResult(status -> {
+            assertThat(service.markAllAsRead(STUDENT)).isEqualTo(4);
+            status.setRollbackOnly();
+        });
+
+        assertThat(service.getUnreadCount(STUDENT)).isEqualTo(4);
+        assertThat(notificationRepository.countUnreadByStudentId(STUDENT)).isEqualTo(4);
+    }
+
+    // Four unread (two tips, two session reminders) and two read, plus one unread row of another student
+    private List<Notification> insertMix() {
+        List<Notification> rows = new ArrayList<>();
+        rows.add(insert(STUDENT, BASE, Notification.NotificationType.STUDY_TIP, false));
+        rows.add(insert(STUDENT, BASE.plusMinutes(1), Notification.NotificationType.SESSION_REMINDER, false));
+        rows.add(insert(STUDENT, BASE.plusMinutes(3), Notification.NotificationType.SESSION_REMINDER, false));
+        rows.add(insert(STUDENT, BASE.plusMinutes(4), Notification.NotificationType.STUDY_TIP, false));
+        rows.add(insert(STUDENT, BASE.plusMinutes(5), Notification.NotificationType.STUDY_TIP, true));
+        rows.add(insert(STUDENT, BASE.plusMinutes(6), Notification.NotificationType.SESSION_REMINDER, true));
+        insert(STUDENT + 1, BASE, Notification.NotificationType.STUDY_TIP, false);
+        return rows;
+    }
+
+    private int inTransaction(Supplier<Integer> work) {
+        return transaction.execute(status -> work.get());
+    }
+
+    private Notification insert(long studentId, LocalDateTime createdAt, Notification.NotificationType type, boolean read) {
+        return transaction.execute(status -> {
+            Notification notification = new Notification(studentId, "Title", "Message", type);
+            notification.setCreatedAt(createdAt);
+            notification.setIsRead(read);
+            return notificationRepository.save(notification);
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.entity.Notification;
+import org.example.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Streams with one dispatcher thread and a client whose socket stops
+ * reading: other students still get their events, the slow one is resynced
+ * instead of buffering without bound, and a write stuck past the timeout
+ * disconnects it.
+ */
+class NotificationStreamServiceTest {
+
+    private static final long SLOW = 1L;
+    private static final long FAST = 2L;
+    private static final int QUEUE_SIZE = 5;
+
+    private final Deque<ClientEmitter> connections = new ArrayDeque<>();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private NotificationStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        NotificationRenderer renderer = Mockito.mock(NotificationRenderer.class);
+        Mockito.when(renderer.renderCopy(any(), any())).then(AdditionalAnswers.returnsFirstArg());
+
+        service = new NotificationStreamService() {
+            @Override
+            SseEmitter createEmitter() {
+                return connections.removeFirst();
+            }
+        };
+        ReflectionTestUtils.setField(service, "timeoutMillis", 60_000L);
+        ReflectionTestUtils.setField(service, "replayBufferSize", 100);
+        ReflectionTestUtils.setField(service, "replayWindowSeconds", 300);
+        ReflectionTestUtils.setField(service, "dispatcherThreads", 1);
+        ReflectionTestUtils.setField(service, "subscriberQueueSize", QUEUE_SIZE);
+        ReflectionTestUtils.setField(service, "writeTimeoutMillis", 100L);
+        ReflectionTestUtils.setField(service, "unreadCountCache", Mockito.mock(UnreadCountCache.class));
+        ReflectionTestUtils.setField(service, "notificationRepository", Mockito.mock(NotificationRepository.class));
+        ReflectionTestUtils.setField(service, "notificationRenderer", renderer);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void aStalledClientDoesNotHoldUpOtherStudents() throws Exception {
+        ClientEmitter slow = connect(SLOW, unblock);
+        ClientEmitter fast = connect(FAST, null);
+        awaitTrue(() -> slow.sending);
+
+        service.publishNotification(notification(SLOW));
+        service.publishNotification(notification(FAST));
+
+        awaitTrue(() -> fast.events.contains(NotificationStreamService.NOTIFICATION_EVENT));
+        assertThat(slow.events).isEmpty();
+    }
+
+    @Test
+    void aClientThatFallsTooFarBehindIsResyncedInsteadOfBuffered() throws Exception {
+        ClientEmitter slow = connect(SLOW, unblock);
+        awaitTrue(() -> slow.sending);
+
+        for (int i = 0; i < 3 * QUEUE_SIZE; i++) {
+            service.publishNotification(notification(SLOW));
+        }
+        Thread.sleep(200);
+        unblock.countDown();
+
+        awaitTrue(() -> slow.events.contains(NotificationStreamService.RESYNC_EVENT)
+            && slow.events.get(slow.events.size() - 1).equals(NotificationStreamService.UNREAD_COUNT_EVENT));
+        // Never more than one queue's worth of notifications between resyncs
+        assertThat(slow.events.stream().filter(NotificationStreamService.NOTIFICATION_EVENT::equals).count())
+            .isLessThanOrEqualTo(QUEUE_SIZE);
+    }
+
+    @Test
+    void aWriteStuckPastTheTimeoutDisconnectsTheClient() throws Exception {
+        ClientEmitter slow = connect(SLOW, unblock);
+        ClientEmitter fast = connect(FAST, null);
+        awaitTrue(() -> slow.sending);
+        awaitTrue(() -> !fast.events.isEmpty());
+
+        Thread.sleep(200);
+        service.heartbeat();
+
+        assertThat(slow.completedWith).isInstanceOf(IOException.class);
+        assertThat(fast.completedWith).isNull();
+        assertThat(service.getSubscriberCount()).isEqualTo(1);
+    }
+
+    private ClientEmitter connect(long studentId, CountDownLatch blockUntil) {
+        ClientEmitter emitter = new ClientEmitter(blockUntil);
+        connections.addLast(emitter);
+        service.subscribe(studentId, null);
+        return emitter;
+    }
+
+    private static Notification notification(long studentId) {
+        Notification notification = new Notification(studentId, "Title", "Message", Notification.NotificationType.STUDY_TIP);
+        notification.setId(System.nanoTime());
+        return notification;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // A client connection: records event names, optionally blocking its first send like a full socket
+    private static final class ClientEmitter extends SseEmitter {
+        private static final Pattern EVENT_NAME = Pattern.compile("^event:(\\S+)$", Pattern.MULTILINE);
+
+        private final CountDownLatch blockUntil;
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean sending;
+        private volatile Throwable completedWith;
+
+        private ClientEmitter(CountDownLatch blockUntil) {
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending = true;
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            Matcher name = EVENT_NAME.matcher(text);
+            events.add(name.find() ? name.group(1) : "comment");
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            completedWith = ex;
+            super.completeWithError(ex);
+        }
+    }
+}
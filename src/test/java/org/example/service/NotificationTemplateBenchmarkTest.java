@@ -0,0 +1,94 @@
+package org.example.service;
+
+import org.example.entity.Notification;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.MessageSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A typical schedule reminder stored as rendered title and message (as
+ * before, built with String.format and a new DateTimeFormatter per call)
+ * and as template id plus packed arguments rendered on read (as now):
+ * characters stored per row and the cost of producing the text once.
+ */
+class NotificationTemplateBenchmarkTest {
+
+    private static final LocalDateTime AT = LocalDateTime.of(2026, 3, 14, 16, 30);
+    private static final int ITERATIONS = 50_000;
+    private static final int ROUNDS = 5;
+
+    private record Result(int storedChars, double bestNanosPerOp) {}
+
+    // Keeps the JIT from discarding the rendered text
+    private static int sink;
+
+    @Test
+    void templatesStoreLessThanRenderedText() {
+        new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MessageSourceAutoConfiguration.class))
+            .withPropertyValues("spring.messages.basename=messages", "spring.messages.encoding=UTF-8",
+                "spring.messages.fallback-to-system-locale=false")
+            .run(context -> {
+                NotificationRenderer renderer = new NotificationRenderer();
+                ReflectionTestUtils.setField(renderer, "messageSource", context.getBean(MessageSource.class));
+                Notification stored = new Notification(1L, Notification.NotificationType.SCHEDULE_REMINDER,
+                    NotificationTemplate.SCHEDULE_REMINDER.getId(),
+                    NotificationTemplate.SCHEDULE_REMINDER.encode(60, "Integrals", AT, "Calculus"), null);
+
+                String[] formatted = formatted();
+                Result before = new Result(formatted[0].length() + formatted[1].length(), best(() -> {
+                    String[] text = formatted();
+                    sink += text[0].length() + text[1].length();
+                }));
+                Result after = new Result(stored.getTemplateId().length() + stored.getParams().length(), best(() -> {
+                    Notification rendered = renderer.renderCopy(stored, Locale.ENGLISH);
+                    sink += rendered.getTitle().length() + rendered.getMessage().length();
+                }));
+
+                System.out.printf("Schedule reminder, best of %d rounds of %d:%n"
+                        + "  rendered text: %d chars stored, %.0f ns/op (String.format)%n"
+                        + "  template:      %d chars stored, %.0f ns/op (render on read)%n",
+                    ROUNDS, ITERATIONS, before.storedChars(), before.bestNanosPerOp(),
+                    after.storedChars(), after.bestNanosPerOp());
+                // Both produce the same text
+                Notification rendered = renderer.renderCopy(stored, Locale.ENGLISH);
+                assertThat(new String[] {rendered.getTitle(), rendered.getMessage()}).containsExactly(formatted);
+                // Timings depend on the machine and are only reported
+                assertThat(after.storedChars()).isLessThan(before.storedChars() / 2);
+            });
+    }
+
+    // The text as NotificationSchedulerService used to build and store it
+    private static String[] formatted() {
+        String formattedTime = AT.format(DateTimeFormatter.ofPattern("MMM dd, yyyy 'at' hh:mm a"));
+        String title = String.format("Study Reminder - %s", "1 hour");
+        String message = String.format("Don't forget! You have '%s' scheduled for %s. Subject: %s",
+            "Integrals", formattedTime, "Calculus");
+        return new String[] {title, message};
+    }
+
+    private static double best(Runnable op) {
+        double best = Double.MAX_VALUE;
+        // The first round warms up
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                op.run();
+            }
+            double perOp = (double) (System.nanoTime() - start) / ITERATIONS;
+            if (round > 0) {
+                best = Math.min(best, perOp);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The batcher against a slow stub: callers are always answered, also while
+ * the application shuts down, and batching serves a burst of users with a
+ * fraction of the calls and no worse latency than one call per user.
+ */
+class RecommendationBatcherTest {
+
+    private static final long STUB_LATENCY_MS = 50;
+    private static final int USERS = 64;
+    private static final int ROUNDS = 5;
+
+    private record Run(long calls, long wallMs, long p50Ms, long p99Ms) {}
+
+    private AIServiceStub stub;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        stub = new AIServiceStub(new AIServiceStub.Settings().setLatencyMs(STUB_LATENCY_MS));
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop();
+    }
+
+    @Test
+    void requestsAfterTheSendersShutDownAreAnsweredWithNull() throws Exception {
+        try (AnnotationConfigApplicationContext context = AIServiceTestContext.start(stub, Map.of())) {
+            context.getBean(AIExecutors.class).batchSenders().shutdownNow();
+
+            CompletableFuture<List<Map<String, Object>>> result =
+                context.getBean(RecommendationBatcher.class).submit(Map.of("completion_rate", 0.5));
+
+            assertThat(result.get(2, TimeUnit.SECONDS)).isNull();
+        }
+    }
+
+    @Test
+    void everyCallerIsAnsweredWhenTheContextCloses() throws Exception {
+        stub.setSettings(new AIServiceStub.Settings().setLatencyMs(300));
+        List<CompletableFuture<List<Map<String, Object>>>> results = new ArrayList<>();
+        AnnotationConfigApplicationContext context = AIServiceTestContext.start(stub,
+            Map.of("app.ai.service.batch-max-size", "2", "app.ai.service.batch-sender-threads", "1"));
+        RecommendationBatcher batcher = context.getBean(RecommendationBatcher.class);
+        for (int i = 0; i < 20; i++) {
+            results.add(batcher.submit(Map.of("user", i)));
+        }
+
+        context.close();
+        results.add(batcher.submit(Map.of("user", "late")));
+
+        // Sent or not, nobody is left waiting
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void batchingServesABurstWithFewerCallsAndNoWorseLatency() throws Exception {
+        // Pools sized for the burst, so one call per user is not held back by the bulkhead
+        Map<String, Object> sizing = Map.of(
+            "app.ai.service.bulkhead-max-concurrent", String.valueOf(USERS),
+            "app.ai.service.max-connections", String.valueOf(USERS));
+
+        Run unbatched = run(merge(sizing, Map.of("app.ai.service.batch-enabled", "false")), "/api/recommendations");
+        Run batched = run(merge(sizing, Map.of("app.ai.service.batch-enabled", "true")), "/api/recommendations/batch");
+
+        System.out.printf("%d users x %d rounds, %d ms service latency%n  unbatched: %s%n  batched:   %s%n",
+            USERS, ROUNDS, STUB_LATENCY_MS, unbatched, batched);
+        assertThat(unbatched.calls()).isEqualTo((long) USERS * ROUNDS);
+        assertThat(batched.calls()).isLessThanOrEqualTo((long) USERS * ROUNDS / 8);
+        // A batch waits a few milliseconds to fill; allow for that and scheduling noise
+        assertThat(batched.p50Ms()).isLessThanOrEqualTo(unbatched.p50Ms() + 2 * STUB_LATENCY_MS);
+    }
+
+    private Run run(Map<String, Object> properties, String path) throws Exception {
+        long callsBefore = stub.getRequestCount(path);
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        try (AnnotationConfigApplicationContext context = AIServiceTestContext.start(stub, properties)) {
+            AIService aiService = context.getBean(AIService.class);
+            // One warm-up round opens the connections
+            round(aiService, users, -1);
+            callsBefore = stub.getRequestCount(path);
+
+            long[] latencies = new long[USERS * ROUNDS];
+            long start = System.nanoTime();
+            for (int round = 0; round < ROUNDS; round++) {
+                long[] roundLatencies = round(aiService, users, round);
+                System.arraycopy(roundLatencies, 0, latencies, round * USERS, USERS);
+            }
+            long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Arrays.sort(latencies);
+            return new Run(stub.getRequestCount(path) - callsBefore, wallMs,
+                latencies[latencies.length / 2], latencies[latencies.length * 99 / 100]);
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    // All users ask at once; latency of each call in milliseconds
+    private long[] round(AIService aiService, ExecutorService users, int round) throws Exception {
+        List<CompletableFuture<Long>> calls = new ArrayList<>(USERS);
+        for (int user = 0; user < USERS; user++) {
+            Map<String, Object> analytics = Map.of("user", user, "round", round, "completion_rate", 0.5);
+            calls.add(CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                List<Map<String, Object>> recommendations = aiService.fetchRecommendations(analytics).join();
+                assertThat(recommendations).as("answered over the wire").isNotEmpty();
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            }, users));
+        }
+        long[] latencies = new long[USERS];
+        for (int i = 0; i < USERS; i++) {
+            latencies[i] = calls.get(i).get(30, TimeUnit.SECONDS);
+        }
+        return latencies;
+    }
+
+    private static Map<String, Object> merge(Map<String, Object> first, Map<String, Object> second) {
+        Map<String, Object> merged = new HashMap<>(first);
+        merged.putAll(second);
+        return merged;
+    }
+}
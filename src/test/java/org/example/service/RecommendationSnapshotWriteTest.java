@@ -0,0 +1,139 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.RecommendationPrecomputeProperties;
+import org.example.entity.UserRecommendationSnapshot;
+import org.example.repository.UserRecommendationSnapshotRepository;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The nightly snapshot write: a chunk costs one SELECT however many of its
+ * users already have a row, and the inserts and updates go out in JDBC
+ * batches instead of one statement (and one lookup) per user. A snapshot
+ * computed before the user's analytics changed is never served, whether
+ * it is written before or after the eviction.
+ */
+class RecommendationSnapshotWriteTest {
+
+    private static final int CHUNK = 100;
+
+    private AnnotationConfigApplicationContext context;
+    private UserRecommendationSnapshotRepository snapshotRepository;
+    private RecommendationPrecomputeService service;
+    private Statistics statistics;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void start() {
+        context = JpaTestContext.start(Map.of());
+        snapshotRepository = context.getBean(UserRecommendationSnapshotRepository.class);
+        statistics = JpaTestContext.statistics(context);
+
+        TransactionTemplate writeTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        service = new RecommendationPrecomputeService();
+        ReflectionTestUtils.setField(service, "properties", new RecommendationPrecomputeProperties());
+        ReflectionTestUtils.setField(service, "snapshotRepository", snapshotRepository);
+        ReflectionTestUtils.setField(service, "writeTransaction", writeTransaction);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void newSnapshotsAreInsertedWithoutLookingEachUp() {
+        statistics.clear();
+
+        service.saveSnapshots(snapshots(1, CHUNK, "first night"));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(CHUNK);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        // The chunk's SELECT plus CHUNK / 20 insert batches
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + CHUNK / 20);
+        assertThat(snapshotRepository.count()).isEqualTo(CHUNK);
+    }
+
+    @Test
+    void existingSnapshotsAreUpdatedInPlace() {
+        service.saveSnapshots(snapshots(1, CHUNK, "first night"));
+        statistics.clear();
+
+        // Half the users had a snapshot last night, half are new
+        service.saveSnapshots(snapshots(CHUNK / 2 + 1, CHUNK, "second night"));
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(CHUNK / 2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(CHUNK / 2);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1 + 2 * (CHUNK / 2 / 20 + 1));
+        assertThat(snapshotRepository.count()).isEqualTo(CHUNK + CHUNK / 2);
+        assertThat(snapshotRepository.findById((long) CHUNK)).get()
+            .extracting(UserRecommendationSnapshot::getInsights).isEqualTo("{\"night\":\"second night\"}");
+        assertThat(snapshotRepository.findById(1L)).get()
+            .extracting(UserRecommendationSnapshot::getInsights).isEqualTo("{\"night\":\"first night\"}");
+    }
+
+    @Test
+    void aSnapshotWrittenAfterTheEvictionOfItsUserIsNotServed() {
+        // The chunk read the analytics, then they changed before the chunk was written
+        List<UserRecommendationSnapshot> chunk = snapshots(1, 2, "first night", LocalDateTime.now().minusMinutes(1));
+        service.evict(1L);
+
+        service.saveSnapshots(chunk);
+
+        assertThat(service.findFresh(1L)).isEmpty();
+        assertThat(service.findFresh(2L)).get().extracting(insights -> insights.get("night")).isEqualTo("first night");
+        assertThat(lookups("evicted")).isEqualTo(1);
+    }
+
+    @Test
+    void anEvictedSnapshotStaysUnservedUntilTheNextRunRecomputesIt() {
+        service.saveSnapshots(snapshots(1, 1, "first night", LocalDateTime.now().minusHours(1)));
+        assertThat(service.findFresh(1L)).isPresent();
+
+        service.evict(1L);
+        assertThat(service.findFresh(1L)).isEmpty();
+        // A chunk that started before the eviction keeps the mark in place
+        service.saveSnapshots(snapshots(1, 1, "overlapping run", LocalDateTime.now().minusMinutes(1)));
+        assertThat(service.findFresh(1L)).isEmpty();
+
+        service.saveSnapshots(snapshots(1, 1, "second night", LocalDateTime.now().plusSeconds(1)));
+        assertThat(service.findFresh(1L)).get().extracting(insights -> insights.get("night")).isEqualTo("second night");
+        assertThat(snapshotRepository.count()).isEqualTo(1);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.counter("recommendations.snapshot.lookups", "result", result).count();
+    }
+
+    private static List<UserRecommendationSnapshot> snapshots(int firstUserId, int count, String night) {
+        return snapshots(firstUserId, count, night, LocalDateTime.now());
+    }
+
+    private static List<UserRecommendationSnapshot> snapshots(int firstUserId, int count, String night,
+                                                              LocalDateTime computedAt) {
+        List<UserRecommendationSnapshot> snapshots = new ArrayList<>(count);
+        for (long userId = firstUserId; userId < firstUserId + count; userId++) {
+            snapshots.add(new UserRecommendationSnapshot(userId, "{\"night\":\"" + night + "\"}", null, computedAt));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.Notification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Rows left above the sequence by IDENTITY ids: the migration moves the
+ * sequence past them, never back, and a node that finds another node
+ * migrating waits its turn and then checks for itself.
+ */
+class SequenceIdMigrationTest {
+
+    private AnnotationConfigApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private JdbcTemplate jdbcTemplate;
+    private JobLeaseService jobLeaseService;
+    private SequenceIdMigration migration;
+
+    @BeforeEach
+    void start() {
+        context = JpaTestContext.start(Map.of());
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Another node holds the lease on the first try, then it is free
+        jobLeaseService = Mockito.mock(JobLeaseService.class);
+        Mockito.when(jobLeaseService.runExclusively(eq("migrateSequenceIds"), any(), any(), any()))
+            .thenReturn(false)
+            .thenAnswer(invocation -> {
+                invocation.<Runnable>getArgument(3).run();
+                return true;
+            });
+
+        migration = new SequenceIdMigration();
+        ReflectionTestUtils.setField(migration, "migrateOnStartup", true);
+        ReflectionTestUtils.setField(migration, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(migration, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(migration, "jobLeaseService", jobLeaseService);
+    }
+
+    @AfterEach
+    void stop() {
+        context.close();
+    }
+
+    @Test
+    void sequenceMovesPastIdsAlreadyInTheTable() {
+        insertNotifications(3);
+        // As if these rows had been numbered by an IDENTITY column long before the sequence existed
+        jdbcTemplate.update("UPDATE notifications SET id = id + 10000");
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM notifications", Long.class);
+
+        migration.migrate();
+
+        // Lost the lease once, waited, then migrated itself
+        verify(jobLeaseService, times(2)).runExclusively(eq("migrateSequenceIds"), eq(Duration.ofMinutes(5)),
+            eq(Duration.ZERO), any());
+        // Hibernate still holds ids from the block it drew before; a new node would not
+        assertThat(nextSequenceValue("notifications_seq")).isGreaterThan(maxId);
+    }
+
+    @Test
+    void sequenceIsNeverMovedBack() {
+        insertNotifications(3);
+        long before = nextSequenceValue("notifications_seq");
+
+        migration.migrate();
+
+        assertThat(nextSequenceValue("notifications_seq")).isGreaterThan(before);
+    }
+
+    private void insertNotifications(int count) {
+        transaction.executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                entityManager.persist(new Notification(1L, "Title " + i, "Message",
+                    Notification.NotificationType.SCHEDULE_REMINDER));
+            }
+        });
+    }
+
+    private long nextSequenceValue(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+    }
+}
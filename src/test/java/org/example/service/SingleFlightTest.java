@@ -0,0 +1,148 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Callers held inside one computation by a latch: identical concurrent
+ * calls share its result or its exception, different keys and names run
+ * on their own, and nothing is remembered once it has finished.
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger computations = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight();
+        ReflectionTestUtils.setField(singleFlight, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsForOneKeyShareOneComputation() throws Exception {
+        List<Future<String>> results = callAll("insights", 1L, () -> "result");
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitCoalesced("insights", CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(calls("insights", "leader")).isEqualTo(1);
+    }
+
+    @Test
+    void everyWaiterGetsTheLeadersException() throws Exception {
+        List<Future<String>> results = callAll("insights", 1L, () -> {
+            throw new IllegalStateException("database down");
+        });
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitCoalesced("insights", CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("database down");
+        }
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void otherKeysAndNamesDoNotWait() throws Exception {
+        Future<String> held = callers.submit(() -> singleFlight.execute("insights", 1L, held("held")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Both finish while the first computation is still held
+        assertThat(singleFlight.execute("insights", 2L, () -> "other key")).isEqualTo("other key");
+        assertThat(singleFlight.execute("analytics", 1L, () -> "other name")).isEqualTo("other name");
+
+        assertThat(held).isNotDone();
+        release.countDown();
+        assertThat(held.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+    }
+
+    @Test
+    void aFinishedComputationIsNotRemembered() {
+        AtomicInteger runs = new AtomicInteger();
+
+        singleFlight.execute("insights", 1L, runs::incrementAndGet);
+        assertThatThrownBy(() -> singleFlight.execute("insights", 1L, () -> {
+            throw new IllegalStateException("once");
+        })).hasMessage("once");
+
+        assertThat(singleFlight.execute("insights", 1L, runs::incrementAndGet)).isEqualTo(2);
+        assertThat(calls("insights", "coalesced")).isZero();
+    }
+
+    private List<Future<String>> callAll(String name, Object key, Supplier<String> outcome) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> singleFlight.execute(name, key, held(outcome))));
+        }
+        return results;
+    }
+
+    private Supplier<String> held(String value) {
+        return held(() -> value);
+    }
+
+    // Counts the computation and holds it until the test releases it
+    private Supplier<String> held(Supplier<String> outcome) {
+        return () -> {
+            computations.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return outcome.get();
+        };
+    }
+
+    // The coalesced count is taken before a caller waits, so this means every caller has joined
+    private void awaitCoalesced(String name, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (calls(name, "coalesced") < count) {
+            assertThat(System.currentTimeMillis()).as("callers joined").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private double calls(String name, String role) {
+        return meterRegistry.counter("singleflight.calls", "name", name, "role", role).count();
+    }
+}
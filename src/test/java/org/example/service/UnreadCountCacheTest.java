@@ -0,0 +1,109 @@
+package org.example.service;
+
+import org.example.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Unread counters: seeded once from the COUNT query, adjusted in memory,
+ * bounded per stripe, and pulled back to the database's numbers by the
+ * reconciler when they drift.
+ */
+class UnreadCountCacheTest {
+
+    private final NotificationRepository notificationRepository = Mockito.mock(NotificationRepository.class);
+    private UnreadCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Runs the job on the calling thread
+        ScheduledJobRunner scheduledJobRunner = Mockito.mock(ScheduledJobRunner.class);
+        Mockito.when(scheduledJobRunner.run(eq("reconcileUnreadCounters"), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<ScheduledJobRunner.JobRun>>getArgument(1).accept(new ScheduledJobRunner.JobRun());
+            return true;
+        });
+
+        cache = new UnreadCountCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 4);
+        ReflectionTestUtils.setField(cache, "stripeCount", 1);
+        ReflectionTestUtils.setField(cache, "notificationRepository", notificationRepository);
+        ReflectionTestUtils.setField(cache, "scheduledJobRunner", scheduledJobRunner);
+        cache.init();
+    }
+
+    @Test
+    void aMissIsSeededOnceAndThenServedFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(1L, () -> { loads.incrementAndGet(); return 3; })).isEqualTo(3);
+        assertThat(cache.get(1L, () -> { loads.incrementAndGet(); return 99; })).isEqualTo(3);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void adjustmentsApplyToCachedStudentsOnlyAndNeverGoNegative() {
+        cache.get(1L, () -> 2);
+        cache.add(1L, 3);
+        cache.add(1L, -10);
+        // Not cached: ignored, and seeded from the database on the next read
+        cache.add(2L, 5);
+
+        assertThat(cache.get(1L, () -> 99)).isZero();
+        assertThat(cache.get(2L, () -> 7)).isEqualTo(7);
+    }
+
+    @Test
+    void theLeastRecentlyUsedStudentIsEvicted() {
+        for (long id = 1; id <= 4; id++) {
+            long seeded = id;
+            cache.get(id, () -> seeded);
+        }
+        cache.get(1L, () -> 99);
+        cache.get(5L, () -> 5);
+
+        assertThat(cache.size()).isEqualTo(4);
+        // Student 2 was the oldest untouched entry and is loaded again
+        assertThat(cache.get(2L, () -> 42)).isEqualTo(42);
+        assertThat(cache.get(1L, () -> 99)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileReplacesDriftedCountsWithTheDatabaseCounts() {
+        cache.get(1L, () -> 5);
+        cache.get(2L, () -> 1);
+        // Drift, e.g. from a change made through another node
+        cache.add(1L, 4);
+        List<Object[]> counts = new ArrayList<>();
+        counts.add(new Object[] {1L, 6L});
+        Mockito.when(notificationRepository.countUnreadByStudentIds(anyCollection())).thenReturn(counts);
+
+        cache.reconcile();
+
+        assertThat(cache.get(1L, () -> 99)).isEqualTo(6);
+        // Absent from the result means no unread notifications left
+        assertThat(cache.get(2L, () -> 99)).isZero();
+        Mockito.verify(notificationRepository).countUnreadByStudentIds(Mockito.<Collection<Long>>argThat(ids ->
+            ids.containsAll(List.of(1L, 2L)) && ids.size() == 2));
+    }
+
+    @Test
+    void invalidatedStudentsAreSeededAgain() {
+        cache.get(1L, () -> 5);
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, () -> 8)).isEqualTo(8);
+    }
+}